@@ -2,8 +2,10 @@ package jpademo.jpademo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class JpademoApplication {
 
 	public static void main(String[] args) {
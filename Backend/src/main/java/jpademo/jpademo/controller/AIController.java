@@ -1,17 +1,40 @@
 package jpademo.jpademo.controller;
 
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import jpademo.jpademo.model.dto.BudgetSuggestion;
+import jpademo.jpademo.model.dto.BudgetSuggestionRequest;
+import jpademo.jpademo.model.dto.CategoryAmount;
+import jpademo.jpademo.model.dto.CategorySuggestion;
+import jpademo.jpademo.model.dto.CategorySuggestionRequest;
+import jpademo.jpademo.model.dto.ExpenseTips;
+import jpademo.jpademo.model.dto.MonthlyAnalytics;
+import jpademo.jpademo.model.dto.MonthlyAnalyticsRequest;
+import jpademo.jpademo.model.dto.SpendingAlert;
+import jpademo.jpademo.model.dto.SpendingAlertRequest;
+import jpademo.jpademo.model.dto.SpendingForecast;
+import jpademo.jpademo.model.service.AIResultCache;
 import jpademo.jpademo.model.service.AIService;
+import jpademo.jpademo.model.service.AnalyticsService;
+import jpademo.jpademo.model.service.ForecastService;
+import jpademo.jpademo.util.LruCache;
 
 @RestController
 @RequestMapping("/api/ai")
@@ -21,14 +44,28 @@ public class AIController {
     @Autowired
     private AIService aiService;
 
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private ForecastService forecastService;
+
+    @Autowired
+    private AIResultCache resultCache;
+
+    // A JSON array body is a List; wrapped so the key cannot be confused with another endpoint's
+    private record ExpenseTipsKey(List<CategoryAmount> expenses) {
+    }
+
     /**
      * 1. Get personalized expense tips based on spending patterns
      * Request: [{"category":"Food","amount":12000}, {"category":"Transport","amount":5000}]
      * Response: {"type":"expense_tips", "tips":[...], "status":"success"}
      */
     @PostMapping("/expense-tips")
-    public ResponseEntity<Map<String, Object>> getExpenseTips(@RequestBody List<Map<String, Object>> expenses) {
-        Map<String, Object> response = aiService.generateExpenseTips(expenses);
+    public ResponseEntity<ExpenseTips> getExpenseTips(@RequestBody List<CategoryAmount> expenses) {
+        ExpenseTips response = resultCache.get(new ExpenseTipsKey(List.copyOf(expenses)),
+                () -> aiService.generateExpenseTips(expenses));
         return ResponseEntity.ok(response);
     }
 
@@ -38,8 +75,8 @@ public class AIController {
      * Response: {"suggestedBudget":{...}, "healthStatus":"Good", "recommendations":[...], "potentialSavings":15000}
      */
     @PostMapping("/budget-suggestion")
-    public ResponseEntity<Map<String, Object>> getBudgetSuggestion(@RequestBody Map<String, Object> request) {
-        Map<String, Object> suggestion = aiService.generateBudgetSuggestion(request);
+    public ResponseEntity<BudgetSuggestion> getBudgetSuggestion(@RequestBody BudgetSuggestionRequest request) {
+        BudgetSuggestion suggestion = resultCache.get(request, () -> aiService.generateBudgetSuggestion(request));
         return ResponseEntity.ok(suggestion);
     }
 
@@ -49,30 +86,123 @@ public class AIController {
      * Response: {"financialHealth":"Good", "insights":[...], "trends":{...}, "netSavings":15000}
      */
     @PostMapping("/monthly-analytics")
-    public ResponseEntity<Map<String, Object>> getMonthlyAnalytics(@RequestBody Map<String, Object> request) {
-        Map<String, Object> analytics = aiService.generateMonthlyAnalytics(request);
+    public ResponseEntity<MonthlyAnalytics> getMonthlyAnalytics(@RequestBody MonthlyAnalyticsRequest request) {
+        MonthlyAnalytics analytics = resultCache.get(request, () -> aiService.generateMonthlyAnalytics(request));
         return ResponseEntity.ok(analytics);
     }
 
+    /**
+     * 3b. Monthly analytics computed from the user's stored incomes and expenses
+     * GET /api/ai/monthly-analytics/7?month=2024-05 (defaults to the current month)
+     * Response: same fields as 3., plus month, totalIncome and totalExpenses
+     */
+    @GetMapping("/monthly-analytics/{userId}")
+    public ResponseEntity<?> getMonthlyAnalytics(@PathVariable Long userId,
+                                                 @RequestParam(required = false) String month) {
+        YearMonth yearMonth;
+        try {
+            yearMonth = month != null ? YearMonth.parse(month) : YearMonth.now();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid month. Expected YYYY-MM"));
+        }
+        return ResponseEntity.ok(analyticsService.getMonthlyAnalytics(userId, yearMonth));
+    }
+
     /**
      * 4. Get spending alerts and warnings
      * Request: {"weeklySpending":8000, "monthlyBudget":30000, "daysRemaining":20}
      * Response: {"alertLevel":"Warning", "messages":[...], "projectedSpending":32000, "remainingBudget":-2000}
      */
     @PostMapping("/spending-alerts")
-    public ResponseEntity<Map<String, Object>> getSpendingAlerts(@RequestBody Map<String, Object> request) {
-        Map<String, Object> alert = aiService.generateSpendingAlert(request);
+    public ResponseEntity<SpendingAlert> getSpendingAlerts(@RequestBody SpendingAlertRequest request) {
+        SpendingAlert alert = resultCache.get(request, () -> aiService.generateSpendingAlert(request));
         return ResponseEntity.ok(alert);
     }
 
+    /**
+     * 4b. Spending alerts from the last 7 days of stored expenses against the user's budgets
+     * GET /api/ai/spending-alerts/7
+     * Response: same fields as 4., plus weeklySpending, monthlyBudget and daysRemaining
+     */
+    @GetMapping("/spending-alerts/{userId}")
+    public ResponseEntity<?> getSpendingAlerts(@PathVariable Long userId) {
+        return analyticsService.getSpendingAlerts(userId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Set a budget or add this month's income to get spending alerts")));
+    }
+
+    /**
+     * 4c. Month-end spending forecast per category with 90% intervals
+     * GET /api/ai/forecast/7
+     * Response: {"month":"2024-05", "categories":[{"category":"Food", "spentToDate":4200,
+     *            "projected":9100, "lower":7600, "upper":10600}, ...], "total":{...}}
+     */
+    @GetMapping("/forecast/{userId}")
+    public ResponseEntity<SpendingForecast> getForecast(@PathVariable Long userId) {
+        return ResponseEntity.ok(forecastService.getForecast(userId));
+    }
+
     /**
      * 5. Auto-suggest category based on description
      * Request: {"description": "Bought groceries from supermarket", "amount": 2500}
      * Response: {"suggestedCategory":"Food", "alternativeCategories":["Food","Shopping"], "confidence":85.0}
      */
     @PostMapping("/suggest-category")
-    public ResponseEntity<Map<String, Object>> suggestCategory(@RequestBody Map<String, Object> request) {
-        Map<String, Object> suggestion = aiService.suggestCategory(request);
+    public ResponseEntity<CategorySuggestion> suggestCategory(@RequestBody CategorySuggestionRequest request) {
+        CategorySuggestionRequest normalized = request.normalized();
+        // With a userId the answer comes from the user's expenses, so it is dropped when they change
+        CategorySuggestion suggestion = normalized.userId() == null
+                ? resultCache.get(normalized, () -> aiService.suggestCategory(normalized))
+                : resultCache.getForUser(normalized.userId(), null, normalized, () -> aiService.suggestCategory(normalized));
         return ResponseEntity.ok(suggestion);
     }
-}
\ No newline at end of file
+
+    /**
+     * 5b. Suggest categories for many descriptions in one call (imports, receipts)
+     * Request: {"descriptions": ["Uber to airport", "Blinkit order"], "userId": 7}
+     * Response: {"results":[{"suggestedCategory":"Transport", ...}, ...], "count":2} in input order
+     */
+    @PostMapping("/suggest-category/batch")
+    public ResponseEntity<?> suggestCategories(@RequestBody Map<String, Object> request) {
+        Object descriptionsObj = request.get("descriptions");
+        if (!(descriptionsObj instanceof List)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "descriptions must be an array"));
+        }
+        List<String> descriptions = new ArrayList<>();
+        for (Object description : (List<?>) descriptionsObj) {
+            descriptions.add(description != null ? description.toString() : null);
+        }
+        if (descriptions.size() > AIService.MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "At most " + AIService.MAX_BATCH_SIZE + " descriptions per batch"));
+        }
+        Object userIdObj = request.get("userId");
+        Long userId = userIdObj != null ? Long.valueOf(userIdObj.toString()) : null;
+        
+        List<CategorySuggestion> results = aiService.suggestCategories(descriptions, userId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", results);
+        response.put("count", results.size());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 6. Hit/miss counters of the AI result cache
+     * GET /api/ai/cache/stats
+     * Response: {"hits":120, "misses":30, "evictions":0, "expirations":4, "size":26, "maxEntries":10000, "hitRate":0.8}
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        LruCache.Stats stats = resultCache.stats();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("hits", stats.hits());
+        response.put("misses", stats.misses());
+        response.put("evictions", stats.evictions());
+        response.put("expirations", stats.expirations());
+        response.put("size", stats.size());
+        response.put("maxEntries", stats.maxEntries());
+        response.put("hitRate", stats.hitRate());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,10 +1,11 @@
 package jpademo.jpademo.controller;
 
 import jpademo.jpademo.model.Budget;
-import jpademo.jpademo.model.Expense;
+import jpademo.jpademo.model.dto.BudgetSpend;
+import jpademo.jpademo.model.event.FinanceDataChangedEvent;
 import jpademo.jpademo.model.repository.BudgetRepository;
-import jpademo.jpademo.model.repository.ExpenseRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
 
 @RestController
@@ -23,7 +25,7 @@ public class BudgetController {
     private BudgetRepository budgetRepository;
     
     @Autowired
-    private ExpenseRepository expenseRepository;
+    private ApplicationEventPublisher eventPublisher;
     
     @PostMapping
     public ResponseEntity<?> createBudget(@RequestBody Budget budget) {
@@ -37,10 +39,12 @@ public class BudgetController {
                 existingBudget.setLimitAmount(budget.getLimitAmount());
                 existingBudget.setPeriod(budget.getPeriod());
                 Budget updated = budgetRepository.save(existingBudget);
+                eventPublisher.publishEvent(new FinanceDataChangedEvent(updated.getUserId(), LocalDate.now()));
                 return ResponseEntity.ok(updated);
             }
             
             Budget saved = budgetRepository.save(budget);
+            eventPublisher.publishEvent(new FinanceDataChangedEvent(saved.getUserId(), LocalDate.now()));
             return ResponseEntity.ok(saved);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -62,7 +66,10 @@ public class BudgetController {
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteBudget(@PathVariable Long id) {
         try {
-            budgetRepository.deleteById(id);
+            budgetRepository.findById(id).ifPresent(budget -> {
+                budgetRepository.delete(budget);
+                eventPublisher.publishEvent(new FinanceDataChangedEvent(budget.getUserId(), LocalDate.now()));
+            });
             return ResponseEntity.ok(Map.of("message", "Budget deleted"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -73,33 +80,23 @@ public class BudgetController {
     @GetMapping("/alerts/{userId}")
     public ResponseEntity<?> getBudgetAlerts(@PathVariable Long userId) {
         try {
-            List<Budget> budgets = budgetRepository.findByUserId(userId);
+            // Budgets joined to month-to-date spend in a single grouped query
+            List<BudgetSpend> budgets = budgetRepository.findBudgetSpend(userId, YearMonth.now().toString());
             List<Map<String, Object>> alerts = new ArrayList<>();
             
-            LocalDate now = LocalDate.now();
-            LocalDate startOfMonth = now.withDayOfMonth(1);
-            
-            for (Budget budget : budgets) {
-                List<Expense> allExpenses = expenseRepository.findByUserIdOrderByExpenseDateDesc(userId);
-                
-                BigDecimal totalSpent = BigDecimal.ZERO;
-                for (Expense expense : allExpenses) {
-                    if (expense.getCategory().equals(budget.getCategory()) && 
-                        !expense.getExpenseDate().isBefore(startOfMonth)) {
-                        totalSpent = totalSpent.add(expense.getAmount());
-                    }
-                }
+            for (BudgetSpend budget : budgets) {
+                BigDecimal totalSpent = budget.spent();
                 
                 if (totalSpent.compareTo(BigDecimal.ZERO) > 0) {
                     BigDecimal percentage = totalSpent
-                        .divide(budget.getLimitAmount(), 4, RoundingMode.HALF_UP)
+                        .divide(budget.limitAmount(), 4, RoundingMode.HALF_UP)
                         .multiply(BigDecimal.valueOf(100));
                     
                     if (percentage.compareTo(BigDecimal.valueOf(80)) >= 0) {
                         Map<String, Object> alert = new HashMap<>();
-                        alert.put("category", budget.getCategory());
+                        alert.put("category", budget.category());
                         alert.put("spent", totalSpent);
-                        alert.put("limit", budget.getLimitAmount());
+                        alert.put("limit", budget.limitAmount());
                         alert.put("percentage", percentage.doubleValue());
                         alert.put("status", percentage.compareTo(BigDecimal.valueOf(100)) >= 0 ? "EXCEEDED" : "WARNING");
                         alerts.add(alert);
@@ -1,13 +1,22 @@
 package jpademo.jpademo.controller;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,19 +26,49 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 import jpademo.jpademo.model.Expense;
+import jpademo.jpademo.model.ExpenseAnomaly;
+import jpademo.jpademo.model.dto.CategoryTotal;
 import jpademo.jpademo.model.repository.ExpenseRepository;
+import jpademo.jpademo.model.service.ExpenseExportService;
+import jpademo.jpademo.model.service.ExpenseImportService;
+import jpademo.jpademo.model.service.ExpenseService;
+import jpademo.jpademo.model.service.SpendingAnomalyDetector;
+import jpademo.jpademo.model.service.RollupService;
+import jpademo.jpademo.util.CursorCodec;
 
 @RestController
 @RequestMapping("/api/expenses")
 @CrossOrigin(origins = "http://localhost:5173")
 public class ExpenseController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private ExpenseRepository expenseRepository;
 
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private ExpenseImportService expenseImportService;
+
+    @Autowired
+    private ExpenseExportService expenseExportService;
+
+    @Autowired
+    private SpendingAnomalyDetector anomalyDetector;
+
     // Get all expenses
     @GetMapping
     public ResponseEntity<List<Expense>> getAllExpenses() {
@@ -43,11 +82,94 @@ public class ExpenseController {
     }
 
     // Get expenses by user ID
+    // With ?after=<cursor>&limit=N the result is a keyset page, newest first
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Expense>> getExpensesByUserId(@PathVariable Long userId) {
+    public ResponseEntity<?> getExpensesByUserId(@PathVariable Long userId,
+                                                 @RequestParam(required = false) String after,
+                                                 @RequestParam(required = false) Integer limit) {
         try {
-            List<Expense> expenses = expenseRepository.findByUserId(userId);
-            return ResponseEntity.ok(expenses);
+            if (after == null && limit == null) {
+                List<Expense> expenses = expenseRepository.findByUserId(userId);
+                return ResponseEntity.ok(expenses);
+            }
+            
+            int pageSize = Math.max(1, Math.min(limit != null ? limit : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE));
+            // Fetch one extra row to know whether another page exists
+            Pageable pageable = PageRequest.of(0, pageSize + 1);
+            
+            List<Expense> rows;
+            if (after == null || after.isEmpty()) {
+                rows = expenseRepository.findByUserIdOrderByExpenseDateDescIdDesc(userId, pageable);
+            } else {
+                LocalDate cursorDate;
+                Long cursorId;
+                try {
+                    String[] cursor = CursorCodec.decode(after, 2);
+                    cursorDate = LocalDate.parse(cursor[0]);
+                    cursorId = Long.parseLong(cursor[1]);
+                } catch (Exception e) {
+                    return ResponseEntity.badRequest().body("Invalid cursor");
+                }
+                rows = expenseRepository.findPageAfter(userId, cursorDate, cursorId, pageable);
+            }
+            
+            boolean hasMore = rows.size() > pageSize;
+            List<Expense> items = hasMore ? rows.subList(0, pageSize) : rows;
+            String nextCursor = null;
+            if (hasMore) {
+                Expense last = items.get(items.size() - 1);
+                nextCursor = CursorCodec.encode(last.getExpenseDate().toString(), last.getId().toString());
+            }
+            
+            Map<String, Object> page = new HashMap<>();
+            page.put("items", items);
+            page.put("nextCursor", nextCursor);
+            page.put("hasMore", hasMore);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    // Filtered slice of a user's expenses, e.g. ?from=2024-05-01&to=2024-05-31&categories=Food
+    // categories accepts a comma-separated list; sort is date|amount|category, direction asc|desc
+    @GetMapping("/user/{userId}/search")
+    public ResponseEntity<?> searchExpenses(@PathVariable Long userId,
+                                            @RequestParam(required = false) String from,
+                                            @RequestParam(required = false) String to,
+                                            @RequestParam(required = false) List<String> categories,
+                                            @RequestParam(required = false) BigDecimal minAmount,
+                                            @RequestParam(required = false) BigDecimal maxAmount,
+                                            @RequestParam(defaultValue = "date") String sort,
+                                            @RequestParam(defaultValue = "desc") String direction,
+                                            @RequestParam(defaultValue = "0") int page,
+                                            @RequestParam(required = false) Integer size) {
+        try {
+            LocalDate fromDate;
+            LocalDate toDate;
+            try {
+                fromDate = from != null && !from.isEmpty() ? LocalDate.parse(from) : null;
+                toDate = to != null && !to.isEmpty() ? LocalDate.parse(to) : null;
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().body("Invalid date format. Expected YYYY-MM-DD");
+            }
+            
+            int pageSize = Math.max(1, Math.min(size != null ? size : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE));
+            Slice<Expense> slice;
+            try {
+                slice = expenseService.searchExpenses(userId, fromDate, toDate, categories, minAmount, maxAmount,
+                        sort, direction.equalsIgnoreCase("asc"), Math.max(0, page), pageSize);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("items", slice.getContent());
+            result.put("page", slice.getNumber());
+            result.put("size", pageSize);
+            result.put("hasMore", slice.hasNext());
+            return ResponseEntity.ok(result);
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).build();
@@ -60,34 +182,25 @@ public class ExpenseController {
         try {
             System.out.println("=== Fetching stats for user: " + userId + " ===");
             
-            List<Expense> expenses = expenseRepository.findByUserId(userId);
+            // Read the incrementally maintained monthly rollups
+            List<CategoryTotal> totals = rollupService.getExpenseTotalsByCategory(userId);
             
-            // Calculate total expenses
-            double totalExpenses = expenses.stream()
-                .mapToDouble(e -> e.getAmount().doubleValue())
-                .sum();
+            BigDecimal total = BigDecimal.ZERO;
+            long expenseCount = 0;
+            Map<String, Double> categoryTotals = new HashMap<>();
+            for (CategoryTotal categoryTotal : totals) {
+                total = total.add(categoryTotal.total());
+                expenseCount += categoryTotal.count();
+                categoryTotals.put(categoryTotal.category(), categoryTotal.total().doubleValue());
+            }
+            double totalExpenses = total.doubleValue();
             
             // Calculate monthly expenses (current month)
-            LocalDate now = LocalDate.now();
-            int currentMonth = now.getMonthValue();
-            int currentYear = now.getYear();
-            
-            double monthlyExpenses = expenses.stream()
-                .filter(e -> {
-                    LocalDate expDate = e.getExpenseDate();
-                    return expDate.getMonthValue() == currentMonth && 
-                           expDate.getYear() == currentYear;
-                })
-                .mapToDouble(e -> e.getAmount().doubleValue())
-                .sum();
-            
-            // Calculate category-wise totals
-            Map<String, Double> categoryTotals = new HashMap<>();
-            for (Expense expense : expenses) {
-                String category = expense.getCategory();
-                double amount = expense.getAmount().doubleValue();
-                categoryTotals.put(category, categoryTotals.getOrDefault(category, 0.0) + amount);
+            BigDecimal monthly = BigDecimal.ZERO;
+            for (CategoryTotal categoryTotal : rollupService.getMonthlyExpenseTotals(userId, YearMonth.now())) {
+                monthly = monthly.add(categoryTotal.total());
             }
+            double monthlyExpenses = monthly.doubleValue();
             
             // Build response
             Map<String, Object> stats = new HashMap<>();
@@ -95,13 +208,13 @@ public class ExpenseController {
             stats.put("monthlyExpenses", monthlyExpenses);
             stats.put("totalIncome", 0.0); // Future: implement income tracking
             stats.put("balance", 0.0 - totalExpenses); // Negative balance = spent money
-            stats.put("expenseCount", expenses.size());
+            stats.put("expenseCount", expenseCount);
             stats.put("categoryTotals", categoryTotals);
             
             System.out.println("=== Stats calculated successfully ===");
             System.out.println("Total Expenses: " + totalExpenses);
             System.out.println("Monthly Expenses: " + monthlyExpenses);
-            System.out.println("Expense Count: " + expenses.size());
+            System.out.println("Expense Count: " + expenseCount);
             
             return ResponseEntity.ok(stats);
             
@@ -122,60 +235,12 @@ public class ExpenseController {
             System.out.println("=== Received request ===");
             System.out.println(request);
             
-            Expense expense = new Expense();
-            
-            // Set amount
-            Object amountObj = request.get("amount");
-            if (amountObj == null) {
-                return ResponseEntity.badRequest().body("Amount is required");
-            }
-            BigDecimal amount;
-            if (amountObj instanceof Number) {
-                amount = new BigDecimal(amountObj.toString());
-            } else if (amountObj instanceof String) {
-                amount = new BigDecimal((String) amountObj);
-            } else {
-                return ResponseEntity.badRequest().body("Invalid amount format");
-            }
-            expense.setAmount(amount);
-            
-            // Set category
-            String category = (String) request.get("category");
-            if (category == null || category.trim().isEmpty()) {
-                return ResponseEntity.badRequest().body("Category is required");
-            }
-            expense.setCategory(category);
-            
-            // Set description
-            String description = (String) request.get("description");
-            expense.setDescription(description != null ? description : "");
-            
-            // Parse and set date
-            String dateStr = (String) request.get("date");
-            if (dateStr == null || dateStr.trim().isEmpty()) {
-                return ResponseEntity.badRequest().body("Date is required");
-            }
-            
-            LocalDate expenseDate;
+            Expense expense;
             try {
-                expenseDate = LocalDate.parse(dateStr);
-                System.out.println("Parsed date: " + expenseDate);
-            } catch (Exception e) {
-                System.err.println("Date parse error: " + e.getMessage());
-                return ResponseEntity.badRequest().body("Invalid date format. Expected YYYY-MM-DD, got: " + dateStr);
-            }
-            expense.setExpenseDate(expenseDate);
-            
-            // Set user ID
-            Object userIdObj = request.get("userId");
-            if (userIdObj == null) {
-                return ResponseEntity.badRequest().body("User ID is required");
+                expense = expenseService.parseExpense(request);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
             }
-            Long userId = Long.parseLong(userIdObj.toString());
-            expense.setUserId(userId);
-            
-            // Set created timestamp
-            expense.setCreatedAt(LocalDateTime.now());
             
             System.out.println("=== Saving expense ===");
             System.out.println("Amount: " + expense.getAmount());
@@ -184,7 +249,7 @@ public class ExpenseController {
             System.out.println("UserId: " + expense.getUserId());
             
             // Save to database
-            Expense savedExpense = expenseRepository.save(expense);
+            Expense savedExpense = expenseService.createExpense(expense);
             
             System.out.println("=== Expense saved successfully ===");
             System.out.println("ID: " + savedExpense.getId());
@@ -201,6 +266,88 @@ public class ExpenseController {
         }
     }
 
+    // Bulk import: streams a CSV (header: amount,category,description,date) or NDJSON body
+    // Returns counts and a per-row error report
+    @PostMapping("/import")
+    public ResponseEntity<?> importExpenses(@RequestParam Long userId,
+                                            @RequestParam(required = false) String format,
+                                            HttpServletRequest request) {
+        try {
+            String contentType = request.getContentType() != null ? request.getContentType() : "";
+            boolean ndjson = format != null
+                    ? format.equalsIgnoreCase("ndjson")
+                    : contentType.contains("ndjson") || contentType.contains("json");
+            
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+            Map<String, Object> report = ndjson
+                    ? expenseImportService.importNdjson(userId, reader)
+                    : expenseImportService.importCsv(userId, reader);
+            
+            System.out.println("=== Imported " + report.get("imported") + " expenses for user " + userId + " ===");
+            return ResponseEntity.ok(report);
+        } catch (Exception e) {
+            System.err.println("=== Error importing expenses ===");
+            e.printStackTrace();
+            
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Error importing expenses: " + e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
+    // Export a user's full history as a streamed CSV (default) or NDJSON download
+    @GetMapping("/user/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(@PathVariable Long userId,
+                                                                @RequestParam(defaultValue = "csv") String format) {
+        boolean ndjson = format.equalsIgnoreCase("ndjson");
+        String filename = "expenses-" + userId + (ndjson ? ".ndjson" : ".csv");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ndjson ? "application/x-ndjson" : "text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(expenseExportService.export(userId, ndjson));
+    }
+
+    // Expenses flagged as unusually large when they were added, as keyset pages newest first
+    @GetMapping("/user/{userId}/anomalies")
+    public ResponseEntity<?> getAnomalies(@PathVariable Long userId,
+                                          @RequestParam(required = false) String after,
+                                          @RequestParam(required = false) Integer limit) {
+        try {
+            int pageSize = Math.max(1, Math.min(limit != null ? limit : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE));
+            LocalDateTime cursorDetectedAt = null;
+            Long cursorId = null;
+            if (after != null && !after.isEmpty()) {
+                try {
+                    String[] cursor = CursorCodec.decode(after, 2);
+                    cursorDetectedAt = LocalDateTime.parse(cursor[0]);
+                    cursorId = Long.parseLong(cursor[1]);
+                } catch (Exception e) {
+                    return ResponseEntity.badRequest().body("Invalid cursor");
+                }
+            }
+            
+            // Fetch one extra row to know whether another page exists
+            List<ExpenseAnomaly> rows = anomalyDetector.getAnomalies(userId, cursorDetectedAt, cursorId, pageSize + 1);
+            boolean hasMore = rows.size() > pageSize;
+            List<ExpenseAnomaly> items = hasMore ? rows.subList(0, pageSize) : rows;
+            String nextCursor = null;
+            if (hasMore) {
+                ExpenseAnomaly last = items.get(items.size() - 1);
+                nextCursor = CursorCodec.encode(last.getDetectedAt().toString(), last.getId().toString());
+            }
+            
+            Map<String, Object> page = new HashMap<>();
+            page.put("items", items);
+            page.put("nextCursor", nextCursor);
+            page.put("hasMore", hasMore);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).build();
+        }
+    }
+
     // Get expense by ID
     @GetMapping("/{id}")
     public ResponseEntity<?> getExpenseById(@PathVariable Long id) {
@@ -221,34 +368,8 @@ public class ExpenseController {
             System.out.println("=== Updating expense ID: " + id + " ===");
             System.out.println(request);
             
-            return expenseRepository.findById(id)
-                    .map(expense -> {
-                        // Update amount
-                        if (request.containsKey("amount")) {
-                            Object amountObj = request.get("amount");
-                            BigDecimal amount = new BigDecimal(amountObj.toString());
-                            expense.setAmount(amount);
-                        }
-                        
-                        // Update category
-                        if (request.containsKey("category")) {
-                            expense.setCategory((String) request.get("category"));
-                        }
-                        
-                        // Update description
-                        if (request.containsKey("description")) {
-                            String desc = (String) request.get("description");
-                            expense.setDescription(desc != null ? desc : "");
-                        }
-                        
-                        // Update date
-                        if (request.containsKey("date")) {
-                            String dateStr = (String) request.get("date");
-                            LocalDate expenseDate = LocalDate.parse(dateStr);
-                            expense.setExpenseDate(expenseDate);
-                        }
-                        
-                        Expense updatedExpense = expenseRepository.save(expense);
+            return expenseService.updateExpense(id, request)
+                    .map(updatedExpense -> {
                         System.out.println("=== Expense updated successfully ===");
                         return ResponseEntity.ok(updatedExpense);
                     })
@@ -264,8 +385,7 @@ public class ExpenseController {
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteExpense(@PathVariable Long id) {
         try {
-            if (expenseRepository.existsById(id)) {
-                expenseRepository.deleteById(id);
+            if (expenseService.deleteExpense(id)) {
                 System.out.println("=== Expense deleted: " + id + " ===");
                 
                 Map<String, String> response = new HashMap<>();
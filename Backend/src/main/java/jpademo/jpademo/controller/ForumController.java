@@ -1,7 +1,13 @@
 package jpademo.jpademo.controller;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,17 +23,42 @@ import org.springframework.web.bind.annotation.RestController;
 
 import jpademo.jpademo.forum.model.ForumComment;
 import jpademo.jpademo.forum.model.ForumPost;
+import jpademo.jpademo.forum.model.ReactionType;
+import jpademo.jpademo.model.dto.ForumPostSummary;
+import jpademo.jpademo.model.repository.ForumCommentRepository;
 import jpademo.jpademo.model.repository.ForumPostRepository;
+import jpademo.jpademo.model.service.ForumCommentService;
+import jpademo.jpademo.model.service.ForumHotRanking;
+import jpademo.jpademo.model.service.ForumHotService;
+import jpademo.jpademo.model.service.ForumReactionService;
+import jpademo.jpademo.model.service.ForumSearchIndex;
+import jpademo.jpademo.model.service.ForumSearchService;
+import jpademo.jpademo.util.CursorCodec;
 
 @RestController
 @RequestMapping("/api/forum")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"}, allowCredentials = "true")
 public class ForumController {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ForumPostRepository repo;
+    private final ForumCommentRepository commentRepo;
+    private final ForumReactionService reactions;
+    private final ForumCommentService comments;
+    private final ForumSearchService search;
+    private final ForumHotService hot;
 
-    public ForumController(ForumPostRepository repo) {
+    public ForumController(ForumPostRepository repo, ForumCommentRepository commentRepo,
+                           ForumReactionService reactions, ForumCommentService comments,
+                           ForumSearchService search, ForumHotService hot) {
         this.repo = repo;
+        this.commentRepo = commentRepo;
+        this.reactions = reactions;
+        this.comments = comments;
+        this.search = search;
+        this.hot = hot;
     }
 
     // Inner classes for request bodies
@@ -85,6 +116,92 @@ public class ForumController {
         return repo.findAllByOrderByTimestampDesc();
     }
 
+    // GET one page of post summaries, newest first: ?before=<cursor>&limit=N&userId=
+    // userId only marks which posts the viewer has liked or disliked
+    @GetMapping("/posts/feed")
+    public ResponseEntity<?> getFeed(@RequestParam(required = false) String before,
+                                     @RequestParam(required = false) Integer limit,
+                                     @RequestParam(required = false) String userId) {
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        String viewer = userId != null ? userId : "";
+
+        List<ForumPostSummary> rows;
+        if (before == null || before.isEmpty()) {
+            rows = repo.findFeed(viewer, pageable);
+        } else {
+            LocalDateTime cursorTimestamp;
+            String cursorId;
+            try {
+                String[] cursor = CursorCodec.decode(before, 2);
+                cursorTimestamp = LocalDateTime.parse(cursor[0]);
+                cursorId = cursor[1];
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().body("Invalid cursor");
+            }
+            rows = repo.findFeedBefore(viewer, cursorTimestamp, cursorId, pageable);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ForumPostSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ForumPostSummary last = items.get(items.size() - 1);
+            nextCursor = CursorCodec.encode(last.timestamp().toString(), last.id());
+        }
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("items", reactions.withPendingCounts(items));
+        page.put("nextCursor", nextCursor);
+        page.put("hasMore", hasMore);
+        return ResponseEntity.ok(page);
+    }
+
+    // GET one page of the hottest posts: ?after=<cursor>&limit=N&userId=
+    // Ranked by engagement against age in memory, so no request sorts the posts table
+    @GetMapping("/posts/hot")
+    public ResponseEntity<?> getHot(@RequestParam(required = false) String after,
+                                    @RequestParam(required = false) Integer limit,
+                                    @RequestParam(required = false) String userId) {
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE));
+        ForumHotRanking.Entry from = null;
+        if (after != null && !after.isEmpty()) {
+            try {
+                String[] cursor = CursorCodec.decode(after, 2);
+                from = new ForumHotRanking.Entry(cursor[1], Double.parseDouble(cursor[0]));
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().body("Invalid cursor");
+            }
+        }
+
+        // One extra entry to know whether another page exists
+        List<ForumHotRanking.Entry> ranked = hot.page(from, pageSize + 1);
+        boolean hasMore = ranked.size() > pageSize;
+        List<ForumHotRanking.Entry> entries = hasMore ? ranked.subList(0, pageSize) : ranked;
+        String nextCursor = null;
+        if (hasMore) {
+            ForumHotRanking.Entry last = entries.get(entries.size() - 1);
+            nextCursor = CursorCodec.encode(Double.toString(last.score()), last.postId());
+        }
+
+        List<String> ids = entries.stream().map(ForumHotRanking.Entry::postId).toList();
+        Map<String, ForumPostSummary> byId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (ForumPostSummary summary : repo.findSummaries(ids, userId != null ? userId : "")) {
+                byId.put(summary.id(), summary);
+            }
+        }
+        // In rank order; a post deleted since it was ranked is skipped
+        List<ForumPostSummary> items = ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("items", reactions.withPendingCounts(items));
+        page.put("nextCursor", nextCursor);
+        page.put("hasMore", hasMore);
+        return ResponseEntity.ok(page);
+    }
+
     // CREATE new post
     @PostMapping("/posts")
     public ResponseEntity<ForumPost> createPost(@RequestBody CreatePostRequest req) {
@@ -95,82 +212,97 @@ public class ForumController {
         post.setAuthorName(req.getAuthorName());
         post.setAuthorId(req.getAuthorId());
         post.setTimestamp(LocalDateTime.now());
-        return ResponseEntity.ok(repo.save(post));
+        ForumPost saved = repo.save(post);
+        search.indexPost(saved.getId(), saved.getTitle(), saved.getContent());
+        hot.track(saved.getId(), saved.getTimestamp());
+        return ResponseEntity.ok(saved);
     }
 
-    // ADD comment to post
-    @PostMapping("/posts/{id}/comments")
-    public ResponseEntity<ForumPost> addComment(@PathVariable String id, @RequestBody CommentRequest req) {
-        ForumPost post = repo.findById(id).orElseThrow(() -> 
-            new RuntimeException("Post not found with id: " + id));
-        
-        ForumComment comment = new ForumComment();
-        comment.setPost(post);
-        comment.setAuthorName(req.getAuthorName());
-        comment.setAuthorId(req.getAuthorId());
-        comment.setText(req.getText());
-        comment.setTimestamp(LocalDateTime.now());
-        
-        post.getComments().add(comment);
-        return ResponseEntity.ok(repo.save(post));
-    }
+    // SEARCH posts and their comments: ?q=words&limit=N&userId=, best match first
+    @GetMapping("/search")
+    public ResponseEntity<?> searchPosts(@RequestParam String q,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) String userId) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().body("Query is required");
+        }
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE));
+        List<ForumSearchIndex.Hit> hits = search.search(q, pageSize);
 
-    // LIKE post
-    @PostMapping("/posts/{id}/like")
-    public ResponseEntity<ForumPost> likePost(@PathVariable String id, @RequestBody ReactionRequest req) {
-        ForumPost post = repo.findById(id).orElseThrow(() -> 
-            new RuntimeException("Post not found with id: " + id));
-        
-        String userId = req.getUserId();
-        boolean alreadyLiked = post.getLikedBy().contains(userId);
-        boolean alreadyDisliked = post.getDislikedBy().contains(userId);
-
-        if (alreadyLiked) {
-            // Remove like
-            post.getLikedBy().remove(userId);
-            post.setLikes(Math.max(0, post.getLikes() - 1));
-        } else {
-            // Add like
-            post.getLikedBy().add(userId);
-            post.setLikes(post.getLikes() + 1);
-            
-            // Remove dislike if exists
-            if (alreadyDisliked) {
-                post.getDislikedBy().remove(userId);
-                post.setDislikes(Math.max(0, post.getDislikes() - 1));
+        List<String> ids = hits.stream().map(ForumSearchIndex.Hit::postId).toList();
+        Map<String, ForumPostSummary> byId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (ForumPostSummary summary : repo.findSummaries(ids, userId != null ? userId : "")) {
+                byId.put(summary.id(), summary);
             }
         }
-        
-        return ResponseEntity.ok(repo.save(post));
+        // In rank order; a post deleted since it was indexed is skipped
+        List<ForumPostSummary> items = ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("query", q);
+        result.put("items", reactions.withPendingCounts(items));
+        return ResponseEntity.ok(result);
     }
 
-    // DISLIKE post
-    @PostMapping("/posts/{id}/dislike")
-    public ResponseEntity<ForumPost> dislikePost(@PathVariable String id, @RequestBody ReactionRequest req) {
-        ForumPost post = repo.findById(id).orElseThrow(() -> 
-            new RuntimeException("Post not found with id: " + id));
-        
-        String userId = req.getUserId();
-        boolean alreadyLiked = post.getLikedBy().contains(userId);
-        boolean alreadyDisliked = post.getDislikedBy().contains(userId);
-
-        if (alreadyDisliked) {
-            // Remove dislike
-            post.getDislikedBy().remove(userId);
-            post.setDislikes(Math.max(0, post.getDislikes() - 1));
+    // GET one page of a post's comments, oldest first: ?after=<cursor>&limit=N
+    @GetMapping("/posts/{id}/comments")
+    public ResponseEntity<?> getComments(@PathVariable String id,
+                                         @RequestParam(required = false) String after,
+                                         @RequestParam(required = false) Integer limit) {
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        List<ForumComment> rows;
+        if (after == null || after.isEmpty()) {
+            rows = commentRepo.findFirstPage(id, pageable);
         } else {
-            // Add dislike
-            post.getDislikedBy().add(userId);
-            post.setDislikes(post.getDislikes() + 1);
-            
-            // Remove like if exists
-            if (alreadyLiked) {
-                post.getLikedBy().remove(userId);
-                post.setLikes(Math.max(0, post.getLikes() - 1));
+            LocalDateTime cursorTimestamp;
+            String cursorId;
+            try {
+                String[] cursor = CursorCodec.decode(after, 2);
+                cursorTimestamp = LocalDateTime.parse(cursor[0]);
+                cursorId = cursor[1];
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().body("Invalid cursor");
             }
+            rows = commentRepo.findPageAfter(id, cursorTimestamp, cursorId, pageable);
         }
-        
-        return ResponseEntity.ok(repo.save(post));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ForumComment> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ForumComment last = items.get(items.size() - 1);
+            nextCursor = CursorCodec.encode(last.getTimestamp().toString(), last.getId());
+        }
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("items", items);
+        page.put("nextCursor", nextCursor);
+        page.put("hasMore", hasMore);
+        return ResponseEntity.ok(page);
+    }
+
+    // ADD comment to post; responds with just the new comment
+    @PostMapping("/posts/{id}/comments")
+    public ResponseEntity<ForumComment> addComment(@PathVariable String id, @RequestBody CommentRequest req) {
+        return ResponseEntity.ok(comments.addComment(id, req.getAuthorName(), req.getAuthorId(), req.getText()));
+    }
+
+    // LIKE post; liking again removes the like
+    @PostMapping("/posts/{id}/like")
+    public ResponseEntity<ForumPostSummary> likePost(@PathVariable String id, @RequestBody ReactionRequest req) {
+        reactions.react(id, req.getUserId(), ReactionType.LIKE);
+        return ResponseEntity.ok(reactions.summary(id, req.getUserId()));
+    }
+
+    // DISLIKE post; disliking again removes the dislike
+    @PostMapping("/posts/{id}/dislike")
+    public ResponseEntity<ForumPostSummary> dislikePost(@PathVariable String id, @RequestBody ReactionRequest req) {
+        reactions.react(id, req.getUserId(), ReactionType.DISLIKE);
+        return ResponseEntity.ok(reactions.summary(id, req.getUserId()));
     }
 
     // DELETE post
@@ -202,6 +334,9 @@ public class ForumController {
             
             System.out.println("Authorization successful. Deleting post...");
             repo.deleteById(id);
+            reactions.forget(id);
+            search.remove(id);
+            hot.remove(id);
             System.out.println("Post deleted successfully!");
             
             return ResponseEntity.ok().body("Post deleted successfully");
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import jpademo.jpademo.model.Income;
 import jpademo.jpademo.model.repository.IncomeRepository;
+import jpademo.jpademo.model.service.IncomeService;
 
 import java.util.*;
 
@@ -17,6 +18,9 @@ public class IncomeController {
     @Autowired
     private IncomeRepository incomeRepository;
     
+    @Autowired
+    private IncomeService incomeService;
+    
     @GetMapping("/user/{userId}")
     public ResponseEntity<?> getUserIncomes(@PathVariable Long userId) {
         try {
@@ -31,7 +35,7 @@ public class IncomeController {
     @PostMapping
     public ResponseEntity<?> createIncome(@RequestBody Income income) {
         try {
-            Income savedIncome = incomeRepository.save(income);
+            Income savedIncome = incomeService.createIncome(income);
             return ResponseEntity.ok(savedIncome);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -42,15 +46,13 @@ public class IncomeController {
     @PutMapping("/{id}")
     public ResponseEntity<?> updateIncome(@PathVariable Long id, @RequestBody Income income) {
         try {
-            Optional<Income> existingIncome = incomeRepository.findById(id);
-            if (existingIncome.isEmpty()) {
+            Optional<Income> updatedIncome = incomeService.updateIncome(id, income);
+            if (updatedIncome.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("message", "Income not found"));
             }
             
-            income.setId(id);
-            Income updatedIncome = incomeRepository.save(income);
-            return ResponseEntity.ok(updatedIncome);
+            return ResponseEntity.ok(updatedIncome.get());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("message", "Error updating income: " + e.getMessage()));
@@ -60,12 +62,11 @@ public class IncomeController {
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteIncome(@PathVariable Long id) {
         try {
-            if (!incomeRepository.existsById(id)) {
+            if (!incomeService.deleteIncome(id)) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("message", "Income not found"));
             }
             
-            incomeRepository.deleteById(id);
             return ResponseEntity.ok(Map.of("message", "Income deleted successfully"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,52 @@
+package jpademo.jpademo.controller;
+
+import jpademo.jpademo.model.service.LedgerService;
+import jpademo.jpademo.model.service.RollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/maintenance")
+@CrossOrigin(origins = "http://localhost:5173")
+public class MaintenanceController {
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    // Reconcile the monthly rollups from the raw expenses/incomes tables
+    // Omit userId to rebuild every user
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<?> rebuildRollups(@RequestParam(required = false) Long userId) {
+        try {
+            if (userId != null) {
+                rollupService.rebuild(userId);
+            } else {
+                rollupService.rebuildAll();
+            }
+            return ResponseEntity.ok(Map.of("message", "Rollups rebuilt"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("message", "Error rebuilding rollups: " + e.getMessage()));
+        }
+    }
+
+    // Check every balance ledger row against the raw tables and fix drift
+    @PostMapping("/ledger/reconcile")
+    public ResponseEntity<?> reconcileLedger() {
+        try {
+            List<Map<String, Object>> corrections = ledgerService.reconcile();
+            return ResponseEntity.ok(Map.of("corrected", corrections.size(), "corrections", corrections));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("message", "Error reconciling ledger: " + e.getMessage()));
+        }
+    }
+}
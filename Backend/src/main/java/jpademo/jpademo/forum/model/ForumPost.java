@@ -24,18 +24,16 @@ public class ForumPost {
 
     private LocalDateTime timestamp = LocalDateTime.now();
 
+    // Totals of forum_post_reactions, only ever changed by ForumReactionService's
+    // atomic increments; saving a loaded post must not write back a stale count
+    @Column(updatable = false)
     private int likes = 0;
+    @Column(updatable = false)
     private int dislikes = 0;
 
-    @ElementCollection
-    @CollectionTable(name = "forum_post_likes", joinColumns = @JoinColumn(name = "post_id"))
-    @Column(name = "user_id")
-    private Set<String> likedBy = new HashSet<>();
-
-    @ElementCollection
-    @CollectionTable(name = "forum_post_dislikes", joinColumns = @JoinColumn(name = "post_id"))
-    @Column(name = "user_id")
-    private Set<String> dislikedBy = new HashSet<>();
+    // Maintained by ForumCommentService alongside each comment insert
+    @Column(name = "comment_count", updatable = false)
+    private int commentCount = 0;
 
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<ForumComment> comments = new ArrayList<>();
@@ -116,20 +114,12 @@ public class ForumPost {
         this.dislikes = dislikes;
     }
 
-    public Set<String> getLikedBy() {
-        return likedBy;
-    }
-
-    public void setLikedBy(Set<String> likedBy) {
-        this.likedBy = likedBy;
-    }
-
-    public Set<String> getDislikedBy() {
-        return dislikedBy;
+    public int getCommentCount() {
+        return commentCount;
     }
 
-    public void setDislikedBy(Set<String> dislikedBy) {
-        this.dislikedBy = dislikedBy;
+    public void setCommentCount(int commentCount) {
+        this.commentCount = commentCount;
     }
 
     public List<ForumComment> getComments() {
@@ -0,0 +1,40 @@
+package jpademo.jpademo.forum.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+
+/**
+ * A user's like or dislike of a post. The (post, user) primary key allows one
+ * reaction per user, so toggling it touches a single row.
+ */
+@Entity
+@Table(name = "forum_post_reactions")
+@IdClass(ForumReaction.Key.class)
+public class ForumReaction {
+
+    public record Key(String postId, String userId) implements Serializable {
+    }
+
+    @Id
+    @Column(name = "post_id")
+    private String postId;
+
+    @Id
+    @Column(name = "user_id")
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ReactionType reaction;
+
+    public ForumReaction() {}
+
+    public String getPostId() { return postId; }
+    public void setPostId(String postId) { this.postId = postId; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public ReactionType getReaction() { return reaction; }
+    public void setReaction(ReactionType reaction) { this.reaction = reaction; }
+}
@@ -0,0 +1,10 @@
+package jpademo.jpademo.forum.model;
+
+public enum ReactionType {
+    LIKE,
+    DISLIKE;
+
+    public ReactionType opposite() {
+        return this == LIKE ? DISLIKE : LIKE;
+    }
+}
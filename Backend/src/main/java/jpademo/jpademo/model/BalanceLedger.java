@@ -0,0 +1,35 @@
+package jpademo.jpademo.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row per user holding the running balance (total income minus total
+ * expenses). Updated atomically by LedgerService on every income/expense write.
+ */
+@Entity
+@Table(name = "balance_ledgers")
+public class BalanceLedger {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private BigDecimal balance;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public BalanceLedger() {}
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,66 @@
+package jpademo.jpademo.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An expense flagged as unusually large for its user and category when it was written.
+ */
+@Entity
+@Table(name = "expense_anomalies")
+public class ExpenseAnomaly {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "expense_id", nullable = false)
+    private Long expenseId;
+
+    @Column(nullable = false, length = 50)
+    private String category;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    // The category's running average when the expense arrived
+    @Column(name = "expected_amount", nullable = false)
+    private BigDecimal expectedAmount;
+
+    // Standard deviations above the running average
+    @Column(name = "z_score", nullable = false)
+    private Double zScore;
+
+    @Column(name = "detected_at", nullable = false)
+    private LocalDateTime detectedAt;
+
+    public ExpenseAnomaly() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getExpenseId() { return expenseId; }
+    public void setExpenseId(Long expenseId) { this.expenseId = expenseId; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public BigDecimal getExpectedAmount() { return expectedAmount; }
+    public void setExpectedAmount(BigDecimal expectedAmount) { this.expectedAmount = expectedAmount; }
+
+    public Double getZScore() { return zScore; }
+    public void setZScore(Double zScore) { this.zScore = zScore; }
+
+    public LocalDateTime getDetectedAt() { return detectedAt; }
+    public void setDetectedAt(LocalDateTime detectedAt) { this.detectedAt = detectedAt; }
+}
@@ -0,0 +1,63 @@
+package jpademo.jpademo.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Running total of a user's expenses or incomes for one month and category.
+ * Maintained incrementally by RollupService on every write so analytics
+ * reads never have to rescan the raw tables.
+ */
+@Entity
+@Table(name = "monthly_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_rollup_user_kind_month_category",
+                                             columnNames = {"user_id", "kind", "rollup_month", "category"}))
+public class MonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // "EXPENSE" or "INCOME"
+    @Column(nullable = false, length = 10)
+    private String kind;
+
+    // Month in ISO format, e.g. "2025-01"
+    @Column(name = "rollup_month", nullable = false, length = 7)
+    private String rollupMonth;
+
+    @Column(nullable = false, length = 50)
+    private String category;
+
+    @Column(name = "total_amount", nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(name = "entry_count", nullable = false)
+    private Long entryCount;
+
+    public MonthlyRollup() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getKind() { return kind; }
+    public void setKind(String kind) { this.kind = kind; }
+
+    public String getRollupMonth() { return rollupMonth; }
+    public void setRollupMonth(String rollupMonth) { this.rollupMonth = rollupMonth; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public Long getEntryCount() { return entryCount; }
+    public void setEntryCount(Long entryCount) { this.entryCount = entryCount; }
+}
@@ -0,0 +1,9 @@
+package jpademo.jpademo.model.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * A budget joined with the amount spent in its category for one month.
+ */
+public record BudgetSpend(String category, BigDecimal limitAmount, BigDecimal spent) {
+}
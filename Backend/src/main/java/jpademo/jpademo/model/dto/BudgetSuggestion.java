@@ -0,0 +1,12 @@
+package jpademo.jpademo.model.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A 50-30-20 budget split with a health assessment of current spending.
+ */
+public record BudgetSuggestion(Map<String, Double> suggestedBudget, String healthStatus, String healthEmoji,
+                               List<String> recommendations, double potentialSavings, double savingsGoal,
+                               double currentSavingsRate) {
+}
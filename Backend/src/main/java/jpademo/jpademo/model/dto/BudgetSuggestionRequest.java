@@ -0,0 +1,13 @@
+package jpademo.jpademo.model.dto;
+
+import java.util.List;
+
+/**
+ * Monthly income and expenses to split with the 50-30-20 rule.
+ */
+public record BudgetSuggestionRequest(double income, double expenses, List<String> topCategories) {
+
+    public BudgetSuggestionRequest {
+        topCategories = topCategories != null ? topCategories : List.of();
+    }
+}
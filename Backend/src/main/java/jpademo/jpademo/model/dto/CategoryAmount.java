@@ -0,0 +1,7 @@
+package jpademo.jpademo.model.dto;
+
+/**
+ * One category's spending, as sent to the expense-tips endpoint.
+ */
+public record CategoryAmount(String category, double amount) {
+}
@@ -0,0 +1,11 @@
+package jpademo.jpademo.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Spent-to-date and projected month-end total with its 90% interval; the
+ * category is null on the overall total and left out of its JSON.
+ */
+public record CategoryForecast(@JsonInclude(JsonInclude.Include.NON_NULL) String category, double spentToDate,
+                               double projected, double lower, double upper) {
+}
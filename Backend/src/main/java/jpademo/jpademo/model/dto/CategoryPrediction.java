@@ -0,0 +1,7 @@
+package jpademo.jpademo.model.dto;
+
+/**
+ * A candidate category with its posterior probability (0..1).
+ */
+public record CategoryPrediction(String category, double probability) {
+}
@@ -0,0 +1,10 @@
+package jpademo.jpademo.model.dto;
+
+import java.util.List;
+
+/**
+ * The best category for a description, with alternatives and a 0-100 confidence.
+ */
+public record CategorySuggestion(String suggestedCategory, List<String> alternativeCategories, double confidence,
+                                 String confidenceLabel) {
+}
@@ -0,0 +1,18 @@
+package jpademo.jpademo.model.dto;
+
+import java.util.Locale;
+
+/**
+ * A description to categorize; with a userId the user's learned model is used.
+ */
+public record CategorySuggestionRequest(String description, Long userId) {
+
+    /**
+     * Same request with the description trimmed and lower-cased. Matching
+     * ignores case and surrounding space, so both give the same suggestion.
+     */
+    public CategorySuggestionRequest normalized() {
+        return description == null ? this
+                : new CategorySuggestionRequest(description.strip().toLowerCase(Locale.ROOT), userId);
+    }
+}
@@ -0,0 +1,9 @@
+package jpademo.jpademo.model.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregated amount and row count for one category, computed by the database.
+ */
+public record CategoryTotal(String category, BigDecimal total, Long count) {
+}
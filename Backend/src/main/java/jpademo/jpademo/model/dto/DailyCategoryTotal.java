@@ -0,0 +1,10 @@
+package jpademo.jpademo.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Sum of one user's expenses in one category on one day.
+ */
+public record DailyCategoryTotal(LocalDate day, String category, BigDecimal total) {
+}
@@ -0,0 +1,9 @@
+package jpademo.jpademo.model.dto;
+
+import java.util.List;
+
+/**
+ * Tips for the largest spending categories.
+ */
+public record ExpenseTips(String type, List<String> tips, String status, double totalAnalyzed) {
+}
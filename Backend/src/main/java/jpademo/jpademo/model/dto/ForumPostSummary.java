@@ -0,0 +1,12 @@
+package jpademo.jpademo.model.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One forum post as shown in the feed: reaction and comment counts, and the
+ * viewer's own reaction, instead of the full liked-by sets and comment list.
+ */
+public record ForumPostSummary(String id, String title, String content, String category, String authorName,
+                               String authorId, LocalDateTime timestamp, int likes, int dislikes, int commentCount,
+                               boolean likedByMe, boolean dislikedByMe) {
+}
@@ -0,0 +1,14 @@
+package jpademo.jpademo.model.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Financial health and insights for one month.
+ */
+public record MonthlyAnalytics(String financialHealth, String healthEmoji, List<String> insights, Trends trends,
+                               double netSavings, Map<String, Double> categoryBreakdown) {
+
+    public record Trends(double savingsRate, double expenseRatio, double netWorth) {
+    }
+}
@@ -0,0 +1,10 @@
+package jpademo.jpademo.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * {@link MonthlyAnalytics} computed from stored data, with the totals it was computed from.
+ */
+public record MonthlyAnalyticsReport(String month, double totalIncome, double totalExpenses,
+                                     @JsonUnwrapped MonthlyAnalytics analytics) {
+}
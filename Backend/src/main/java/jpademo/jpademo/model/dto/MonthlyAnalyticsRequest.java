@@ -0,0 +1,13 @@
+package jpademo.jpademo.model.dto;
+
+import java.util.Map;
+
+/**
+ * One month's totals and per-category spending.
+ */
+public record MonthlyAnalyticsRequest(double totalIncome, double totalExpenses, Map<String, Double> categoryBreakdown) {
+
+    public MonthlyAnalyticsRequest {
+        categoryBreakdown = categoryBreakdown != null ? categoryBreakdown : Map.of();
+    }
+}
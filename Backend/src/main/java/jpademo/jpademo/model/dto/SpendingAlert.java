@@ -0,0 +1,10 @@
+package jpademo.jpademo.model.dto;
+
+import java.util.List;
+
+/**
+ * Alert level and messages for the projected monthly spending.
+ */
+public record SpendingAlert(String alertLevel, String alertEmoji, List<String> messages, double projectedSpending,
+                            double remainingBudget, double weeklyBudget, double dailyBudget) {
+}
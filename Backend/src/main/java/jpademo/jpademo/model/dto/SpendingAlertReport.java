@@ -0,0 +1,10 @@
+package jpademo.jpademo.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * {@link SpendingAlert} computed from stored data, with the inputs it was computed from.
+ */
+public record SpendingAlertReport(double weeklySpending, double monthlyBudget, int daysRemaining,
+                                  @JsonUnwrapped SpendingAlert alert) {
+}
@@ -0,0 +1,7 @@
+package jpademo.jpademo.model.dto;
+
+/**
+ * Last week's spending against the monthly budget.
+ */
+public record SpendingAlertRequest(double weeklySpending, double monthlyBudget, int daysRemaining) {
+}
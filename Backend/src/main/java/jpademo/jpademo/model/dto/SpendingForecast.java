@@ -0,0 +1,10 @@
+package jpademo.jpademo.model.dto;
+
+import java.util.List;
+
+/**
+ * Month-end projections per category as of one day, plus their total.
+ */
+public record SpendingForecast(String month, String asOf, int daysRemaining, List<CategoryForecast> categories,
+                               CategoryForecast total) {
+}
@@ -0,0 +1,19 @@
+package jpademo.jpademo.model.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published whenever a user's expenses, incomes or budgets change, so derived
+ * results can be invalidated. A null earliestAffectedDate means every period
+ * of the user may have changed; a null userId means every user.
+ */
+public record FinanceDataChangedEvent(Long userId, LocalDate earliestAffectedDate) {
+
+    public static FinanceDataChangedEvent allPeriods(Long userId) {
+        return new FinanceDataChangedEvent(userId, null);
+    }
+
+    public static FinanceDataChangedEvent allUsers() {
+        return new FinanceDataChangedEvent(null, null);
+    }
+}
@@ -0,0 +1,50 @@
+package jpademo.jpademo.model.repository;
+
+import jpademo.jpademo.model.BalanceLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BalanceLedgerRepository extends JpaRepository<BalanceLedger, Long> {
+
+    @Query("SELECT l.balance FROM BalanceLedger l WHERE l.userId = :userId")
+    Optional<BigDecimal> findBalance(@Param("userId") Long userId);
+
+    // Seeds the ledger from the raw tables; a no-op when the row already exists
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO balance_ledgers (user_id, balance, updated_at) " +
+                   "SELECT :userId, " +
+                   "(SELECT COALESCE(SUM(amount), 0) FROM incomes WHERE user_id = :userId) - " +
+                   "(SELECT COALESCE(SUM(amount), 0) FROM expenses WHERE user_id = :userId), " +
+                   "NOW()",
+           nativeQuery = true)
+    int seed(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE BalanceLedger l SET l.balance = l.balance + :delta, l.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE l.userId = :userId")
+    int addDelta(@Param("userId") Long userId, @Param("delta") BigDecimal delta);
+
+    // Balance guard enforced by the database: no row is updated when funds are short
+    @Modifying
+    @Query("UPDATE BalanceLedger l SET l.balance = l.balance - :amount, l.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE l.userId = :userId AND l.balance >= :amount")
+    int debitIfSufficient(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+
+    // Rows of [user_id, ledger balance, balance recomputed from the raw tables] that disagree
+    @Query(value = "SELECT l.user_id, l.balance, COALESCE(i.total, 0) - COALESCE(e.total, 0) " +
+                   "FROM balance_ledgers l " +
+                   "LEFT JOIN (SELECT user_id, SUM(amount) AS total FROM incomes GROUP BY user_id) i " +
+                   "ON i.user_id = l.user_id " +
+                   "LEFT JOIN (SELECT user_id, SUM(amount) AS total FROM expenses GROUP BY user_id) e " +
+                   "ON e.user_id = l.user_id " +
+                   "WHERE l.balance <> COALESCE(i.total, 0) - COALESCE(e.total, 0)",
+           nativeQuery = true)
+    List<Object[]> findDrift();
+}
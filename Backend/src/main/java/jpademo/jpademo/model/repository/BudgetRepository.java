@@ -1,8 +1,12 @@
 package jpademo.jpademo.model.repository;
 
 import jpademo.jpademo.model.Budget;
+import jpademo.jpademo.model.dto.BudgetSpend;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +14,16 @@ import java.util.Optional;
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
     List<Budget> findByUserId(Long userId);
     Optional<Budget> findByUserIdAndCategory(Long userId, String category);
-}
\ No newline at end of file
+
+    // Every budget of the user with its category's spend for the month, in one statement
+    @Query("SELECT new jpademo.jpademo.model.dto.BudgetSpend(b.category, b.limitAmount, COALESCE(r.totalAmount, 0)) " +
+           "FROM Budget b LEFT JOIN MonthlyRollup r " +
+           "ON r.userId = b.userId AND r.category = b.category AND r.kind = 'EXPENSE' AND r.rollupMonth = :month " +
+           "WHERE b.userId = :userId")
+    List<BudgetSpend> findBudgetSpend(@Param("userId") Long userId, @Param("month") String month);
+
+    // Sum of the user's limits as a monthly amount; weekly limits count 4.33 times
+    @Query("SELECT COALESCE(SUM(CASE WHEN UPPER(b.period) = 'WEEKLY' THEN b.limitAmount * 4.33 ELSE b.limitAmount END), 0) " +
+           "FROM Budget b WHERE b.userId = :userId")
+    BigDecimal sumMonthlyLimit(@Param("userId") Long userId);
+}
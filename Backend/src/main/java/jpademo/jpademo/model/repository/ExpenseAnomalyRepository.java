@@ -0,0 +1,32 @@
+package jpademo.jpademo.model.repository;
+
+import jpademo.jpademo.model.ExpenseAnomaly;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ExpenseAnomalyRepository extends JpaRepository<ExpenseAnomaly, Long> {
+    List<ExpenseAnomaly> findByUserIdOrderByDetectedAtDesc(Long userId);
+
+    // Keyset pagination: first page, newest first
+    List<ExpenseAnomaly> findByUserIdOrderByDetectedAtDescIdDesc(Long userId, Pageable pageable);
+
+    // Keyset pagination: rows strictly after the (detectedAt, id) cursor
+    @Query("SELECT a FROM ExpenseAnomaly a WHERE a.userId = :userId " +
+           "AND (a.detectedAt < :detectedAt OR (a.detectedAt = :detectedAt AND a.id < :id)) " +
+           "ORDER BY a.detectedAt DESC, a.id DESC")
+    List<ExpenseAnomaly> findPageAfter(@Param("userId") Long userId,
+                                       @Param("detectedAt") LocalDateTime detectedAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ExpenseAnomaly a WHERE a.expenseId = :expenseId")
+    int deleteByExpenseId(@Param("expenseId") Long expenseId);
+}
@@ -1,15 +1,67 @@
 package jpademo.jpademo.model.repository;
 
+import jakarta.persistence.QueryHint;
 import jpademo.jpademo.model.Expense;
+import jpademo.jpademo.model.dto.DailyCategoryTotal;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpecificationExecutor<Expense> {
     
     List<Expense> findByUserId(Long userId);
     
     // Add this method
     List<Expense> findByUserIdOrderByExpenseDateDesc(Long userId);
-}
\ No newline at end of file
+
+    // Keyset pagination: first page, newest first
+    List<Expense> findByUserIdOrderByExpenseDateDescIdDesc(Long userId, Pageable pageable);
+
+    // Keyset pagination: rows strictly after the (expenseDate, id) cursor
+    @Query("SELECT e FROM Expense e WHERE e.userId = :userId " +
+           "AND (e.expenseDate < :expenseDate OR (e.expenseDate = :expenseDate AND e.id < :id)) " +
+           "ORDER BY e.expenseDate DESC, e.id DESC")
+    List<Expense> findPageAfter(@Param("userId") Long userId,
+                                @Param("expenseDate") LocalDate expenseDate,
+                                @Param("id") Long id,
+                                Pageable pageable);
+
+    // Training pairs for the per-user category classifier
+    @Query("SELECT e.description, e.category FROM Expense e WHERE e.userId = :userId")
+    List<Object[]> findDescriptionAndCategoryByUserId(@Param("userId") Long userId);
+
+    // Daily per-category sums over [from, to), for the forecasting models
+    @Query("SELECT new jpademo.jpademo.model.dto.DailyCategoryTotal(e.expenseDate, e.category, SUM(e.amount)) " +
+           "FROM Expense e WHERE e.userId = :userId AND e.expenseDate >= :from AND e.expenseDate < :to " +
+           "GROUP BY e.expenseDate, e.category")
+    List<DailyCategoryTotal> sumByDayAndCategory(@Param("userId") Long userId,
+                                                 @Param("from") LocalDate from,
+                                                 @Param("to") LocalDate to);
+
+    // SUM over the half-open date window [from, to)
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e " +
+           "WHERE e.userId = :userId AND e.expenseDate >= :from AND e.expenseDate < :to")
+    BigDecimal sumBetween(@Param("userId") Long userId,
+                          @Param("from") LocalDate from,
+                          @Param("to") LocalDate to);
+
+    // Cursor-backed stream for exports: read-only entities, rows fetched in chunks
+    // Must be consumed inside a transaction and closed afterwards
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT e FROM Expense e WHERE e.userId = :userId ORDER BY e.expenseDate DESC, e.id DESC")
+    Stream<Expense> streamByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,43 @@
+package jpademo.jpademo.model.repository;
+
+import jpademo.jpademo.model.Expense;
+import org.springframework.data.jpa.domain.Specification;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+
+// Filter building blocks for ExpenseRepository search queries.
+// userId and the date bounds line up with idx_expenses_user_date / idx_expenses_user_category_date
+public final class ExpenseSpecifications {
+
+    private ExpenseSpecifications() {
+    }
+
+    public static Specification<Expense> forUser(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    // Inclusive lower bound
+    public static Specification<Expense> onOrAfter(LocalDate from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("expenseDate"), from);
+    }
+
+    // Exclusive upper bound
+    public static Specification<Expense> before(LocalDate to) {
+        return (root, query, cb) -> cb.lessThan(root.get("expenseDate"), to);
+    }
+
+    public static Specification<Expense> inCategories(Collection<String> categories) {
+        return (root, query, cb) -> categories.size() == 1
+                ? cb.equal(root.get("category"), categories.iterator().next())
+                : root.get("category").in(categories);
+    }
+
+    public static Specification<Expense> amountAtLeast(BigDecimal minAmount) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), minAmount);
+    }
+
+    public static Specification<Expense> amountAtMost(BigDecimal maxAmount) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), maxAmount);
+    }
+}
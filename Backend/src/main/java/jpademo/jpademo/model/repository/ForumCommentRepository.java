@@ -0,0 +1,35 @@
+package jpademo.jpademo.model.repository;
+
+import jpademo.jpademo.forum.model.ForumComment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// Thread pages in posting order, served by the (post_id, timestamp) index
+@Repository
+public interface ForumCommentRepository extends JpaRepository<ForumComment, String> {
+
+    @Query("SELECT c FROM ForumComment c WHERE c.post.id = :postId ORDER BY c.timestamp ASC, c.id ASC")
+    List<ForumComment> findFirstPage(@Param("postId") String postId, Pageable pageable);
+
+    @Query("SELECT c FROM ForumComment c WHERE c.post.id = :postId " +
+           "AND (c.timestamp > :timestamp OR (c.timestamp = :timestamp AND c.id > :id)) " +
+           "ORDER BY c.timestamp ASC, c.id ASC")
+    List<ForumComment> findPageAfter(@Param("postId") String postId,
+                                     @Param("timestamp") LocalDateTime timestamp,
+                                     @Param("id") String id,
+                                     Pageable pageable);
+
+    // [post id, text] rows for the search index, each thread in posting order
+    @Query("SELECT c.post.id, c.text FROM ForumComment c WHERE c.post.id IN :postIds ORDER BY c.timestamp ASC, c.id ASC")
+    List<Object[]> findTextsByPostIds(@Param("postIds") Collection<String> postIds);
+
+    @Query("SELECT DISTINCT c.post.id FROM ForumComment c WHERE c.timestamp > :since")
+    List<String> findPostIdsCommentedSince(@Param("since") LocalDateTime since);
+}
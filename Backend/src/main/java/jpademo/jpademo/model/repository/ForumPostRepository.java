@@ -1,11 +1,74 @@
 package jpademo.jpademo.model.repository;
 
 import jpademo.jpademo.forum.model.ForumPost;
+import jpademo.jpademo.model.dto.ForumPostSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ForumPostRepository extends JpaRepository<ForumPost, String> {
     List<ForumPost> findAllByOrderByTimestampDesc();
-}
\ No newline at end of file
+
+    // Feed rows in one statement: the viewer's reaction is a join on its (post, user) key,
+    // which matches at most one row
+    String SUMMARY = "SELECT new jpademo.jpademo.model.dto.ForumPostSummary(p.id, p.title, p.content, p.category, " +
+            "p.authorName, p.authorId, p.timestamp, p.likes, p.dislikes, " +
+            "p.commentCount, " +
+            "CASE WHEN r.reaction = jpademo.jpademo.forum.model.ReactionType.LIKE THEN true ELSE false END, " +
+            "CASE WHEN r.reaction = jpademo.jpademo.forum.model.ReactionType.DISLIKE THEN true ELSE false END) " +
+            "FROM ForumPost p LEFT JOIN ForumReaction r ON r.postId = p.id AND r.userId = :userId ";
+
+    @Query(SUMMARY + "ORDER BY p.timestamp DESC, p.id DESC")
+    List<ForumPostSummary> findFeed(@Param("userId") String userId, Pageable pageable);
+
+    @Query(SUMMARY + "WHERE p.timestamp < :timestamp OR (p.timestamp = :timestamp AND p.id < :id) " +
+           "ORDER BY p.timestamp DESC, p.id DESC")
+    List<ForumPostSummary> findFeedBefore(@Param("userId") String userId,
+                                          @Param("timestamp") LocalDateTime timestamp,
+                                          @Param("id") String id,
+                                          Pageable pageable);
+
+    @Query(SUMMARY + "WHERE p.id IN :ids")
+    List<ForumPostSummary> findSummaries(@Param("ids") Collection<String> ids, @Param("userId") String userId);
+
+    @Query(SUMMARY + "WHERE p.id = :id")
+    Optional<ForumPostSummary> findSummary(@Param("id") String id, @Param("userId") String userId);
+
+    // Applies reaction counter deltas as one atomic increment
+    @Transactional
+    @Modifying
+    @Query("UPDATE ForumPost p SET p.likes = p.likes + :likes, p.dislikes = p.dislikes + :dislikes WHERE p.id = :id")
+    int addReactionCounts(@Param("id") String id, @Param("likes") int likes, @Param("dislikes") int dislikes);
+
+    // [id, title, content] rows for the search index, in id order for keyset batches
+    @Query("SELECT p.id, p.title, p.content FROM ForumPost p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findSearchTextAfter(@Param("afterId") String afterId, Pageable pageable);
+
+    @Query("SELECT p.id, p.title, p.content FROM ForumPost p WHERE p.id IN :ids")
+    List<Object[]> findSearchText(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT p.id FROM ForumPost p WHERE p.timestamp > :since")
+    List<String> findIdsPostedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT p.id FROM ForumPost p")
+    List<String> findAllIds();
+
+    // [id, timestamp, likes, dislikes, commentCount] rows for the hot ranking
+    @Query("SELECT p.id, p.timestamp, p.likes, p.dislikes, p.commentCount FROM ForumPost p WHERE p.timestamp >= :since")
+    List<Object[]> findRankingCountsSince(@Param("since") LocalDateTime since);
+
+    // Zero rows when the post does not exist
+    @Modifying
+    @Query("UPDATE ForumPost p SET p.commentCount = p.commentCount + 1 WHERE p.id = :id")
+    int incrementCommentCount(@Param("id") String id);
+}
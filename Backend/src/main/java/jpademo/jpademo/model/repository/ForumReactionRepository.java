@@ -0,0 +1,35 @@
+package jpademo.jpademo.model.repository;
+
+import jpademo.jpademo.forum.model.ForumReaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+// Each statement changes at most the one (post, user) row, so reactions to the same post never wait on each other
+@Repository
+public interface ForumReactionRepository extends JpaRepository<ForumReaction, ForumReaction.Key> {
+
+    @Modifying
+    @Query(value = "DELETE FROM forum_post_reactions " +
+                   "WHERE post_id = :postId AND user_id = :userId AND reaction = :reaction",
+           nativeQuery = true)
+    int deleteReaction(@Param("postId") String postId, @Param("userId") String userId,
+                       @Param("reaction") String reaction);
+
+    @Modifying
+    @Query(value = "UPDATE forum_post_reactions SET reaction = :reaction " +
+                   "WHERE post_id = :postId AND user_id = :userId AND reaction <> :reaction",
+           nativeQuery = true)
+    int switchReaction(@Param("postId") String postId, @Param("userId") String userId,
+                       @Param("reaction") String reaction);
+
+    // A no-op when the user already has a reaction on the post
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO forum_post_reactions (post_id, user_id, reaction) " +
+                   "VALUES (:postId, :userId, :reaction)",
+           nativeQuery = true)
+    int insertReaction(@Param("postId") String postId, @Param("userId") String userId,
+                       @Param("reaction") String reaction);
+}
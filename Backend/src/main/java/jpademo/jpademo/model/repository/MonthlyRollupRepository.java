@@ -0,0 +1,86 @@
+package jpademo.jpademo.model.repository;
+
+import jpademo.jpademo.model.MonthlyRollup;
+import jpademo.jpademo.model.dto.CategoryTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, Long> {
+
+    // Atomic upsert: adds the delta to the bucket, creating it on first write
+    @Modifying
+    @Query(value = "INSERT INTO monthly_rollups (user_id, kind, rollup_month, category, total_amount, entry_count) " +
+                   "VALUES (:userId, :kind, :month, :category, :amount, :count) " +
+                   "ON DUPLICATE KEY UPDATE total_amount = total_amount + VALUES(total_amount), " +
+                   "entry_count = entry_count + VALUES(entry_count)",
+           nativeQuery = true)
+    int addDelta(@Param("userId") Long userId,
+                 @Param("kind") String kind,
+                 @Param("month") String month,
+                 @Param("category") String category,
+                 @Param("amount") BigDecimal amount,
+                 @Param("count") long count);
+
+    @Query("SELECT new jpademo.jpademo.model.dto.CategoryTotal(r.category, SUM(r.totalAmount), SUM(r.entryCount)) " +
+           "FROM MonthlyRollup r WHERE r.userId = :userId AND r.kind = :kind GROUP BY r.category")
+    List<CategoryTotal> sumByCategory(@Param("userId") Long userId, @Param("kind") String kind);
+
+    @Query("SELECT new jpademo.jpademo.model.dto.CategoryTotal(r.category, r.totalAmount, r.entryCount) " +
+           "FROM MonthlyRollup r WHERE r.userId = :userId AND r.kind = :kind AND r.rollupMonth = :month")
+    List<CategoryTotal> findMonth(@Param("userId") Long userId,
+                                  @Param("kind") String kind,
+                                  @Param("month") String month);
+
+    @Query("SELECT COALESCE(SUM(r.totalAmount), 0) FROM MonthlyRollup r WHERE r.userId = :userId AND r.kind = :kind")
+    BigDecimal sumTotal(@Param("userId") Long userId, @Param("kind") String kind);
+
+    @Modifying
+    @Query("DELETE FROM MonthlyRollup r WHERE r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    // yyyy-MM keys from YEAR/MONTH/LPAD instead of DATE_FORMAT, which H2 (the test database) lacks
+    @Modifying
+    @Query(value = "INSERT INTO monthly_rollups (user_id, kind, rollup_month, category, total_amount, entry_count) " +
+                   "SELECT user_id, 'EXPENSE', CONCAT(YEAR(expense_date), '-', LPAD(MONTH(expense_date), 2, '0')), category, SUM(amount), COUNT(*) " +
+                   "FROM expenses WHERE user_id = :userId " +
+                   "GROUP BY user_id, CONCAT(YEAR(expense_date), '-', LPAD(MONTH(expense_date), 2, '0')), category",
+           nativeQuery = true)
+    int rebuildExpenses(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO monthly_rollups (user_id, kind, rollup_month, category, total_amount, entry_count) " +
+                   "SELECT user_id, 'INCOME', CONCAT(YEAR(income_date), '-', LPAD(MONTH(income_date), 2, '0')), category, SUM(amount), COUNT(*) " +
+                   "FROM incomes WHERE user_id = :userId " +
+                   "GROUP BY user_id, CONCAT(YEAR(income_date), '-', LPAD(MONTH(income_date), 2, '0')), category",
+           nativeQuery = true)
+    int rebuildIncomes(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM monthly_rollups", nativeQuery = true)
+    int deleteAllRollups();
+
+    @Modifying
+    @Query(value = "INSERT INTO monthly_rollups (user_id, kind, rollup_month, category, total_amount, entry_count) " +
+                   "SELECT user_id, 'EXPENSE', CONCAT(YEAR(expense_date), '-', LPAD(MONTH(expense_date), 2, '0')), category, SUM(amount), COUNT(*) " +
+                   "FROM expenses GROUP BY user_id, CONCAT(YEAR(expense_date), '-', LPAD(MONTH(expense_date), 2, '0')), category",
+           nativeQuery = true)
+    int rebuildAllExpenses();
+
+    @Modifying
+    @Query(value = "INSERT INTO monthly_rollups (user_id, kind, rollup_month, category, total_amount, entry_count) " +
+                   "SELECT user_id, 'INCOME', CONCAT(YEAR(income_date), '-', LPAD(MONTH(income_date), 2, '0')), category, SUM(amount), COUNT(*) " +
+                   "FROM incomes GROUP BY user_id, CONCAT(YEAR(income_date), '-', LPAD(MONTH(income_date), 2, '0')), category",
+           nativeQuery = true)
+    int rebuildAllIncomes();
+
+    // Users with expenses recorded in or after the given month
+    @Query("SELECT DISTINCT r.userId FROM MonthlyRollup r " +
+           "WHERE r.kind = 'EXPENSE' AND r.rollupMonth >= :month AND r.entryCount > 0")
+    List<Long> findUsersWithExpensesSince(@Param("month") String month);
+}
@@ -2,10 +2,18 @@ package jpademo.jpademo.model.repository;
 
 import jpademo.jpademo.model.SavingGoal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface SavingGoalRepository extends JpaRepository<SavingGoal, Long> {
     List<SavingGoal> findByUserId(Long userId);
+
+    // Atomic increment so concurrent contributions never lose an update
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SavingGoal g SET g.savedAmount = COALESCE(g.savedAmount, 0) + :amount WHERE g.id = :id")
+    int addToSavedAmount(@Param("id") Long id, @Param("amount") Double amount);
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+package jpademo.jpademo.model.service;
+
+import jpademo.jpademo.model.event.FinanceDataChangedEvent;
+import jpademo.jpademo.util.LoadGuard;
+import jpademo.jpademo.util.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Memoizes AI results by their normalized request. Requests are records, so
+ * equal inputs give equal keys. Results computed from a user's stored data are
+ * scoped to that user and dropped when a {@link FinanceDataChangedEvent}
+ * touches them; the rest only leave by age or size. User keys are indexed by
+ * user, so an invalidation only visits that user's entries.
+ */
+@Service
+public class AIResultCache {
+
+    // A request whose result depends on the user's data; period is the month it reads, or null for "any change"
+    private record UserKey(Long userId, YearMonth period, Object request) {
+    }
+
+    private final LruCache<Object, Object> results;
+    // Cached user keys by user, only changed inside the map's per-user compute; keys the cache
+    // drops by size or age are unindexed by its listener
+    private final Map<Long, Set<UserKey>> keysByUser = new ConcurrentHashMap<>();
+    // Tells a computation for a user whether an invalidation for them ran meanwhile
+    private final LoadGuard<Long> loads = new LoadGuard<>();
+
+    public AIResultCache(@Value("${ai.cache.max-entries:10000}") int maxEntries,
+                         @Value("${ai.cache.ttl:10m}") Duration ttl) {
+        this.results = new LruCache<>(maxEntries, ttl, System::nanoTime, this::unindex);
+    }
+
+    /** Result of a pure function of the request. */
+    public <T> T get(Object request, Supplier<T> compute) {
+        return lookup(request, compute);
+    }
+
+    /**
+     * Result that reads the user's data. With a period it is kept until a
+     * change dated in or before that month; without one, until any change.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getForUser(Long userId, YearMonth period, Object request, Supplier<T> compute) {
+        UserKey key = new UserKey(userId, period, request);
+        T cached = (T) results.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        LoadGuard.Load load = loads.start(userId);
+        T result;
+        try {
+            result = compute.get();
+        } catch (RuntimeException e) {
+            loads.finish(userId, load);
+            throw e;
+        }
+        if (result != null) {
+            keysByUser.compute(userId, (id, keys) -> {
+                Set<UserKey> indexed = keys == null ? new HashSet<>() : keys;
+                indexed.add(key);
+                return indexed;
+            });
+            results.put(key, result);
+        }
+        // Computed from data an invalidation has since replaced; answer this request but do not keep it
+        if (!loads.finish(userId, load) && result != null) {
+            results.remove(key, result);
+        }
+        return result;
+    }
+
+    public LruCache.Stats stats() {
+        return results.stats();
+    }
+
+    // Runs after commit, or immediately when published outside a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFinanceDataChanged(FinanceDataChangedEvent event) {
+        YearMonth earliest = event.earliestAffectedDate() != null ? YearMonth.from(event.earliestAffectedDate()) : null;
+        if (event.userId() == null) {
+            loads.changedAll();
+            keysByUser.keySet().forEach(userId -> invalidate(userId, earliest));
+        } else {
+            loads.changed(event.userId());
+            invalidate(event.userId(), earliest);
+        }
+    }
+
+    // Unindexes the user's affected keys, then drops them outside the index lock
+    private void invalidate(Long userId, YearMonth earliest) {
+        List<UserKey> stale = new ArrayList<>();
+        keysByUser.computeIfPresent(userId, (id, keys) -> {
+            keys.removeIf(key -> {
+                if (earliest != null && key.period() != null && key.period().isBefore(earliest)) {
+                    return false;
+                }
+                stale.add(key);
+                return true;
+            });
+            return keys.isEmpty() ? null : keys;
+        });
+        stale.forEach(results::remove);
+    }
+
+    // Called under the cache lock, so it only touches the index
+    private void unindex(Object key) {
+        if (key instanceof UserKey userKey) {
+            keysByUser.computeIfPresent(userKey.userId(), (userId, keys) -> {
+                keys.remove(userKey);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    // Computed outside the cache lock; two racing misses both compute and the later one is kept
+    @SuppressWarnings("unchecked")
+    private <T> T lookup(Object key, Supplier<T> compute) {
+        T cached = (T) results.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        T result = compute.get();
+        if (result != null) {
+            results.put(key, result);
+        }
+        return result;
+    }
+}
@@ -1,89 +1,141 @@
 package jpademo.jpademo.model.service;
 
+import jpademo.jpademo.model.dto.BudgetSuggestion;
+import jpademo.jpademo.model.dto.BudgetSuggestionRequest;
+import jpademo.jpademo.model.dto.CategoryAmount;
+import jpademo.jpademo.model.dto.CategoryPrediction;
+import jpademo.jpademo.model.dto.CategorySuggestion;
+import jpademo.jpademo.model.dto.CategorySuggestionRequest;
+import jpademo.jpademo.model.dto.ExpenseTips;
+import jpademo.jpademo.model.dto.MonthlyAnalytics;
+import jpademo.jpademo.model.dto.MonthlyAnalyticsRequest;
+import jpademo.jpademo.model.dto.SpendingAlert;
+import jpademo.jpademo.model.dto.SpendingAlertRequest;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 @Service
 public class AIService {
 
-    private static final Map<String, List<String>> CATEGORY_KEYWORDS = new HashMap<>() {{
-        put("Food", Arrays.asList("restaurant", "cafe", "food", "meal", "grocery", "supermarket", 
-            "breakfast", "lunch", "dinner", "swiggy", "zomato", "hotel", "eat", "snack", "pizza", "biryani"));
-        put("Transport", Arrays.asList("uber", "ola", "taxi", "cab", "bus", "metro", "train", 
-            "fuel", "petrol", "diesel", "gas", "parking", "toll", "auto", "rapido"));
-        put("Shopping", Arrays.asList("shop", "mall", "amazon", "flipkart", "clothes", "fashion", 
-            "shoes", "electronics", "store", "purchase", "buy", "myntra", "meesho"));
-        put("Bills", Arrays.asList("electricity", "water", "internet", "mobile", "recharge", 
-            "wifi", "broadband", "bill", "payment", "utility", "rent", "emi"));
-        put("Entertainment", Arrays.asList("movie", "cinema", "netflix", "spotify", "game", 
-            "concert", "show", "theater", "fun", "party", "club", "prime", "hotstar"));
-        put("Health", Arrays.asList("doctor", "hospital", "medicine", "pharmacy", "medical", 
-            "clinic", "health", "gym", "fitness", "apollo", "yoga"));
-        put("Education", Arrays.asList("book", "course", "class", "school", "college", "tuition", 
-            "study", "training", "learning", "udemy", "coursera"));
-    }};
+    // Descriptions scored per task in batch suggestions
+    private static final int BATCH_CHUNK_SIZE = 256;
+    public static final int MAX_BATCH_SIZE = 10_000;
+
+    // Categories that get a tip in expense tips
+    private static final int TIP_CATEGORIES = 3;
+
+    // Fixed texts; only the amounts between the parts vary per call
+    private static final String FOOD_TIP = "🍽️ Food expenses are high (";
+    private static final String FOOD_TIP_SAVE = "%). Try meal planning and cooking at home to save ₹";
+    private static final String TRANSPORT_TIP = "🚗 Transport costs are above average. Consider carpooling or public transport to reduce by ₹";
+    private static final String SHOPPING_TIP = "🛍️ Shopping expenses seem high. Set a monthly limit and use wishlists to avoid impulse buying";
+    private static final String ENTERTAINMENT_TIP = "🎬 Entertainment spending is elevated. Consider free alternatives or reduce subscriptions";
+    private static final List<String> BALANCED_TIPS = List.of(
+            "✅ Great job! Your spending looks balanced across categories",
+            "💡 Keep tracking your expenses to maintain this healthy pattern",
+            "📊 Consider setting aside 20% of income for savings");
+
+    private static final List<String> EXCELLENT_RECOMMENDATIONS = List.of(
+            "💚 You're managing finances excellently!",
+            "📈 Consider increasing savings to 25-30% of income",
+            "💰 Look into investment options for long-term growth");
+    private static final List<String> GOOD_RECOMMENDATIONS = List.of(
+            "💛 Good financial health, but there's room for improvement",
+            "💰 Try to reduce discretionary spending by 10%",
+            "🎯 Focus on building an emergency fund");
+    private static final List<String> FAIR_RECOMMENDATIONS = List.of(
+            "🧡 You're spending most of your income",
+            "⚠️ Prioritize essential expenses only",
+            "📊 Review and cancel unnecessary subscriptions");
+    private static final List<String> OVERSPENDING_RECOMMENDATIONS = List.of(
+            "❤️ You're spending more than you earn!",
+            "🚨 Immediate action needed to reduce expenses",
+            "🎯 Cut all non-essential spending immediately",
+            "📞 Consider seeking financial counseling");
+
+    private static final List<String> NO_SUGGESTIONS = List.of("Other", "Shopping", "Bills");
+
+    private static final long[] POWERS_OF_TEN = { 1, 10, 100, 1000 };
+
+    @Autowired
+    private ExpenseCategoryClassifier categoryClassifier;
+
+    private final CategoryKeywordDictionary keywordDictionary;
+
+    // Bounded pool for batch scoring, so large batches cannot starve request threads
+    private final ForkJoinPool scoringPool;
+
+    public AIService(CategoryKeywordDictionary keywordDictionary,
+                     @Value("${ai.batch.parallelism:0}") int parallelism) {
+        this.keywordDictionary = keywordDictionary;
+        this.scoringPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdownScoringPool() {
+        scoringPool.shutdown();
+    }
 
     /**
      * 1. Generate personalized expense tips
      */
-    public Map<String, Object> generateExpenseTips(List<Map<String, Object>> expenses) {
-        List<String> tips = new ArrayList<>();
-        
-        double totalSpending = expenses.stream()
-                .mapToDouble(e -> ((Number) e.get("amount")).doubleValue())
-                .sum();
-
-        // Sort by amount to find top spenders
-        List<Map<String, Object>> sortedExpenses = expenses.stream()
-                .sorted((a, b) -> Double.compare(
-                    ((Number) b.get("amount")).doubleValue(),
-                    ((Number) a.get("amount")).doubleValue()
-                ))
-                .collect(Collectors.toList());
-
-        for (Map<String, Object> expense : sortedExpenses.subList(0, Math.min(3, sortedExpenses.size()))) {
-            String category = (String) expense.get("category");
-            double amount = ((Number) expense.get("amount")).doubleValue();
-            double percentage = (amount / totalSpending) * 100;
-            
-            if (category.equalsIgnoreCase("Food") && percentage > 30) {
-                tips.add("🍽️ Food expenses are high (" + String.format("%.1f%%", percentage) + 
-                    "). Try meal planning and cooking at home to save ₹" + 
-                    String.format("%.0f", amount * 0.3) + "/month");
-            } else if (category.equalsIgnoreCase("Transport") && percentage > 20) {
-                tips.add("🚗 Transport costs are above average. Consider carpooling or public transport to reduce by ₹" + 
-                    String.format("%.0f", amount * 0.25));
-            } else if (category.equalsIgnoreCase("Shopping") && percentage > 25) {
-                tips.add("🛍️ Shopping expenses seem high. Set a monthly limit and use wishlists to avoid impulse buying");
-            } else if (category.equalsIgnoreCase("Entertainment") && percentage > 15) {
-                tips.add("🎬 Entertainment spending is elevated. Consider free alternatives or reduce subscriptions");
+    public ExpenseTips generateExpenseTips(List<CategoryAmount> expenses) {
+        // Top spenders by a single pass; ties keep input order like a stable sort
+        CategoryAmount[] top = new CategoryAmount[TIP_CATEGORIES];
+        int topCount = 0;
+        double totalSpending = 0;
+        for (CategoryAmount expense : expenses) {
+            totalSpending += expense.amount();
+            int slot = topCount;
+            while (slot > 0 && expense.amount() > top[slot - 1].amount()) {
+                slot--;
+            }
+            if (slot < TIP_CATEGORIES) {
+                for (int i = Math.min(topCount, TIP_CATEGORIES - 1); i > slot; i--) {
+                    top[i] = top[i - 1];
+                }
+                top[slot] = expense;
+                topCount = Math.min(topCount + 1, TIP_CATEGORIES);
             }
         }
 
-        if (tips.isEmpty()) {
-            tips.add("✅ Great job! Your spending looks balanced across categories");
-            tips.add("💡 Keep tracking your expenses to maintain this healthy pattern");
-            tips.add("📊 Consider setting aside 20% of income for savings");
+        List<String> tips = new ArrayList<>(TIP_CATEGORIES);
+        for (int i = 0; i < topCount; i++) {
+            String category = top[i].category();
+            double amount = top[i].amount();
+            double percentage = (amount / totalSpending) * 100;
+
+            if ("Food".equalsIgnoreCase(category) && percentage > 30) {
+                StringBuilder tip = new StringBuilder(128).append(FOOD_TIP);
+                appendFixed(tip, percentage, 1).append(FOOD_TIP_SAVE);
+                tips.add(appendFixed(tip, amount * 0.3, 0).append("/month").toString());
+            } else if ("Transport".equalsIgnoreCase(category) && percentage > 20) {
+                tips.add(text(TRANSPORT_TIP, amount * 0.25, ""));
+            } else if ("Shopping".equalsIgnoreCase(category) && percentage > 25) {
+                tips.add(SHOPPING_TIP);
+            } else if ("Entertainment".equalsIgnoreCase(category) && percentage > 15) {
+                tips.add(ENTERTAINMENT_TIP);
+            }
         }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("type", "expense_tips");
-        response.put("tips", tips);
-        response.put("status", "success");
-        response.put("totalAnalyzed", totalSpending);
-        
-        return response;
+        return new ExpenseTips("expense_tips", tips.isEmpty() ? BALANCED_TIPS : tips, "success", totalSpending);
     }
 
     /**
      * 2. Generate budget suggestion using 50-30-20 rule
      */
-    public Map<String, Object> generateBudgetSuggestion(Map<String, Object> request) {
-        double income = ((Number) request.get("income")).doubleValue();
-        double currentExpenses = ((Number) request.get("expenses")).doubleValue();
-        
+    public BudgetSuggestion generateBudgetSuggestion(BudgetSuggestionRequest request) {
+        double income = request.income();
+        double currentExpenses = request.expenses();
+
         // 50-30-20 Rule
         double needs = income * 0.50;  // Essentials
         double wants = income * 0.30;  // Lifestyle
@@ -100,62 +152,43 @@ public class AIService {
 
         String healthStatus;
         String healthEmoji;
-        List<String> recommendations = new ArrayList<>();
+        List<String> recommendations;
 
         if (currentExpenses <= income * 0.70) {
             healthStatus = "Excellent";
             healthEmoji = "💚";
-            recommendations.add(healthEmoji + " You're managing finances excellently!");
-            recommendations.add("📈 Consider increasing savings to 25-30% of income");
-            recommendations.add("💰 Look into investment options for long-term growth");
+            recommendations = EXCELLENT_RECOMMENDATIONS;
         } else if (currentExpenses <= income * 0.85) {
             healthStatus = "Good";
             healthEmoji = "💛";
-            recommendations.add(healthEmoji + " Good financial health, but there's room for improvement");
-            recommendations.add("💰 Try to reduce discretionary spending by 10%");
-            recommendations.add("🎯 Focus on building an emergency fund");
+            recommendations = GOOD_RECOMMENDATIONS;
         } else if (currentExpenses <= income) {
             healthStatus = "Fair";
             healthEmoji = "🧡";
-            recommendations.add(healthEmoji + " You're spending most of your income");
-            recommendations.add("⚠️ Prioritize essential expenses only");
-            recommendations.add("📊 Review and cancel unnecessary subscriptions");
+            recommendations = FAIR_RECOMMENDATIONS;
         } else {
             healthStatus = "Needs Attention";
             healthEmoji = "❤️";
-            recommendations.add(healthEmoji + " You're spending more than you earn!");
-            recommendations.add("🚨 Immediate action needed to reduce expenses");
-            recommendations.add("🎯 Cut all non-essential spending immediately");
-            recommendations.add("📞 Consider seeking financial counseling");
+            recommendations = OVERSPENDING_RECOMMENDATIONS;
         }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("suggestedBudget", suggestedBudget);
-        response.put("healthStatus", healthStatus);
-        response.put("healthEmoji", healthEmoji);
-        response.put("recommendations", recommendations);
-        response.put("potentialSavings", income - currentExpenses);
-        response.put("savingsGoal", savings);
-        response.put("currentSavingsRate", ((income - currentExpenses) / income) * 100);
-        
-        return response;
+        return new BudgetSuggestion(suggestedBudget, healthStatus, healthEmoji, recommendations,
+                income - currentExpenses, savings, ((income - currentExpenses) / income) * 100);
     }
 
     /**
      * 3. Generate monthly analytics
      */
-    public Map<String, Object> generateMonthlyAnalytics(Map<String, Object> request) {
-        double totalIncome = ((Number) request.get("totalIncome")).doubleValue();
-        double totalExpenses = ((Number) request.get("totalExpenses")).doubleValue();
-        
-        @SuppressWarnings("unchecked")
-        Map<String, Object> breakdownObj = (Map<String, Object>) request.get("categoryBreakdown");
-        Map<String, Double> breakdown = new LinkedHashMap<>();
-        breakdownObj.forEach((k, v) -> breakdown.put(k, ((Number) v).doubleValue()));
-
-        double savingsRate = ((totalIncome - totalExpenses) / totalIncome) * 100;
+    public MonthlyAnalytics generateMonthlyAnalytics(MonthlyAnalyticsRequest request) {
+        double totalIncome = request.totalIncome();
+        double totalExpenses = request.totalExpenses();
+        Map<String, Double> breakdown = request.categoryBreakdown();
+
+        // Without income every expense is overspend; avoid dividing by zero
+        double savingsRate = totalIncome > 0 ? ((totalIncome - totalExpenses) / totalIncome) * 100
+                : totalExpenses > 0 ? -100.0 : 0.0;
         double netSavings = totalIncome - totalExpenses;
-        
+
         String financialHealth;
         String healthEmoji;
         if (savingsRate >= 20) {
@@ -172,22 +205,25 @@ public class AIService {
             healthEmoji = "❤️";
         }
 
-        // Find highest spending category
-        Map.Entry<String, Double> topEntry = breakdown.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .orElse(null);
+        // Find highest spending category; the first one wins a tie
+        Map.Entry<String, Double> topEntry = null;
+        for (Map.Entry<String, Double> entry : breakdown.entrySet()) {
+            if (topEntry == null || entry.getValue() > topEntry.getValue()) {
+                topEntry = entry;
+            }
+        }
 
-        List<String> insights = new ArrayList<>();
+        List<String> insights = new ArrayList<>(4);
         insights.add(healthEmoji + " Financial Health: " + financialHealth);
-        insights.add("💰 Savings Rate: " + String.format("%.1f%%", savingsRate));
-        
+        insights.add(text("💰 Savings Rate: ", savingsRate, 1, "%"));
+
         if (topEntry != null) {
             double topPercentage = (topEntry.getValue() / totalExpenses) * 100;
-            insights.add("📊 Top Category: " + topEntry.getKey() + " (₹" + 
-                String.format("%.0f", topEntry.getValue()) + " - " + 
-                String.format("%.1f%%", topPercentage) + ")");
+            StringBuilder insight = new StringBuilder(64).append("📊 Top Category: ").append(topEntry.getKey()).append(" (₹");
+            appendFixed(insight, topEntry.getValue(), 0).append(" - ");
+            insights.add(appendFixed(insight, topPercentage, 1).append("%)").toString());
         }
-        
+
         if (savingsRate < 0) {
             insights.add("🚨 You're spending more than earning! Cut expenses immediately");
         } else if (savingsRate < 10) {
@@ -198,118 +234,193 @@ public class AIService {
             insights.add("⭐ Excellent savings! Keep it up!");
         }
 
-        Map<String, Double> trends = new LinkedHashMap<>();
-        trends.put("savingsRate", savingsRate);
-        trends.put("expenseRatio", (totalExpenses / totalIncome) * 100);
-        trends.put("netWorth", netSavings);
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("financialHealth", financialHealth);
-        response.put("healthEmoji", healthEmoji);
-        response.put("insights", insights);
-        response.put("trends", trends);
-        response.put("netSavings", netSavings);
-        response.put("categoryBreakdown", breakdown);
-        
-        return response;
+        MonthlyAnalytics.Trends trends = new MonthlyAnalytics.Trends(savingsRate,
+                totalIncome > 0 ? (totalExpenses / totalIncome) * 100 : 100.0 - savingsRate, netSavings);
+
+        return new MonthlyAnalytics(financialHealth, healthEmoji, insights, trends, netSavings, breakdown);
     }
 
     /**
      * 4. Generate spending alerts
      */
-    public Map<String, Object> generateSpendingAlert(Map<String, Object> request) {
-        double weeklySpending = ((Number) request.get("weeklySpending")).doubleValue();
-        double monthlyBudget = ((Number) request.get("monthlyBudget")).doubleValue();
-        int daysRemaining = ((Number) request.get("daysRemaining")).intValue();
+    public SpendingAlert generateSpendingAlert(SpendingAlertRequest request) {
+        double weeklySpending = request.weeklySpending();
+        double monthlyBudget = request.monthlyBudget();
+        int daysRemaining = request.daysRemaining();
 
         // Project monthly spending based on weekly rate
         double projectedMonthly = weeklySpending * 4.33; // Average weeks per month
         double weeklyBudget = monthlyBudget / 4.33;
         double dailyBudget = monthlyBudget / 30;
-        
+
         String alertLevel;
         String alertEmoji;
-        List<String> messages = new ArrayList<>();
+        List<String> messages;
 
         if (projectedMonthly > monthlyBudget * 1.2) {
             alertLevel = "Critical";
             alertEmoji = "🚨";
-            messages.add(alertEmoji + " CRITICAL: You're on track to exceed budget by " + 
-                String.format("%.0f%%", ((projectedMonthly - monthlyBudget) / monthlyBudget * 100)));
-            messages.add("🎯 Immediate action needed! Stop all non-essential spending");
-            messages.add("💰 Daily limit: ₹" + 
-                String.format("%.0f", Math.max(0, (monthlyBudget - (weeklySpending * 3)) / daysRemaining)));
+            messages = List.of(
+                text("🚨 CRITICAL: You're on track to exceed budget by ",
+                    (projectedMonthly - monthlyBudget) / monthlyBudget * 100, "%"),
+                "🎯 Immediate action needed! Stop all non-essential spending",
+                text("💰 Daily limit: ₹", Math.max(0, (monthlyBudget - (weeklySpending * 3)) / daysRemaining), ""));
         } else if (projectedMonthly > monthlyBudget) {
             alertLevel = "Warning";
             alertEmoji = "⚠️";
-            messages.add(alertEmoji + " WARNING: Spending is above target pace");
-            messages.add("📊 Projected overspending: ₹" + String.format("%.0f", projectedMonthly - monthlyBudget));
-            messages.add("💡 Stay under ₹" + String.format("%.0f", weeklyBudget) + "/week to meet budget");
+            messages = List.of(
+                "⚠️ WARNING: Spending is above target pace",
+                text("📊 Projected overspending: ₹", projectedMonthly - monthlyBudget, ""),
+                text("💡 Stay under ₹", weeklyBudget, "/week to meet budget"));
         } else {
             alertLevel = "On Track";
             alertEmoji = "✅";
-            messages.add(alertEmoji + " Great! You're within budget");
-            messages.add("💚 You can save ₹" + String.format("%.0f", monthlyBudget - projectedMonthly) + " this month");
-            messages.add("📈 Keep daily spending under ₹" + String.format("%.0f", dailyBudget));
+            messages = List.of(
+                "✅ Great! You're within budget",
+                text("💚 You can save ₹", monthlyBudget - projectedMonthly, " this month"),
+                text("📈 Keep daily spending under ₹", dailyBudget, ""));
         }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("alertLevel", alertLevel);
-        response.put("alertEmoji", alertEmoji);
-        response.put("messages", messages);
-        response.put("projectedSpending", projectedMonthly);
-        response.put("remainingBudget", monthlyBudget - projectedMonthly);
-        response.put("weeklyBudget", weeklyBudget);
-        response.put("dailyBudget", dailyBudget);
-        
-        return response;
+        return new SpendingAlert(alertLevel, alertEmoji, messages, projectedMonthly,
+                monthlyBudget - projectedMonthly, weeklyBudget, dailyBudget);
     }
 
     /**
      * 5. Suggest category based on description
+     * With a userId, the user's learned model ranks categories and the keyword
+     * rules act as its prior; otherwise the keyword rules decide alone.
+     */
+    public CategorySuggestion suggestCategory(CategorySuggestionRequest request) {
+        return suggestCategory(request.description(), request.userId());
+    }
+
+    /**
+     * 5b. Suggest categories for many descriptions at once.
+     * Chunks are scored in parallel on a bounded pool; results keep input order.
      */
-    public Map<String, Object> suggestCategory(Map<String, Object> request) {
-        String description = ((String) request.get("description")).toLowerCase();
-        
-        Map<String, Integer> categoryScores = new HashMap<>();
-
-        // Calculate match scores for each category
-        for (Map.Entry<String, List<String>> entry : CATEGORY_KEYWORDS.entrySet()) {
-            int score = 0;
-            for (String keyword : entry.getValue()) {
-                if (description.contains(keyword)) {
-                    score += 10;
+    public List<CategorySuggestion> suggestCategories(List<String> descriptions, Long userId) {
+        if (descriptions.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " descriptions per batch");
+        }
+        CategorySuggestion[] results = new CategorySuggestion[descriptions.size()];
+        if (descriptions.size() <= BATCH_CHUNK_SIZE) {
+            for (int i = 0; i < results.length; i++) {
+                results[i] = suggestCategory(descriptions.get(i), userId);
+            }
+            return Arrays.asList(results);
+        }
+
+        if (userId != null) {
+            // Train the user's model once up front instead of racing on it from every chunk
+            suggestCategory(descriptions.get(0), userId);
+        }
+        List<Callable<Void>> chunks = new ArrayList<>();
+        for (int start = 0; start < results.length; start += BATCH_CHUNK_SIZE) {
+            int from = start;
+            int to = Math.min(start + BATCH_CHUNK_SIZE, results.length);
+            chunks.add(() -> {
+                for (int i = from; i < to; i++) {
+                    results[i] = suggestCategory(descriptions.get(i), userId);
                 }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> chunk : scoringPool.invokeAll(chunks)) {
+                chunk.get();
             }
-            if (score > 0) {
-                categoryScores.put(entry.getKey(), score);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Batch category suggestion interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Batch category suggestion failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        return Arrays.asList(results);
+    }
+
+    private CategorySuggestion suggestCategory(String description, Long userId) {
+        // One snapshot for the whole call, even if the dictionary is reloaded meanwhile
+        CategoryKeywordMatcher keywords = keywordDictionary.current();
+        // Calculate match scores for each category (10 points per keyword found, less for a misspelt one)
+        double[] hits = keywords.weightedScore(description);
+
+        if (userId != null) {
+            Map<String, Double> keywordHits = new HashMap<>();
+            for (int c = 0; c < hits.length; c++) {
+                if (hits[c] > 0) {
+                    keywordHits.put(keywords.category(c), hits[c]);
+                }
+            }
+            List<CategoryPrediction> predictions = categoryClassifier.predict(
+                    userId, description, keywordHits, 3);
+            if (!predictions.isEmpty()) {
+                return learnedSuggestion(predictions);
             }
         }
 
         // Get top 3 suggestions
-        List<String> suggestions = categoryScores.entrySet().stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                .limit(3)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-
-        String suggestedCategory = suggestions.isEmpty() ? "Other" : suggestions.get(0);
-        
-        if (suggestions.isEmpty()) {
-            suggestions.add("Other");
-            suggestions.add("Shopping");
-            suggestions.add("Bills");
+        int[] top = CategoryKeywordMatcher.top(hits, 3);
+        if (top.length == 0) {
+            return new CategorySuggestion("Other", NO_SUGGESTIONS, 50.0, confidenceLabel(50.0));
+        }
+        String[] suggestions = new String[top.length];
+        for (int i = 0; i < top.length; i++) {
+            suggestions[i] = keywords.category(top[i]);
+        }
+
+        double confidence = Math.min(95.0, hits[top[0]] * 10 * 8.5);
+        return new CategorySuggestion(suggestions[0], Arrays.asList(suggestions), confidence,
+                confidenceLabel(confidence));
+    }
+
+    private CategorySuggestion learnedSuggestion(List<CategoryPrediction> predictions) {
+        String[] suggestions = new String[predictions.size()];
+        for (int i = 0; i < suggestions.length; i++) {
+            suggestions[i] = predictions.get(i).category();
         }
+        double confidence = Math.min(95.0, Math.round(predictions.get(0).probability() * 1000) / 10.0);
+        return new CategorySuggestion(suggestions[0], Arrays.asList(suggestions), confidence,
+                confidenceLabel(confidence));
+    }
 
-        double confidence = suggestions.isEmpty() || suggestedCategory.equals("Other") ? 50.0 : 
-            Math.min(95.0, categoryScores.getOrDefault(suggestedCategory, 0) * 8.5);
+    private static String confidenceLabel(double confidence) {
+        return confidence >= 80 ? "High" : confidence >= 60 ? "Medium" : "Low";
+    }
+
+    // prefix + value rounded to a whole number + suffix
+    private static String text(String prefix, double value, String suffix) {
+        return text(prefix, value, 0, suffix);
+    }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("suggestedCategory", suggestedCategory);
-        response.put("alternativeCategories", suggestions);
-        response.put("confidence", confidence);
-        response.put("confidenceLabel", confidence >= 80 ? "High" : confidence >= 60 ? "Medium" : "Low");
-        
-        return response;
+    private static String text(String prefix, double value, int decimals, String suffix) {
+        StringBuilder text = new StringBuilder(prefix.length() + suffix.length() + 16).append(prefix);
+        return appendFixed(text, value, decimals).append(suffix).toString();
+    }
+
+    /**
+     * Appends what {@code String.format("%.<decimals>f", value)} prints, without
+     * parsing a format string and boxing the value on every call.
+     */
+    static StringBuilder appendFixed(StringBuilder out, double value, int decimals) {
+        double magnitude = Math.abs(value);
+        if (!Double.isFinite(value) || magnitude >= 1e15 || decimals >= POWERS_OF_TEN.length) {
+            return out.append(String.format("%." + decimals + "f", value));
+        }
+        long scale = POWERS_OF_TEN[decimals];
+        // Half up, like the formatter; it also keeps the sign of values that round to zero
+        long scaled = Math.round(magnitude * scale);
+        if (Double.doubleToRawLongBits(value) < 0) {
+            out.append('-');
+        }
+        out.append(scaled / scale);
+        if (decimals > 0) {
+            long fraction = scaled % scale;
+            out.append('.');
+            for (long digit = scale / 10; digit > 1 && fraction < digit; digit /= 10) {
+                out.append('0');
+            }
+            out.append(fraction);
+        }
+        return out;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+package jpademo.jpademo.model.service;
+
+import jpademo.jpademo.model.dto.CategoryTotal;
+import jpademo.jpademo.model.dto.MonthlyAnalyticsReport;
+import jpademo.jpademo.model.dto.MonthlyAnalyticsRequest;
+import jpademo.jpademo.model.dto.SpendingAlertReport;
+import jpademo.jpademo.model.dto.SpendingAlertRequest;
+import jpademo.jpademo.model.event.FinanceDataChangedEvent;
+import jpademo.jpademo.model.repository.BudgetRepository;
+import jpademo.jpademo.model.repository.ExpenseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Monthly analytics and spending alerts computed from the user's stored data
+ * rather than from totals supplied by the client. Results are cached per user
+ * and period in the {@link AIResultCache} until a {@link FinanceDataChangedEvent}
+ * touches that period.
+ */
+@Service
+public class AnalyticsService {
+
+    // Share of the month's income used as the budget when the user has none
+    private static final BigDecimal DEFAULT_BUDGET_SHARE = new BigDecimal("0.70");
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private AIService aiService;
+
+    @Autowired
+    private AIResultCache resultCache;
+
+    private record MonthlyAnalyticsKey(YearMonth month) {
+    }
+
+    // Keyed by day, so alerts roll over at midnight without waiting for the TTL
+    private record SpendingAlertsKey(LocalDate day) {
+    }
+
+    public MonthlyAnalyticsReport getMonthlyAnalytics(Long userId, YearMonth month) {
+        return resultCache.getForUser(userId, month, new MonthlyAnalyticsKey(month),
+                () -> computeMonthlyAnalytics(userId, month));
+    }
+
+    /**
+     * Alerts for the current month based on the last seven days of spending.
+     * The budget is the sum of the user's limits, or 70% of this month's
+     * income when no budget is set. Empty when neither exists.
+     */
+    public Optional<SpendingAlertReport> getSpendingAlerts(Long userId) {
+        LocalDate today = LocalDate.now();
+        // Budgets are not tied to a month, so any change drops the alerts
+        return Optional.ofNullable(resultCache.getForUser(userId, null, new SpendingAlertsKey(today),
+                () -> computeSpendingAlerts(userId, today)));
+    }
+
+    private MonthlyAnalyticsReport computeMonthlyAnalytics(Long userId, YearMonth month) {
+        double totalIncome = rollupService.getMonthlyIncomeTotal(userId, month).doubleValue();
+        double totalExpenses = 0;
+        Map<String, Double> categoryBreakdown = new LinkedHashMap<>();
+        for (CategoryTotal categoryTotal : rollupService.getMonthlyExpenseTotals(userId, month)) {
+            totalExpenses += categoryTotal.total().doubleValue();
+            categoryBreakdown.put(categoryTotal.category(), categoryTotal.total().doubleValue());
+        }
+        
+        MonthlyAnalyticsRequest request = new MonthlyAnalyticsRequest(totalIncome, totalExpenses, categoryBreakdown);
+        return new MonthlyAnalyticsReport(month.toString(), totalIncome, totalExpenses,
+                aiService.generateMonthlyAnalytics(request));
+    }
+
+    // Null when the user has neither a budget nor income this month
+    private SpendingAlertReport computeSpendingAlerts(Long userId, LocalDate today) {
+        BigDecimal monthlyBudget = budgetRepository.sumMonthlyLimit(userId);
+        if (monthlyBudget.signum() <= 0) {
+            monthlyBudget = rollupService.getMonthlyIncomeTotal(userId, YearMonth.from(today)).multiply(DEFAULT_BUDGET_SHARE);
+        }
+        if (monthlyBudget.signum() <= 0) {
+            return null;
+        }
+        BigDecimal weeklySpending = expenseRepository.sumBetween(userId, today.minusDays(6), today.plusDays(1));
+        int daysRemaining = Math.max(1, today.lengthOfMonth() - today.getDayOfMonth());
+        
+        SpendingAlertRequest request = new SpendingAlertRequest(weeklySpending.doubleValue(),
+                monthlyBudget.doubleValue(), daysRemaining);
+        return new SpendingAlertReport(request.weeklySpending(), request.monthlyBudget(),
+                daysRemaining, aiService.generateSpendingAlert(request));
+    }
+}
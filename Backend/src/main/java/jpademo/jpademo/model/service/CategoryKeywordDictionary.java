@@ -0,0 +1,123 @@
+package jpademo.jpademo.model.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The category keyword dictionary, loaded from {@code ai.keywords.location}.
+ * <p>
+ * Each load builds a complete {@link CategoryKeywordMatcher} and then swaps it
+ * in with a single reference write. Readers take {@link #current()} once per
+ * request and keep using that immutable snapshot, so they never wait on a
+ * reload or see a half-built one. A file that fails to parse leaves the
+ * previous snapshot in place; edit a copy and move it over the original so
+ * a reload never reads a half-saved file. The file's {@code !exact} line
+ * lists ordinary words never to be read as a typo of a keyword; it is part
+ * of the file because it depends on the keywords.
+ */
+@Component
+public class CategoryKeywordDictionary {
+
+    // Reserved line name for the words excluded from fuzzy matching
+    static final String EXACT_WORDS = "!exact";
+
+    /** A parsed dictionary file: keywords per category in file order, and the exact words. */
+    record Keywords(Map<String, List<String>> categories, Set<String> exactWords) {
+    }
+
+    private final Resource location;
+    private final AtomicReference<CategoryKeywordMatcher> matcher = new AtomicReference<>();
+    // Modification time of the loaded file; only touched by reloads, which are serialized
+    private volatile long loadedModified;
+
+    public CategoryKeywordDictionary(@Value("${ai.keywords.location:classpath:category-keywords.properties}") Resource location) {
+        this.location = location;
+        reload();
+    }
+
+    public CategoryKeywordMatcher current() {
+        return matcher.get();
+    }
+
+    /** Re-reads the dictionary when its file has changed since the last load. */
+    @Scheduled(fixedDelayString = "${ai.keywords.reload-interval:30000}")
+    public void reloadIfChanged() {
+        try {
+            if (lastModified() != loadedModified) {
+                reload();
+            }
+        } catch (RuntimeException e) {
+            System.err.println("=== Keeping category keywords, reload of " + location + " failed: " + e.getMessage() + " ===");
+        }
+    }
+
+    /** Loads and publishes the dictionary; throws and keeps the current one if the file is unreadable or invalid. */
+    public synchronized void reload() {
+        try {
+            // Read before parsing, so a write during the parse is picked up by the next check
+            long modified = lastModified();
+            Keywords keywords = parse(location);
+            matcher.set(new CategoryKeywordMatcher(keywords.categories(), keywords.exactWords()));
+            loadedModified = modified;
+            System.out.println("=== Loaded " + keywords.categories().size() + " keyword categories and "
+                    + keywords.exactWords().size() + " exact words from " + location + " ===");
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read category keywords from " + location, e);
+        }
+    }
+
+    private long lastModified() {
+        try {
+            return location.lastModified();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    // "Category = keyword, keyword" per line, in tie-break order, and "!exact = word, word"; '#' starts a comment line
+    static Keywords parse(Resource resource) throws IOException {
+        Map<String, List<String>> keywords = new LinkedHashMap<>();
+        Set<String> exactWords = new HashSet<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int separator = line.indexOf('=');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": expected 'Category = keyword, ...'");
+                }
+                String name = line.substring(0, separator).strip();
+                Collection<String> list = name.equals(EXACT_WORDS)
+                        ? exactWords
+                        : keywords.computeIfAbsent(name, c -> new ArrayList<>());
+                for (String keyword : line.substring(separator + 1).split(",")) {
+                    if (!keyword.isBlank()) {
+                        list.add(keyword.strip().toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+        }
+        return new Keywords(keywords, Set.copyOf(exactWords));
+    }
+}
@@ -0,0 +1,355 @@
+package jpademo.jpademo.model.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Aho-Corasick automaton over the category keyword lists.
+ * <p>
+ * Built once; {@link #score(String)} then counts, per category, how many
+ * distinct keywords occur as substrings of the text in a single pass,
+ * case-insensitively. This is the same result as calling
+ * {@code text.toLowerCase().contains(keyword)} for every keyword.
+ * {@link #weightedScore(String)} also counts words of the text that are a
+ * typo away from a keyword, at a lower weight. A typo keeps the first letter
+ * and only keywords of six or more letters are matched this way; the
+ * dictionary's exact words, ordinary words close to a keyword, never are.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class CategoryKeywordMatcher {
+
+    private final String[] categories;
+    private final int keywordCount;
+    // keyword id -> category index
+    private final int[] keywordCategory;
+
+    // char -> alphabet column; column 0 is every char that appears in no keyword
+    private final int[] asciiColumns = new int[128];
+    private final char[] otherChars;
+    private final int columns;
+
+    // Full DFA: transitions[state * columns + column] -> next state
+    private final int[] transitions;
+    // Keyword ids that end at each state (including via suffix links): outputs[outputStart[s] .. outputStart[s + 1])
+    private final int[] outputStart;
+    private final int[] outputs;
+
+    // Typo tolerance: words and keywords of FUZZY_MIN_LENGTH chars may be one edit apart,
+    // of FUZZY_LONG_LENGTH chars two. Shorter ones are too close to ordinary words.
+    static final int FUZZY_MIN_LENGTH = 5;
+    static final int FUZZY_LONG_LENGTH = 9;
+    // Five-letter keywords sit one edit from too many ordinary words (lunch/launch, train/brain, water/later)
+    static final int FUZZY_KEYWORD_MIN_LENGTH = 6;
+    // Weight of a hit by edit distance; an exact hit weighs 1
+    static final double[] FUZZY_WEIGHTS = { 1.0, 0.7, 0.4 };
+
+    // Distinct keywords long enough for fuzzy matching; tree word id -> keyword ids
+    private final KeywordBkTree fuzzyIndex;
+    private final int[][] fuzzyKeywords;
+    // Ordinary words close to a keyword (convert/concert, packing/parking), always taken as written
+    private final Set<String> exactWords;
+
+    public CategoryKeywordMatcher(Map<String, List<String>> keywordsByCategory) {
+        this(keywordsByCategory, Set.of());
+    }
+
+    public CategoryKeywordMatcher(Map<String, List<String>> keywordsByCategory, Set<String> exactWords) {
+        this.exactWords = exactWords.stream().map(w -> w.toLowerCase(Locale.ROOT)).collect(Collectors.toUnmodifiableSet());
+        this.categories = keywordsByCategory.keySet().toArray(new String[0]);
+
+        List<String> keywords = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        for (int c = 0; c < categories.length; c++) {
+            for (String keyword : keywordsByCategory.get(categories[c])) {
+                // Blank keywords would match everything; they are ignored
+                if (keyword != null && !keyword.isBlank()) {
+                    keywords.add(keyword.toLowerCase(Locale.ROOT));
+                    owners.add(c);
+                }
+            }
+        }
+        this.keywordCount = keywords.size();
+        this.keywordCategory = owners.stream().mapToInt(Integer::intValue).toArray();
+
+        // Alphabet: only the chars that occur in some keyword get their own column
+        StringBuilder other = new StringBuilder();
+        int nextColumn = 1;
+        for (String keyword : keywords) {
+            for (int i = 0; i < keyword.length(); i++) {
+                char ch = keyword.charAt(i);
+                if (ch < 128) {
+                    if (asciiColumns[ch] == 0) {
+                        asciiColumns[ch] = nextColumn++;
+                    }
+                } else if (other.indexOf(String.valueOf(ch)) < 0) {
+                    other.append(ch);
+                }
+            }
+        }
+        this.otherChars = other.toString().toCharArray();
+        Arrays.sort(otherChars);
+        this.columns = nextColumn + otherChars.length;
+
+        // 1. Trie
+        List<int[]> children = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        children.add(new int[columns]);
+        ends.add(new ArrayList<>());
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k);
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int column = column(keyword.charAt(i));
+                if (children.get(state)[column] == 0) {
+                    children.get(state)[column] = children.size();
+                    children.add(new int[columns]);
+                    ends.add(new ArrayList<>());
+                }
+                state = children.get(state)[column];
+            }
+            ends.get(state).add(k);
+        }
+
+        // 2. Suffix links in BFS order, folding them into a complete transition table
+        int states = children.size();
+        int[] fail = new int[states];
+        this.transitions = new int[states * columns];
+        List<List<Integer>> matches = new ArrayList<>(ends);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int column = 0; column < columns; column++) {
+            int child = children.get(0)[column];
+            transitions[column] = child;
+            if (child != 0) {
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            if (!matches.get(fail[state]).isEmpty()) {
+                List<Integer> merged = new ArrayList<>(matches.get(state));
+                merged.addAll(matches.get(fail[state]));
+                matches.set(state, merged);
+            }
+            for (int column = 0; column < columns; column++) {
+                int child = children.get(state)[column];
+                if (child != 0) {
+                    fail[child] = transitions[fail[state] * columns + column];
+                    transitions[state * columns + column] = child;
+                    queue.add(child);
+                } else {
+                    transitions[state * columns + column] = transitions[fail[state] * columns + column];
+                }
+            }
+        }
+
+        // 3. Flatten outputs
+        this.outputStart = new int[states + 1];
+        int total = 0;
+        for (int s = 0; s < states; s++) {
+            outputStart[s] = total;
+            total += matches.get(s).size();
+        }
+        outputStart[states] = total;
+        this.outputs = new int[total];
+        for (int s = 0; s < states; s++) {
+            List<Integer> ids = matches.get(s);
+            for (int i = 0; i < ids.size(); i++) {
+                outputs[outputStart[s] + i] = ids.get(i);
+            }
+        }
+
+        // 4. BK-tree of the fuzzy-matchable keywords; one entry per distinct spelling
+        Map<String, List<Integer>> spellings = new LinkedHashMap<>();
+        for (int k = 0; k < keywords.size(); k++) {
+            if (keywords.get(k).length() >= FUZZY_KEYWORD_MIN_LENGTH) {
+                spellings.computeIfAbsent(keywords.get(k), w -> new ArrayList<>()).add(k);
+            }
+        }
+        this.fuzzyIndex = new KeywordBkTree(new ArrayList<>(spellings.keySet()));
+        this.fuzzyKeywords = spellings.values().stream()
+                .map(ids -> ids.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+    }
+
+    /** Category names, in the order used by the score arrays. */
+    public List<String> categories() {
+        return List.of(categories);
+    }
+
+    public String category(int index) {
+        return categories[index];
+    }
+
+    /**
+     * Number of distinct keywords of each category found in the text,
+     * indexed like {@link #categories()}.
+     */
+    public int[] score(String text) {
+        return count(exactMatches(text));
+    }
+
+    private int[] count(long[] seen) {
+        int[] hits = new int[categories.length];
+        for (int word = 0; seen != null && word < seen.length; word++) {
+            for (long bits = seen[word]; bits != 0; bits &= bits - 1) {
+                hits[keywordCategory[(word << 6) + Long.numberOfTrailingZeros(bits)]]++;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Like {@link #score(String)}, plus keywords that a word of the text
+     * misspells: within one edit (two for long words), counting a swap of
+     * adjacent letters as one edit, with the first letter unchanged. The
+     * matcher's exact words are taken as written. Such a keyword adds
+     * {@code FUZZY_WEIGHTS[distance]} instead of 1, once, at its closest distance.
+     */
+    public double[] weightedScore(String text) {
+        long[] seen = exactMatches(text);
+        int[] exact = count(seen);
+        double[] weights = new double[categories.length];
+        for (int c = 0; c < exact.length; c++) {
+            weights[c] = exact[c];
+        }
+        if (text == null || fuzzyKeywords.length == 0) {
+            return weights;
+        }
+
+        // Closest distance per tree word, 0 = none yet
+        int[] closest = new int[fuzzyKeywords.length];
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char ch = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(ch)) {
+                word.append(Character.toLowerCase(ch));
+                continue;
+            }
+            if (word.length() >= FUZZY_MIN_LENGTH && !exactWords.contains(word.toString())) {
+                String query = word.toString();
+                int radius = maxDistance(query.length());
+                // A swap costs 2 under the tree's metric, so search twice as wide and re-check
+                fuzzyIndex.search(query, 2 * radius, id -> {
+                    String keyword = fuzzyIndex.word(id);
+                    if (keyword.charAt(0) != query.charAt(0)) {
+                        return;
+                    }
+                    int distance = osaDistance(query, keyword);
+                    if (distance > 0 && distance <= maxDistance(Math.min(query.length(), keyword.length()))
+                            && (closest[id] == 0 || distance < closest[id])) {
+                        closest[id] = distance;
+                    }
+                });
+            }
+            word.setLength(0);
+        }
+
+        for (int id = 0; id < closest.length; id++) {
+            if (closest[id] == 0) {
+                continue;
+            }
+            for (int keyword : fuzzyKeywords[id]) {
+                if (seen == null || (seen[keyword >>> 6] & (1L << keyword)) == 0) {
+                    weights[keywordCategory[keyword]] += FUZZY_WEIGHTS[closest[id]];
+                }
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Indices of the categories with a positive score, highest first,
+     * at most {@code limit} of them. Ties keep category order.
+     */
+    public static int[] top(int[] scores, int limit) {
+        double[] asDoubles = new double[scores.length];
+        for (int c = 0; c < scores.length; c++) {
+            asDoubles[c] = scores[c];
+        }
+        return top(asDoubles, limit);
+    }
+
+    // Same, for weightedScore results
+    public static int[] top(double[] scores, int limit) {
+        int[] picked = new int[Math.min(limit, scores.length)];
+        int count = 0;
+        boolean[] used = new boolean[scores.length];
+        while (count < picked.length) {
+            int best = -1;
+            for (int c = 0; c < scores.length; c++) {
+                if (!used[c] && scores[c] > 0 && (best < 0 || scores[c] > scores[best])) {
+                    best = c;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            used[best] = true;
+            picked[count++] = best;
+        }
+        return count == picked.length ? picked : Arrays.copyOf(picked, count);
+    }
+
+    /**
+     * Optimal string alignment distance: insertions, deletions, substitutions
+     * and swaps of adjacent characters each cost one edit.
+     */
+    static int osaDistance(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(d[i - 1][j - 1] + cost, Math.min(d[i - 1][j], d[i][j - 1]) + 1);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    private static int maxDistance(int length) {
+        return length >= FUZZY_LONG_LENGTH ? 2 : length >= FUZZY_MIN_LENGTH ? 1 : 0;
+    }
+
+    // Bitset of the keyword ids occurring in the text, or null when none do
+    private long[] exactMatches(String text) {
+        if (text == null || keywordCount == 0) {
+            return null;
+        }
+        long[] seen = null;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = transitions[state * columns + column(Character.toLowerCase(text.charAt(i)))];
+            for (int o = outputStart[state], end = outputStart[state + 1]; o < end; o++) {
+                int keyword = outputs[o];
+                if (seen == null) {
+                    seen = new long[(keywordCount + 63) >>> 6];
+                }
+                seen[keyword >>> 6] |= 1L << keyword;
+            }
+        }
+        return seen;
+    }
+
+    private int column(char ch) {
+        if (ch < 128) {
+            return asciiColumns[ch];
+        }
+        int index = Arrays.binarySearch(otherChars, ch);
+        return index < 0 ? 0 : columns - otherChars.length + index;
+    }
+}
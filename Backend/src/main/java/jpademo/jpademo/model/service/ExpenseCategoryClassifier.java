@@ -0,0 +1,100 @@
+package jpademo.jpademo.model.service;
+
+import jpademo.jpademo.model.dto.CategoryPrediction;
+import jpademo.jpademo.model.repository.ExpenseRepository;
+import jpademo.jpademo.util.AfterCommit;
+import jpademo.jpademo.util.LoadGuard;
+import jpademo.jpademo.util.LruCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user category classifier learned from the user's own expenses.
+ * <p>
+ * A model is trained from the user's history the first time it is needed
+ * and then kept current by the expense write paths. Idle users are
+ * evicted and simply retrained on their next request.
+ */
+@Service
+public class ExpenseCategoryClassifier {
+
+    // Below this many labelled expenses the keyword rules alone are used
+    private static final int MIN_DOCUMENTS = 5;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    private final LruCache<Long, NaiveBayesCategoryModel> models;
+    private final LoadGuard<Long> loads = new LoadGuard<>();
+
+    public ExpenseCategoryClassifier(@Value("${ai.classifier.max-users:1000}") int maxUsers) {
+        this.models = new LruCache<>(maxUsers);
+    }
+
+    /**
+     * Ranked categories for the description, or an empty list when the user
+     * has too little history or none of the description's words are known.
+     */
+    public List<CategoryPrediction> predict(Long userId, String description, Map<String, Double> keywordHits, int limit) {
+        NaiveBayesCategoryModel model = modelFor(userId);
+        if (model.documents() < MIN_DOCUMENTS) {
+            return List.of();
+        }
+        return model.predict(description, keywordHits, limit);
+    }
+
+    // Counts a saved expense once its transaction commits; users without a loaded model are skipped
+    public void learn(Long userId, String description, String category) {
+        AfterCommit.run(() -> {
+            loads.changed(userId);
+            NaiveBayesCategoryModel model = models.get(userId);
+            if (model != null) {
+                model.learn(description, category);
+            }
+        });
+    }
+
+    public void forget(Long userId, String description, String category) {
+        AfterCommit.run(() -> {
+            loads.changed(userId);
+            NaiveBayesCategoryModel model = models.get(userId);
+            if (model != null) {
+                model.forget(description, category);
+            }
+        });
+    }
+
+    // Drops the user's model so it is retrained from the database, e.g. after a bulk import
+    public void evict(Long userId) {
+        loads.changed(userId);
+        models.remove(userId);
+    }
+
+    private NaiveBayesCategoryModel modelFor(Long userId) {
+        NaiveBayesCategoryModel model = models.get(userId);
+        if (model != null) {
+            return model;
+        }
+        // Trained outside the cache lock; a concurrent load for the same user keeps the first result
+        LoadGuard.Load load = loads.start(userId);
+        model = new NaiveBayesCategoryModel();
+        try {
+            for (Object[] row : expenseRepository.findDescriptionAndCategoryByUserId(userId)) {
+                model.learn((String) row[0], (String) row[1]);
+            }
+        } catch (RuntimeException e) {
+            loads.finish(userId, load);
+            throw e;
+        }
+        NaiveBayesCategoryModel cached = models.putIfAbsent(userId, model);
+        // An expense committed during training may be missing from it; serve it this once and retrain next time
+        if (!loads.finish(userId, load)) {
+            models.remove(userId, cached);
+        }
+        return cached;
+    }
+}
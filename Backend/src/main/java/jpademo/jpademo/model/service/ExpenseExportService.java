@@ -0,0 +1,101 @@
+package jpademo.jpademo.model.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jpademo.jpademo.model.Expense;
+import jpademo.jpademo.model.repository.ExpenseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams a user's full expense history as CSV or NDJSON. Rows are read
+ * through a database cursor in a read-only transaction and detached as soon
+ * as they are written, so heap use does not depend on the export size.
+ */
+@Service
+public class ExpenseExportService {
+
+    private static final int FLUSH_EVERY = 1000;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExpenseExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public StreamingResponseBody export(Long userId, boolean ndjson) {
+        return out -> readOnlyTransaction.executeWithoutResult(status -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            try (Stream<Expense> expenses = expenseRepository.streamByUserId(userId)) {
+                if (!ndjson) {
+                    writer.write("id,date,amount,category,description\n");
+                }
+                int written = 0;
+                Iterator<Expense> iterator = expenses.iterator();
+                while (iterator.hasNext()) {
+                    Expense expense = iterator.next();
+                    if (ndjson) {
+                        writer.write(objectMapper.writeValueAsString(expense));
+                        writer.write('\n');
+                    } else {
+                        writeCsvRow(writer, expense);
+                    }
+                    entityManager.detach(expense);
+                    if (++written % FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeCsvRow(Writer writer, Expense expense) throws IOException {
+        writer.write(String.valueOf(expense.getId()));
+        writer.write(',');
+        writer.write(expense.getExpenseDate().toString());
+        writer.write(',');
+        writer.write(expense.getAmount().toPlainString());
+        writer.write(',');
+        writer.write(csvField(expense.getCategory()));
+        writer.write(',');
+        writer.write(csvField(expense.getDescription()));
+        writer.write('\n');
+    }
+
+    // Quotes a field when it contains a separator, quote or line break
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,270 @@
+package jpademo.jpademo.model.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpademo.jpademo.model.Expense;
+import jpademo.jpademo.model.dto.CategoryTotal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams expenses from a CSV or NDJSON body and writes them in JDBC batches.
+ * Each batch commits in its own transaction together with its rollup and
+ * ledger deltas, so memory use is bounded by the batch size. A batch the
+ * database rejects is written again row by row, so only the offending rows
+ * are reported and the rest of the import carries on.
+ */
+@Service
+public class ExpenseImportService {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO expenses (user_id, amount, category, description, expense_date, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private ExpenseCategoryClassifier categoryClassifier;
+
+    @Autowired
+    private SpendingAnomalyDetector anomalyDetector;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ExpenseImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Imports CSV with a header row naming the columns amount, category,
+     * description and date in any order. Quoted fields may contain commas
+     * and doubled quotes, but not line breaks.
+     */
+    public Map<String, Object> importCsv(Long userId, BufferedReader reader) throws IOException {
+        ImportRun run = new ImportRun(userId);
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return run.report();
+        }
+        List<String> header = parseCsvLine(headerLine);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        
+        String line;
+        int rowNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            rowNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = parseCsvLine(line);
+            Map<String, Object> row = new HashMap<>();
+            for (Map.Entry<String, Integer> column : columns.entrySet()) {
+                if (column.getValue() < fields.size()) {
+                    row.put(column.getKey(), fields.get(column.getValue()));
+                }
+            }
+            run.accept(rowNumber, row);
+        }
+        return run.finish();
+    }
+
+    /**
+     * Imports newline-delimited JSON objects using the same fields as POST /api/expenses.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> importNdjson(Long userId, BufferedReader reader) throws IOException {
+        ImportRun run = new ImportRun(userId);
+        String line;
+        int rowNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            rowNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            Map<String, Object> row;
+            try {
+                row = objectMapper.readValue(line, Map.class);
+            } catch (IOException e) {
+                run.reject(rowNumber, "Invalid JSON");
+                continue;
+            }
+            run.accept(rowNumber, row);
+        }
+        return run.finish();
+    }
+
+    private void writeBatch(Long userId, List<Expense> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, expense) -> {
+                ps.setLong(1, expense.getUserId());
+                ps.setBigDecimal(2, expense.getAmount());
+                ps.setString(3, expense.getCategory());
+                ps.setString(4, expense.getDescription());
+                ps.setDate(5, Date.valueOf(expense.getExpenseDate()));
+                ps.setTimestamp(6, Timestamp.valueOf(expense.getCreatedAt()));
+            });
+            
+            // One rollup upsert per (month, category) instead of one per row
+            Map<YearMonth, Map<String, BigDecimal>> amounts = new HashMap<>();
+            Map<YearMonth, Map<String, Long>> counts = new HashMap<>();
+            BigDecimal total = BigDecimal.ZERO;
+            for (Expense expense : batch) {
+                YearMonth month = YearMonth.from(expense.getExpenseDate());
+                amounts.computeIfAbsent(month, m -> new HashMap<>())
+                        .merge(expense.getCategory(), expense.getAmount(), BigDecimal::add);
+                counts.computeIfAbsent(month, m -> new HashMap<>())
+                        .merge(expense.getCategory(), 1L, Long::sum);
+                total = total.add(expense.getAmount());
+            }
+            Map<YearMonth, List<CategoryTotal>> totals = new HashMap<>();
+            amounts.forEach((month, byCategory) -> byCategory.forEach((category, amount) ->
+                    totals.computeIfAbsent(month, m -> new ArrayList<>())
+                            .add(new CategoryTotal(category, amount, counts.get(month).get(category)))));
+            rollupService.addExpenses(userId, totals);
+            // Seeds the user's ledger on the first batch only, when there is none yet
+            ledgerService.debit(userId, total);
+        });
+        // Rows bypassed the per-expense hooks; retrain from the database on next use
+        categoryClassifier.evict(userId);
+        anomalyDetector.evict(userId);
+    }
+
+    // Splits one CSV record into fields (RFC 4180 quoting, single line)
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // State of one import request: the pending batch and the error report
+    private class ImportRun {
+        private final Long userId;
+        private final List<Expense> batch = new ArrayList<>(BATCH_SIZE);
+        private final List<Integer> batchRows = new ArrayList<>(BATCH_SIZE);
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        ImportRun(Long userId) {
+            this.userId = userId;
+        }
+
+        void accept(int rowNumber, Map<String, Object> row) {
+            row.put("userId", userId);
+            try {
+                batch.add(expenseService.parseExpense(row));
+            } catch (IllegalArgumentException | ClassCastException e) {
+                reject(rowNumber, e instanceof ClassCastException ? "Invalid field type" : e.getMessage());
+                return;
+            }
+            batchRows.add(rowNumber);
+            if (batch.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void reject(int rowNumber, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("row", rowNumber);
+                error.put("error", message);
+                errors.add(error);
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                writeBatch(userId, batch);
+                imported += batch.size();
+            } catch (RuntimeException batchFailed) {
+                // The whole batch rolled back; find the rows the database refuses one at a time
+                for (int i = 0; i < batch.size(); i++) {
+                    try {
+                        writeBatch(userId, List.of(batch.get(i)));
+                        imported++;
+                    } catch (RuntimeException e) {
+                        reject(batchRows.get(i), "Not saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                    }
+                }
+            }
+            batch.clear();
+            batchRows.clear();
+        }
+
+        Map<String, Object> finish() {
+            flush();
+            return report();
+        }
+
+        Map<String, Object> report() {
+            Map<String, Object> report = new HashMap<>();
+            report.put("imported", imported);
+            report.put("failed", failed);
+            report.put("errors", errors);
+            report.put("errorsTruncated", failed > errors.size());
+            return report;
+        }
+    }
+}
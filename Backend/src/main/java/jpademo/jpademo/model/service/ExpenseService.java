@@ -0,0 +1,256 @@
+package jpademo.jpademo.model.service;
+
+import jpademo.jpademo.model.Expense;
+import jpademo.jpademo.model.repository.ExpenseRepository;
+import jpademo.jpademo.model.repository.ExpenseSpecifications;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Expense writes. Each write updates the monthly rollups and the balance
+ * ledger in the same transaction as the expense row.
+ */
+@Service
+public class ExpenseService {
+
+    // Column lengths of expenses.category and expenses.description
+    private static final int MAX_CATEGORY_LENGTH = 50;
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private ExpenseCategoryClassifier categoryClassifier;
+
+    @Autowired
+    private SpendingAnomalyDetector anomalyDetector;
+
+    /**
+     * Builds an expense from a request body, applying the validation rules
+     * shared by the single-create and bulk import endpoints.
+     *
+     * @throws IllegalArgumentException with a client-facing message when a field is missing or malformed
+     */
+    public Expense parseExpense(Map<String, Object> request) {
+        Expense expense = new Expense();
+        
+        // Set amount
+        Object amountObj = request.get("amount");
+        if (amountObj == null) {
+            throw new IllegalArgumentException("Amount is required");
+        }
+        BigDecimal amount;
+        if (amountObj instanceof Number) {
+            amount = new BigDecimal(amountObj.toString());
+        } else if (amountObj instanceof String) {
+            amount = new BigDecimal((String) amountObj);
+        } else {
+            throw new IllegalArgumentException("Invalid amount format");
+        }
+        expense.setAmount(amount);
+        
+        // Set category
+        String category = (String) request.get("category");
+        if (category == null || category.trim().isEmpty()) {
+            throw new IllegalArgumentException("Category is required");
+        }
+        if (category.length() > MAX_CATEGORY_LENGTH) {
+            throw new IllegalArgumentException("Category is longer than " + MAX_CATEGORY_LENGTH + " characters");
+        }
+        expense.setCategory(category);
+        
+        // Set description
+        String description = (String) request.get("description");
+        if (description != null && description.length() > MAX_DESCRIPTION_LENGTH) {
+            throw new IllegalArgumentException("Description is longer than " + MAX_DESCRIPTION_LENGTH + " characters");
+        }
+        expense.setDescription(description != null ? description : "");
+        
+        // Parse and set date
+        String dateStr = (String) request.get("date");
+        if (dateStr == null || dateStr.trim().isEmpty()) {
+            throw new IllegalArgumentException("Date is required");
+        }
+        try {
+            expense.setExpenseDate(LocalDate.parse(dateStr));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid date format. Expected YYYY-MM-DD, got: " + dateStr);
+        }
+        
+        // Set user ID
+        Object userIdObj = request.get("userId");
+        if (userIdObj == null) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+        expense.setUserId(Long.parseLong(userIdObj.toString()));
+        
+        // Set created timestamp
+        expense.setCreatedAt(LocalDateTime.now());
+        return expense;
+    }
+
+    // Sort keys accepted by search, mapped to entity properties
+    private static final Map<String, String> SORTABLE_FIELDS = Map.of(
+            "date", "expenseDate",
+            "amount", "amount",
+            "category", "category");
+
+    /**
+     * One slice of a user's expenses matching the optional filters.
+     * The date range is inclusive on both ends. Only size + 1 rows are read
+     * to detect a further page; no count query is issued.
+     *
+     * @throws IllegalArgumentException for an unknown sort key or an inverted range
+     */
+    @Transactional(readOnly = true)
+    public Slice<Expense> searchExpenses(Long userId, LocalDate from, LocalDate to, List<String> categories,
+                                         BigDecimal minAmount, BigDecimal maxAmount,
+                                         String sortBy, boolean ascending, int page, int size) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (minAmount != null && maxAmount != null && minAmount.compareTo(maxAmount) > 0) {
+            throw new IllegalArgumentException("'minAmount' must not be greater than 'maxAmount'");
+        }
+        String property = SORTABLE_FIELDS.get(sortBy != null ? sortBy : "date");
+        if (property == null) {
+            throw new IllegalArgumentException("Unsupported sort: " + sortBy + ". Expected one of " + SORTABLE_FIELDS.keySet());
+        }
+        
+        Specification<Expense> spec = ExpenseSpecifications.forUser(userId);
+        if (from != null) {
+            spec = spec.and(ExpenseSpecifications.onOrAfter(from));
+        }
+        if (to != null) {
+            spec = spec.and(ExpenseSpecifications.before(to.plusDays(1)));
+        }
+        if (categories != null && !categories.isEmpty()) {
+            spec = spec.and(ExpenseSpecifications.inCategories(categories));
+        }
+        if (minAmount != null) {
+            spec = spec.and(ExpenseSpecifications.amountAtLeast(minAmount));
+        }
+        if (maxAmount != null) {
+            spec = spec.and(ExpenseSpecifications.amountAtMost(maxAmount));
+        }
+        
+        // id breaks ties so offsets stay stable between pages
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, property).and(Sort.by(direction, "id"));
+        PageRequest pageable = PageRequest.of(page, size, sort);
+        return expenseRepository.findBy(spec, query -> query.slice(pageable));
+    }
+
+    @Transactional
+    public Expense createExpense(Expense expense) {
+        Expense saved = expenseRepository.save(expense);
+        rollupService.addExpense(saved.getUserId(), saved.getExpenseDate(), saved.getCategory(), saved.getAmount());
+        ledgerService.debit(saved.getUserId(), saved.getAmount());
+        categoryClassifier.learn(saved.getUserId(), saved.getDescription(), saved.getCategory());
+        anomalyDetector.observe(saved);
+        return saved;
+    }
+
+    /**
+     * Applies the fields present in the request to an existing expense.
+     * The old amount/category/date are moved out of their rollup bucket
+     * and the new ones added, so the rollups see the exact delta.
+     */
+    @Transactional
+    public Optional<Expense> updateExpense(Long id, Map<String, Object> request) {
+        return expenseRepository.findById(id).map(expense -> {
+            Long oldUserId = expense.getUserId();
+            LocalDate oldDate = expense.getExpenseDate();
+            String oldCategory = expense.getCategory();
+            BigDecimal oldAmount = expense.getAmount();
+            String oldDescription = expense.getDescription();
+            
+            // Update amount
+            if (request.containsKey("amount")) {
+                Object amountObj = request.get("amount");
+                BigDecimal amount = new BigDecimal(amountObj.toString());
+                expense.setAmount(amount);
+            }
+            
+            // Update category
+            if (request.containsKey("category")) {
+                expense.setCategory((String) request.get("category"));
+            }
+            
+            // Update description
+            if (request.containsKey("description")) {
+                String desc = (String) request.get("description");
+                expense.setDescription(desc != null ? desc : "");
+            }
+            
+            // Update date
+            if (request.containsKey("date")) {
+                String dateStr = (String) request.get("date");
+                LocalDate expenseDate = LocalDate.parse(dateStr);
+                expense.setExpenseDate(expenseDate);
+            }
+            
+            Expense updated = expenseRepository.save(expense);
+            
+            boolean bucketChanged = !oldDate.equals(updated.getExpenseDate())
+                    || !oldCategory.equals(updated.getCategory())
+                    || oldAmount.compareTo(updated.getAmount()) != 0;
+            if (!oldCategory.equals(updated.getCategory()) || oldAmount.compareTo(updated.getAmount()) != 0) {
+                // The verdict was about the old amount in the old category
+                anomalyDetector.discard(updated.getId());
+            }
+            if (bucketChanged) {
+                // Running averages can't un-see a value; rebuild them on next use
+                anomalyDetector.evict(oldUserId);
+                rollupService.subtractExpense(oldUserId, oldDate, oldCategory, oldAmount);
+                rollupService.addExpense(updated.getUserId(), updated.getExpenseDate(),
+                        updated.getCategory(), updated.getAmount());
+            }
+            if (oldAmount.compareTo(updated.getAmount()) != 0) {
+                ledgerService.debit(updated.getUserId(), updated.getAmount().subtract(oldAmount));
+            }
+            if (!oldCategory.equals(updated.getCategory())
+                    || !Objects.equals(oldDescription, updated.getDescription())) {
+                categoryClassifier.forget(oldUserId, oldDescription, oldCategory);
+                categoryClassifier.learn(updated.getUserId(), updated.getDescription(), updated.getCategory());
+            }
+            return updated;
+        });
+    }
+
+    @Transactional
+    public boolean deleteExpense(Long id) {
+        Optional<Expense> existing = expenseRepository.findById(id);
+        if (existing.isEmpty()) {
+            return false;
+        }
+        Expense expense = existing.get();
+        expenseRepository.delete(expense);
+        rollupService.subtractExpense(expense.getUserId(), expense.getExpenseDate(),
+                expense.getCategory(), expense.getAmount());
+        ledgerService.credit(expense.getUserId(), expense.getAmount());
+        categoryClassifier.forget(expense.getUserId(), expense.getDescription(), expense.getCategory());
+        anomalyDetector.evict(expense.getUserId());
+        return true;
+    }
+}
@@ -0,0 +1,244 @@
+package jpademo.jpademo.model.service;
+
+import jakarta.annotation.PreDestroy;
+import jpademo.jpademo.model.dto.CategoryForecast;
+import jpademo.jpademo.model.dto.DailyCategoryTotal;
+import jpademo.jpademo.model.dto.SpendingForecast;
+import jpademo.jpademo.model.event.FinanceDataChangedEvent;
+import jpademo.jpademo.model.repository.ExpenseRepository;
+import jpademo.jpademo.model.repository.MonthlyRollupRepository;
+import jpademo.jpademo.util.LruCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Month-end spending projections per category from daily Holt-Winters models.
+ * <p>
+ * Models are fed aggregated daily totals, never raw rows. A user's state is
+ * cached and advanced by the days that completed since it was last used, so
+ * a steady user costs one small query per day. Writes dated before the last
+ * fitted day drop the state; writes for today only drop the cached result.
+ */
+@Service
+public class ForecastService {
+
+    // Days of history a fresh state is fitted from
+    private static final int HISTORY_DAYS = 56;
+    // Two-sided 90% interval
+    private static final double Z_90 = 1.645;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private MonthlyRollupRepository rollupRepository;
+
+    private final LruCache<Long, UserForecast> states;
+    private final ForkJoinPool precomputePool;
+
+    // Everything known about one user's daily series; guarded by its own monitor
+    private static final class UserForecast {
+        // Last day fed into the models; null until the first fit
+        private LocalDate fittedThrough;
+        private final Map<String, HoltWintersModel> models = new TreeMap<>();
+        // Spend per category in monthToDateMonth, through fittedThrough
+        private YearMonth monthToDateMonth;
+        private final Map<String, Double> monthToDate = new HashMap<>();
+        private SpendingForecast result;
+        private LocalDate resultDay;
+    }
+
+    public ForecastService(@Value("${forecast.max-users:5000}") int maxUsers,
+                           @Value("${forecast.precompute.parallelism:0}") int parallelism) {
+        this.states = new LruCache<>(maxUsers);
+        this.precomputePool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdownPrecomputePool() {
+        precomputePool.shutdown();
+    }
+
+    /**
+     * Spent-to-date, projected month-end total and a 90% interval for every
+     * category, plus the overall total.
+     */
+    public SpendingForecast getForecast(Long userId) {
+        LocalDate today = LocalDate.now();
+        UserForecast state = states.get(userId);
+        if (state == null) {
+            state = states.putIfAbsent(userId, new UserForecast());
+        }
+        synchronized (state) {
+            if (state.result != null && today.equals(state.resultDay)) {
+                return state.result;
+            }
+            advance(state, userId, today.minusDays(1));
+            List<DailyCategoryTotal> todays = expenseRepository.sumByDayAndCategory(userId, today, today.plusDays(1));
+            state.result = project(state, today, todays);
+            state.resultDay = today;
+            return state.result;
+        }
+    }
+
+    /**
+     * Refreshes forecasts of users with expenses this or last month on a
+     * bounded pool, so the first request of the day is already warm.
+     */
+    @Scheduled(cron = "${forecast.precompute.cron:0 15 4 * * *}")
+    public int precomputeActiveUsers() {
+        String since = YearMonth.now().minusMonths(1).toString();
+        List<Long> users = rollupRepository.findUsersWithExpensesSince(since);
+        if (users.size() > states.maxEntries()) {
+            users = users.subList(0, states.maxEntries());
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>(users.size());
+        for (Long userId : users) {
+            tasks.add(() -> {
+                try {
+                    getForecast(userId);
+                } catch (Exception e) {
+                    System.err.println("=== Forecast precompute failed for user " + userId + ": " + e.getMessage() + " ===");
+                }
+                return null;
+            });
+        }
+        precomputePool.invokeAll(tasks);
+        System.out.println("=== Precomputed forecasts for " + users.size() + " users ===");
+        return users.size();
+    }
+
+    // Runs after commit, or immediately when published outside a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFinanceDataChanged(FinanceDataChangedEvent event) {
+        if (event.userId() == null) {
+            states.clear();
+            return;
+        }
+        UserForecast state = states.get(event.userId());
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            LocalDate date = event.earliestAffectedDate();
+            if (date == null || state.fittedThrough == null || !date.isAfter(state.fittedThrough)) {
+                // Already-fitted history changed; refit from scratch on next use
+                states.remove(event.userId());
+            }
+            state.result = null;
+        }
+    }
+
+    // Feeds every completed day after fittedThrough, up to and including lastDay
+    private void advance(UserForecast state, Long userId, LocalDate lastDay) {
+        LocalDate earliest = lastDay.minusDays(HISTORY_DAYS - 1);
+        if (state.fittedThrough == null || state.fittedThrough.isBefore(earliest.minusDays(1))) {
+            // First use, or idle for longer than the history window
+            state.models.clear();
+            state.monthToDate.clear();
+            state.monthToDateMonth = null;
+            state.fittedThrough = earliest.minusDays(1);
+        }
+        LocalDate from = state.fittedThrough.plusDays(1);
+        if (from.isAfter(lastDay)) {
+            return;
+        }
+
+        Map<LocalDate, Map<String, Double>> byDay = new HashMap<>();
+        for (DailyCategoryTotal total : expenseRepository.sumByDayAndCategory(userId, from, lastDay.plusDays(1))) {
+            byDay.computeIfAbsent(total.day(), d -> new HashMap<>())
+                    .merge(total.category(), total.total().doubleValue(), Double::sum);
+        }
+
+        for (LocalDate day = from; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            Map<String, Double> totals = byDay.getOrDefault(day, Map.of());
+            // A category's series starts on its first expense; every model then sees every day
+            for (String category : totals.keySet()) {
+                state.models.computeIfAbsent(category, c -> new HoltWintersModel());
+            }
+            for (Map.Entry<String, HoltWintersModel> entry : state.models.entrySet()) {
+                entry.getValue().observe(totals.getOrDefault(entry.getKey(), 0.0));
+            }
+
+            YearMonth month = YearMonth.from(day);
+            if (!month.equals(state.monthToDateMonth)) {
+                state.monthToDateMonth = month;
+                state.monthToDate.clear();
+            }
+            totals.forEach((category, amount) -> state.monthToDate.merge(category, amount, Double::sum));
+        }
+        state.fittedThrough = lastDay;
+    }
+
+    private SpendingForecast project(UserForecast state, LocalDate today, List<DailyCategoryTotal> todays) {
+        YearMonth month = YearMonth.from(today);
+        int daysLeft = today.lengthOfMonth() - today.getDayOfMonth() + 1;
+
+        Map<String, Double> todayActual = new HashMap<>();
+        for (DailyCategoryTotal total : todays) {
+            todayActual.merge(total.category(), total.total().doubleValue(), Double::sum);
+        }
+        Map<String, Double> spentBefore = month.equals(state.monthToDateMonth) ? state.monthToDate : Map.of();
+
+        TreeMap<String, double[]> rows = new TreeMap<>();
+        for (Map.Entry<String, HoltWintersModel> entry : state.models.entrySet()) {
+            String category = entry.getKey();
+            HoltWintersModel model = entry.getValue();
+            double spent = spentBefore.getOrDefault(category, 0.0);
+            double actualToday = todayActual.getOrDefault(category, 0.0);
+
+            // Today is partly observed: count at least what was already spent
+            double remaining = Math.max(actualToday, model.forecast(1));
+            for (int h = 2; h <= daysLeft; h++) {
+                remaining += model.forecast(h);
+            }
+            // Daily errors treated as independent: the sum's spread grows with sqrt(days)
+            double margin = Z_90 * model.residualStdDev() * Math.sqrt(daysLeft);
+            rows.put(category, new double[] { spent + actualToday, spent + remaining, margin });
+        }
+        // Categories with spend today but no history yet
+        todayActual.forEach((category, amount) -> rows.putIfAbsent(category,
+                new double[] { spentBefore.getOrDefault(category, 0.0) + amount,
+                               spentBefore.getOrDefault(category, 0.0) + amount, 0 }));
+
+        List<CategoryForecast> categories = new ArrayList<>();
+        double totalSpent = 0;
+        double totalProjected = 0;
+        double totalVariance = 0;
+        for (Map.Entry<String, double[]> row : rows.entrySet()) {
+            double[] values = row.getValue();
+            categories.add(projection(row.getKey(), values[0], values[1], values[2]));
+            totalSpent += values[0];
+            totalProjected += values[1];
+            totalVariance += values[2] * values[2];
+        }
+
+        return new SpendingForecast(month.toString(), today.toString(), daysLeft, List.copyOf(categories),
+                projection(null, totalSpent, totalProjected, Math.sqrt(totalVariance)));
+    }
+
+    private static CategoryForecast projection(String category, double spent, double projected, double margin) {
+        return new CategoryForecast(category, round(spent), round(projected),
+                round(Math.max(spent, projected - margin)), round(projected + margin));
+    }
+
+    private static double round(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+}
@@ -0,0 +1,48 @@
+package jpademo.jpademo.model.service;
+
+import jpademo.jpademo.forum.model.ForumComment;
+import jpademo.jpademo.model.repository.ForumCommentRepository;
+import jpademo.jpademo.model.repository.ForumPostRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only comment writes: a new comment is one row insert plus an
+ * increment of the post's comment count, whatever the thread length.
+ */
+@Service
+public class ForumCommentService {
+
+    @Autowired
+    private ForumPostRepository postRepository;
+
+    @Autowired
+    private ForumCommentRepository commentRepository;
+
+    @Autowired
+    private ForumSearchService searchService;
+
+    @Autowired
+    private ForumHotService hotService;
+
+    @Transactional
+    public ForumComment addComment(String postId, String authorName, String authorId, String text) {
+        // The increment doubles as the existence check and holds the post row until commit
+        if (postRepository.incrementCommentCount(postId) == 0) {
+            throw new RuntimeException("Post not found with id: " + postId);
+        }
+        ForumComment comment = new ForumComment();
+        comment.setPost(postRepository.getReferenceById(postId));
+        comment.setAuthorName(authorName);
+        comment.setAuthorId(authorId);
+        comment.setText(text);
+        comment.setTimestamp(LocalDateTime.now());
+        ForumComment saved = commentRepository.save(comment);
+        searchService.indexComment(postId, text);
+        hotService.comment(postId);
+        return saved;
+    }
+}
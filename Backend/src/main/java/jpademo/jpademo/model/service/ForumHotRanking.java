@@ -0,0 +1,149 @@
+package jpademo.jpademo.model.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Forum posts ordered by how hot they are, kept up to date one event at a time.
+ * <p>
+ * The score is Reddit's: the log of a post's net engagement plus its creation
+ * time divided by {@link #DECAY_SECONDS}, so ten times the engagement is worth
+ * as much as being that much newer. Because age only enters through the
+ * creation time, a post's score changes only when a reaction or comment
+ * arrives, never with the clock; each event re-files one post in a skip list
+ * and serving a page walks its head instead of sorting every post. Posts
+ * older than the activity window are pruned, which keeps the list bounded.
+ */
+public class ForumHotRanking {
+
+    // A post this many seconds newer outranks one with ten times its engagement
+    static final double DECAY_SECONDS = 45_000;
+    // A comment shows more interest than a like
+    static final int COMMENT_WEIGHT = 2;
+    private static final long EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+    /** A post's place in the ranking. */
+    public record Entry(String postId, double score) {
+    }
+
+    // Hottest first; the id breaks ties so every post has its own place
+    static final Comparator<Entry> ORDER = Comparator.comparingDouble(Entry::score).reversed()
+            .thenComparing(Entry::postId);
+
+    private static final class Counts {
+        final LocalDateTime created;
+        int likes;
+        int dislikes;
+        int comments;
+        Entry entry;
+
+        Counts(LocalDateTime created) {
+            this.created = created;
+        }
+    }
+
+    // Counts are only touched inside the map's per-post compute, which also keeps each re-file atomic
+    private final Map<String, Counts> posts = new ConcurrentHashMap<>();
+    private final NavigableSet<Entry> ranking = new ConcurrentSkipListSet<>(ORDER);
+
+    /** Starts ranking a post, or replaces what was known about it. */
+    public void track(String postId, LocalDateTime created, int likes, int dislikes, int comments) {
+        posts.compute(postId, (id, old) -> {
+            if (old != null) {
+                ranking.remove(old.entry);
+            }
+            Counts counts = new Counts(created);
+            counts.likes = likes;
+            counts.dislikes = dislikes;
+            counts.comments = comments;
+            return refile(id, counts);
+        });
+    }
+
+    /** Applies reaction changes; posts outside the ranking are ignored. */
+    public void react(String postId, int likes, int dislikes) {
+        posts.computeIfPresent(postId, (id, counts) -> {
+            ranking.remove(counts.entry);
+            counts.likes += likes;
+            counts.dislikes += dislikes;
+            return refile(id, counts);
+        });
+    }
+
+    public void comment(String postId) {
+        posts.computeIfPresent(postId, (id, counts) -> {
+            ranking.remove(counts.entry);
+            counts.comments++;
+            return refile(id, counts);
+        });
+    }
+
+    public void remove(String postId) {
+        posts.computeIfPresent(postId, (id, counts) -> {
+            ranking.remove(counts.entry);
+            return null;
+        });
+    }
+
+    /** Drops the posts created before the cutoff and returns how many there were. */
+    public int pruneBefore(LocalDateTime cutoff) {
+        int[] pruned = {0};
+        for (String postId : posts.keySet()) {
+            posts.computeIfPresent(postId, (id, counts) -> {
+                if (!counts.created.isBefore(cutoff)) {
+                    return counts;
+                }
+                ranking.remove(counts.entry);
+                pruned[0]++;
+                return null;
+            });
+        }
+        return pruned[0];
+    }
+
+    /**
+     * Up to {@code limit} entries, hottest first, starting after {@code after}
+     * or at the top when it is null.
+     */
+    public List<Entry> page(Entry after, int limit) {
+        NavigableSet<Entry> from = after == null ? ranking : ranking.tailSet(after, false);
+        List<Entry> page = new ArrayList<>(limit);
+        // The walk is weakly consistent: a post re-filed further down while it runs can come up twice
+        Set<String> seen = new HashSet<>();
+        for (Entry entry : from) {
+            if (page.size() == limit) {
+                break;
+            }
+            if (seen.add(entry.postId())) {
+                page.add(entry);
+            }
+        }
+        return page;
+    }
+
+    public int size() {
+        return posts.size();
+    }
+
+    static double score(LocalDateTime created, int likes, int dislikes, int comments) {
+        long net = (long) likes - dislikes + (long) COMMENT_WEIGHT * comments;
+        double engagement = Math.signum(net) * Math.log10(Math.max(Math.abs(net), 1));
+        double seconds = created.toEpochSecond(ZoneOffset.UTC) - EPOCH + created.getNano() / 1e9;
+        return engagement + seconds / DECAY_SECONDS;
+    }
+
+    private Counts refile(String postId, Counts counts) {
+        counts.entry = new Entry(postId, score(counts.created, counts.likes, counts.dislikes, counts.comments));
+        ranking.add(counts.entry);
+        return counts;
+    }
+}
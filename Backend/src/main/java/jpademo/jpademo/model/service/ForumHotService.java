@@ -0,0 +1,81 @@
+package jpademo.jpademo.model.service;
+
+import jpademo.jpademo.forum.model.ReactionType;
+import jpademo.jpademo.model.repository.ForumPostRepository;
+import jpademo.jpademo.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps the {@link ForumHotRanking} in step with the forum.
+ * <p>
+ * The ranking is loaded once on startup from the posts of the last
+ * {@code forum.hot.window-days}; afterwards every committed post, reaction,
+ * comment and delete re-files just the post it touched. Posts that age out
+ * of the window are pruned every {@code forum.hot.prune-interval}.
+ */
+@Service
+public class ForumHotService {
+
+    @Autowired
+    private ForumPostRepository postRepository;
+
+    private final Duration window;
+    private final ForumHotRanking ranking = new ForumHotRanking();
+
+    public ForumHotService(@Value("${forum.hot.window-days:7}") int windowDays) {
+        this.window = Duration.ofDays(windowDays);
+    }
+
+    public List<ForumHotRanking.Entry> page(ForumHotRanking.Entry after, int limit) {
+        return ranking.page(after, limit);
+    }
+
+    public void track(String postId, LocalDateTime created) {
+        AfterCommit.run(() -> ranking.track(postId, created, 0, 0, 0));
+    }
+
+    // Called from the reaction's own after-commit hook
+    void react(String postId, ReactionType type, int delta) {
+        if (type == ReactionType.LIKE) {
+            ranking.react(postId, delta, 0);
+        } else {
+            ranking.react(postId, 0, delta);
+        }
+    }
+
+    public void comment(String postId) {
+        AfterCommit.run(() -> ranking.comment(postId));
+    }
+
+    public void remove(String postId) {
+        AfterCommit.run(() -> ranking.remove(postId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        for (Object[] row : postRepository.findRankingCountsSince(LocalDateTime.now().minus(window))) {
+            ranking.track((String) row[0], (LocalDateTime) row[1],
+                    ((Number) row[2]).intValue(), ((Number) row[3]).intValue(), ((Number) row[4]).intValue());
+        }
+        System.out.println("=== Forum hot ranking loaded with " + ranking.size() + " posts in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms ===");
+    }
+
+    @Scheduled(fixedDelayString = "${forum.hot.prune-interval:3600000}")
+    public void prune() {
+        int pruned = ranking.pruneBefore(LocalDateTime.now().minus(window));
+        if (pruned > 0) {
+            System.out.println("=== Forum hot ranking pruned " + pruned + " posts older than " + window.toDays() + " days ===");
+        }
+    }
+}
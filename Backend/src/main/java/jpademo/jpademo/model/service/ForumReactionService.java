@@ -0,0 +1,147 @@
+package jpademo.jpademo.model.service;
+
+import jakarta.annotation.PreDestroy;
+import jpademo.jpademo.forum.model.ReactionType;
+import jpademo.jpademo.model.dto.ForumPostSummary;
+import jpademo.jpademo.model.repository.ForumPostRepository;
+import jpademo.jpademo.model.repository.ForumReactionRepository;
+import jpademo.jpademo.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Likes and dislikes of forum posts.
+ * <p>
+ * A reaction is one row keyed by (post, user), so a toggle changes a single
+ * row and concurrent reactions to the same post do not contend. The post's
+ * like and dislike totals are not written per reaction: committed changes
+ * merge into a per-post in-memory delta that {@link #flush()} takes out of
+ * the map and applies as one atomic increment per post. Reads add the
+ * unflushed part back in.
+ */
+@Service
+public class ForumReactionService {
+
+    // Attempts before giving up on a (post, user) row that keeps changing underneath
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private ForumPostRepository postRepository;
+
+    @Autowired
+    private ForumReactionRepository reactionRepository;
+
+    @Autowired
+    private ForumHotService hotService;
+
+    // Unflushed changes per post; an entry is gone once flushed or once its changes cancel out
+    private final Map<String, PendingCounts> pending = new ConcurrentHashMap<>();
+
+    private record PendingCounts(int likes, int dislikes) {
+
+        static PendingCounts of(ReactionType type, int delta) {
+            return type == ReactionType.LIKE ? new PendingCounts(delta, 0) : new PendingCounts(0, delta);
+        }
+
+        // Null when the sum is zero, which makes merge drop the entry
+        static PendingCounts sum(PendingCounts a, PendingCounts b) {
+            int likes = a.likes + b.likes;
+            int dislikes = a.dislikes + b.dislikes;
+            return likes == 0 && dislikes == 0 ? null : new PendingCounts(likes, dislikes);
+        }
+    }
+
+    /**
+     * Toggles the user's reaction: the same reaction again removes it, the
+     * opposite one replaces it.
+     */
+    @Transactional
+    public void react(String postId, String userId, ReactionType type) {
+        if (!postRepository.existsById(postId)) {
+            throw new RuntimeException("Post not found with id: " + postId);
+        }
+        String reaction = type.name();
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            if (reactionRepository.deleteReaction(postId, userId, reaction) == 1) {
+                record(postId, type, -1);
+                return;
+            }
+            if (reactionRepository.switchReaction(postId, userId, reaction) == 1) {
+                record(postId, type, 1);
+                record(postId, type.opposite(), -1);
+                return;
+            }
+            if (reactionRepository.insertReaction(postId, userId, reaction) == 1) {
+                record(postId, type, 1);
+                return;
+            }
+            // A concurrent request by the same user created the row in between; look again
+        }
+        throw new IllegalStateException("Reaction to post " + postId + " kept changing, try again");
+    }
+
+    /** The post as the user sees it, with unflushed reactions counted. */
+    @Transactional(readOnly = true)
+    public ForumPostSummary summary(String postId, String userId) {
+        ForumPostSummary summary = postRepository.findSummary(postId, userId != null ? userId : "")
+                .orElseThrow(() -> new RuntimeException("Post not found with id: " + postId));
+        return withPendingCounts(summary);
+    }
+
+    public List<ForumPostSummary> withPendingCounts(List<ForumPostSummary> summaries) {
+        return summaries.stream().map(this::withPendingCounts).toList();
+    }
+
+    private ForumPostSummary withPendingCounts(ForumPostSummary s) {
+        PendingCounts counts = pending.get(s.id());
+        if (counts == null) {
+            return s;
+        }
+        return new ForumPostSummary(s.id(), s.title(), s.content(), s.category(), s.authorName(), s.authorId(),
+                s.timestamp(), s.likes() + counts.likes(), s.dislikes() + counts.dislikes(),
+                s.commentCount(), s.likedByMe(), s.dislikedByMe());
+    }
+
+    // Counted only once the reaction row change has committed
+    private void record(String postId, ReactionType type, int delta) {
+        AfterCommit.run(() -> {
+            pending.merge(postId, PendingCounts.of(type, delta), PendingCounts::sum);
+            hotService.react(postId, type, delta);
+        });
+    }
+
+    /** Writes the accumulated counter changes to forum_posts, one increment per changed post. */
+    @Scheduled(fixedDelayString = "${forum.reactions.flush-interval:1000}")
+    @PreDestroy
+    public void flush() {
+        for (String postId : pending.keySet()) {
+            // Taken out atomically; reactions committing meanwhile start a new entry for the next flush
+            PendingCounts counts = pending.remove(postId);
+            if (counts == null) {
+                continue;
+            }
+            try {
+                postRepository.addReactionCounts(postId, counts.likes(), counts.dislikes());
+            } catch (RuntimeException e) {
+                pending.merge(postId, counts, PendingCounts::sum);
+                System.err.println("=== Reaction counts for post " + postId + " not flushed: " + e.getMessage() + " ===");
+            }
+        }
+    }
+
+    // Posts with unflushed changes
+    int pendingPosts() {
+        return pending.size();
+    }
+
+    /** Drops the unflushed counts of a deleted post. */
+    public void forget(String postId) {
+        AfterCommit.run(() -> pending.remove(postId));
+    }
+}
@@ -0,0 +1,757 @@
+package jpademo.jpademo.model.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over forum posts, ranked with BM25.
+ * <p>
+ * Each post is one document holding its title, body and comments. Postings
+ * are primitive arrays sorted by document number, and a query walks the
+ * lists of its terms in step, so it never touches the rest of the index.
+ * Each list also keeps per-block score bounds, which lets a query skip the
+ * stretches of common words that cannot change its top hits. Removed posts are only marked and
+ * skipped until enough of them pile up to compact; like Lucene, term
+ * statistics keep counting them until then. Queries share a read lock.
+ */
+public class ForumSearchIndex {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    // Bounds are summed in a different order than scores, so pruning leaves room for rounding
+    private static final double SLACK = 1e-9;
+
+    private static final int MAGIC = 0x46534958;
+    private static final int VERSION = 1;
+    // Compact once removed documents are this share of all documents, and at least this many
+    private static final double COMPACT_RATIO = 0.25;
+    private static final int COMPACT_MIN = 1_000;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "is", "it", "my", "no",
+            "not", "of", "on", "or", "so", "that", "the", "this", "to", "was", "we", "with", "you");
+
+    public record Hit(String postId, double score) {
+    }
+
+    /** An index read from disk, with the time up to which it had seen every change. */
+    public record Snapshot(ForumSearchIndex index, LocalDateTime indexedThrough) {
+    }
+
+    // Postings per block of score bounds; a query skips whole blocks that cannot reach its top hits
+    private static final int BLOCK = 64;
+    // Bounds are summarized again once the average length moves this far from the one they used
+    private static final double DRIFT = 1.1;
+    // Lists this short are scored up front to seed the threshold of a query that also has long ones
+    private static final int SEED_POSTINGS = 1_024;
+
+    private static final class Postings {
+        int[] docs = new int[2];
+        int[] freqs = new int[2];
+        int size;
+        // Per block, and over the list: the highest tf (see tf) against the index's summary
+        // average. Documents only grow after that, which lowers their tf.
+        double[] blockMaxTf = new double[1];
+        double maxTf;
+
+        // Documents arrive in ascending order; a comment on an older post lands mid-list
+        void add(int doc, int freq, int[] lengths, double summaryAverage) {
+            int at = size;
+            if (size > 0 && docs[size - 1] >= doc) {
+                int found = Arrays.binarySearch(docs, 0, size, doc);
+                if (found >= 0) {
+                    freqs[found] += freq;
+                    raise(found / BLOCK, tf(freqs[found], lengths[doc], summaryAverage));
+                    return;
+                }
+                at = -found - 1;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            System.arraycopy(docs, at, docs, at + 1, size - at);
+            System.arraycopy(freqs, at, freqs, at + 1, size - at);
+            docs[at] = doc;
+            freqs[at] = freq;
+            size++;
+            if (at < size - 1) {
+                // Everything from the insert on moved, so those blocks are summarized again
+                summarize(at / BLOCK, lengths, summaryAverage);
+                return;
+            }
+            int block = at / BLOCK;
+            if (block == blockMaxTf.length) {
+                blockMaxTf = Arrays.copyOf(blockMaxTf, block * 2);
+            }
+            if (at % BLOCK == 0) {
+                blockMaxTf[block] = 0;
+            }
+            raise(block, tf(freq, lengths[doc], summaryAverage));
+        }
+
+        private void raise(int block, double tf) {
+            blockMaxTf[block] = Math.max(blockMaxTf[block], tf);
+            maxTf = Math.max(maxTf, tf);
+        }
+
+        void summarize(int fromBlock, int[] lengths, double summaryAverage) {
+            int blocks = (size + BLOCK - 1) / BLOCK;
+            if (blockMaxTf.length < blocks) {
+                blockMaxTf = Arrays.copyOf(blockMaxTf, Math.max(blocks, blockMaxTf.length * 2));
+            }
+            if (fromBlock == 0) {
+                maxTf = 0;
+            }
+            for (int block = fromBlock; block < blocks; block++) {
+                blockMaxTf[block] = 0;
+                for (int i = block * BLOCK, end = Math.min(size, i + BLOCK); i < end; i++) {
+                    raise(block, tf(freqs[i], lengths[docs[i]], summaryAverage));
+                }
+            }
+        }
+
+        // First position at or after from whose document is at least doc
+        int advance(int from, int doc) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && docs[high] < doc) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, size);
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (docs[mid] < doc) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final BitSet removed = new BitSet();
+    private String[] postIds = new String[64];
+    private int[] lengths = new int[64];
+    private int docCount;
+    private int liveDocs;
+    private long liveLength;
+    // Average document length the tf bounds are computed against; kept within DRIFT of the actual one
+    private double summaryAverage = 1;
+
+    /** Indexes the post's text, replacing whatever was indexed for it before. */
+    public void put(String postId, String text) {
+        Map<String, Integer> terms = termFrequencies(text);
+        lock.writeLock().lock();
+        try {
+            removeLocked(postId);
+            addLocked(postId, terms);
+            resummarizeIfDriftedLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Adds text, such as a new comment, to the post's document. */
+    public void append(String postId, String text) {
+        Map<String, Integer> terms = termFrequencies(text);
+        lock.writeLock().lock();
+        try {
+            Integer doc = docIds.get(postId);
+            if (doc == null) {
+                addLocked(postId, terms);
+            } else {
+                for (Map.Entry<String, Integer> term : terms.entrySet()) {
+                    postings.computeIfAbsent(term.getKey(), t -> new Postings()).add(doc, term.getValue(), lengths, summaryAverage);
+                }
+                int added = terms.values().stream().mapToInt(Integer::intValue).sum();
+                lengths[doc] += added;
+                liveLength += added;
+            }
+            resummarizeIfDriftedLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(String postId) {
+        lock.writeLock().lock();
+        try {
+            boolean found = removeLocked(postId);
+            int dead = docCount - liveDocs;
+            if (dead >= COMPACT_MIN && dead >= docCount * COMPACT_RATIO) {
+                compactLocked();
+            } else {
+                resummarizeIfDriftedLocked();
+            }
+            return found;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Set<String> postIds() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(docIds.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The best matching posts for the query, highest score first; newer posts win ties. */
+    public List<Hit> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        lock.readLock().lock();
+        try {
+            return searchLocked(terms, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Document-at-a-time walk with MaxScore pruning. Once the heap holds
+     * `limit` hits, a document has to score at least the weakest of them, so
+     * the terms whose combined best case falls short of that cannot bring in
+     * a document on their own: only the remaining ("essential") lists propose
+     * candidates, and the others are merely probed for those. Blocks of an
+     * essential list whose bound cannot get there either are skipped whole.
+     */
+    private List<Hit> searchLocked(List<String> terms, int limit) {
+        List<Postings> found = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            if (list != null) {
+                found.add(list);
+                weights.add(Math.log(1 + (docCount - list.size + 0.5) / (list.size + 0.5)));
+            }
+        }
+        int n = found.size();
+        if (n == 0 || liveDocs == 0 || limit < 1) {
+            return List.of();
+        }
+
+        double averageLength = averageLengthLocked();
+        // Bounds are tf against the summary average, scaled up when the actual average is longer
+        double weight = (K1 + 1) * Math.max(1, averageLength / summaryAverage);
+        // Terms by ascending best case, so the non-essential ones are always a prefix
+        Integer[] order = new Integer[n];
+        double[] bestCase = new double[n];
+        for (int t = 0; t < n; t++) {
+            order[t] = t;
+            bestCase[t] = weights.get(t) * weight * found.get(t).maxTf;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(bestCase[a], bestCase[b]));
+        Postings[] lists = new Postings[n];
+        double[] idf = new double[n];
+        double[] upper = new double[n];
+        for (int t = 0; t < n; t++) {
+            lists[t] = found.get(order[t]);
+            idf[t] = weights.get(order[t]);
+            upper[t] = bestCase[order[t]];
+        }
+        double[] prefix = new double[n + 1];
+        for (int t = 0; t < n; t++) {
+            prefix[t + 1] = prefix[t] + upper[t];
+        }
+
+        // next[t] proposes candidates from list t; probe[t] is where list t was last looked up
+        int[] next = new int[n];
+        int[] probe = new int[n];
+        double[] heapScores = new double[limit];
+        int[] heapDocs = new int[limit];
+        int heapSize = 0;
+        double threshold = seedThreshold(lists, idf, prefix, limit, averageLength);
+        int firstEssential = 0;
+        while (firstEssential < n && prefix[firstEssential + 1] + SLACK < threshold) {
+            firstEssential++;
+        }
+        while (true) {
+            int doc = Integer.MAX_VALUE;
+            for (int t = firstEssential; t < n; t++) {
+                Postings list = lists[t];
+                int i = next[t];
+                // Everything but this term at its best still leaves a block short: skip the block
+                double others = prefix[n] - upper[t];
+                while (i < list.size && others + idf[t] * weight * list.blockMaxTf[i / BLOCK] + SLACK < threshold) {
+                    i = (i / BLOCK + 1) * BLOCK;
+                }
+                next[t] = Math.min(i, list.size);
+                if (next[t] < list.size) {
+                    doc = Math.min(doc, list.docs[next[t]]);
+                }
+            }
+            if (doc == Integer.MAX_VALUE) {
+                break;
+            }
+            for (int t = firstEssential; t < n; t++) {
+                if (next[t] < lists[t].size && lists[t].docs[next[t]] == doc) {
+                    next[t]++;
+                }
+            }
+            if (removed.get(doc)) {
+                continue;
+            }
+
+            double score = score(lists, idf, prefix, probe, doc, averageLength, threshold);
+            if (score < threshold) {
+                continue;
+            }
+
+            // Documents come in ascending order, so a tie with the weakest hit goes to this newer one
+            if (heapSize < limit) {
+                heapScores[heapSize] = score;
+                heapDocs[heapSize] = doc;
+                siftUp(heapScores, heapDocs, heapSize++);
+            } else {
+                heapScores[0] = score;
+                heapDocs[0] = doc;
+                siftDown(heapScores, heapDocs, heapSize);
+            }
+            if (heapSize == limit) {
+                threshold = heapScores[0];
+                while (firstEssential < n && prefix[firstEssential + 1] + SLACK < threshold) {
+                    firstEssential++;
+                }
+            }
+        }
+
+        Hit[] hits = new Hit[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            hits[i] = new Hit(postIds[heapDocs[0]], heapScores[0]);
+            heapScores[0] = heapScores[i];
+            heapDocs[0] = heapDocs[i];
+            siftDown(heapScores, heapDocs, i);
+        }
+        return List.of(hits);
+    }
+
+    /*
+     * The limit-th best score among the documents of the short lists. Every
+     * final hit scores at least that, so it can start the threshold: a rare
+     * term next to a common one otherwise leaves the threshold low, and the
+     * common list essential, until the walk has come across enough of the
+     * rare term's documents, which is usually most of the way through.
+     */
+    private double seedThreshold(Postings[] lists, double[] idf, double[] prefix, int limit, double averageLength) {
+        int total = 0;
+        for (Postings list : lists) {
+            if (list.size <= SEED_POSTINGS) {
+                total += list.size;
+            }
+        }
+        if (total < limit) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        int[] seeds = new int[total];
+        int count = 0;
+        for (Postings list : lists) {
+            if (list.size <= SEED_POSTINGS) {
+                System.arraycopy(list.docs, 0, seeds, count, list.size);
+                count += list.size;
+            }
+        }
+        Arrays.sort(seeds);
+        int[] probe = new int[lists.length];
+        double[] heapScores = new double[limit];
+        int[] heapDocs = new int[limit];
+        int heapSize = 0;
+        for (int i = 0; i < count; i++) {
+            int doc = seeds[i];
+            if ((i > 0 && seeds[i - 1] == doc) || removed.get(doc)) {
+                continue;
+            }
+            double score = score(lists, idf, prefix, probe, doc, averageLength, Double.NEGATIVE_INFINITY);
+            if (heapSize < limit) {
+                heapScores[heapSize] = score;
+                heapDocs[heapSize] = doc;
+                siftUp(heapScores, heapDocs, heapSize++);
+            } else if (score > heapScores[0]) {
+                heapScores[0] = score;
+                heapDocs[0] = doc;
+                siftDown(heapScores, heapDocs, heapSize);
+            }
+        }
+        return heapSize == limit ? heapScores[0] : Double.NEGATIVE_INFINITY;
+    }
+
+    /*
+     * The document's score, or negative infinity once it cannot reach the
+     * threshold. Strongest terms first, so a hopeless document is dropped
+     * after the fewest lookups; the seed sums in the same order, so both
+     * arrive at exactly the same score for a document.
+     */
+    private double score(Postings[] lists, double[] idf, double[] prefix, int[] probe, int doc,
+                         double averageLength, double threshold) {
+        double norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+        double score = 0;
+        for (int t = lists.length - 1; t >= 0; t--) {
+            if (score + prefix[t + 1] + SLACK < threshold) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            probe[t] = lists[t].advance(probe[t], doc);
+            if (probe[t] < lists[t].size && lists[t].docs[probe[t]] == doc) {
+                int freq = lists[t].freqs[probe[t]];
+                score += idf[t] * freq * (K1 + 1) / (freq + norm);
+            }
+        }
+        return score;
+    }
+
+    // A term adds idf * (K1 + 1) * tf to a document's score
+    private static double tf(int freq, int length, double averageLength) {
+        return freq / (freq + K1 * (1 - B + B * length / averageLength));
+    }
+
+    // Whether hit a ranks below hit b; later documents are newer posts
+    private static boolean weaker(double scoreA, int docA, double scoreB, int docB) {
+        return scoreA < scoreB || (scoreA == scoreB && docA < docB);
+    }
+
+    private static void siftUp(double[] scores, int[] docs, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!weaker(scores[i], docs[i], scores[parent], docs[parent])) {
+                return;
+            }
+            swap(scores, docs, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(double[] scores, int[] docs, int size) {
+        int i = 0;
+        while (true) {
+            int weakest = i;
+            for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                if (weaker(scores[child], docs[child], scores[weakest], docs[weakest])) {
+                    weakest = child;
+                }
+            }
+            if (weakest == i) {
+                return;
+            }
+            swap(scores, docs, i, weakest);
+            i = weakest;
+        }
+    }
+
+    private static void swap(double[] scores, int[] docs, int i, int j) {
+        double score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+        int doc = docs[i];
+        docs[i] = docs[j];
+        docs[j] = doc;
+    }
+
+    private void addLocked(String postId, Map<String, Integer> terms) {
+        int doc = docCount++;
+        if (doc == postIds.length) {
+            postIds = Arrays.copyOf(postIds, doc * 2);
+            lengths = Arrays.copyOf(lengths, doc * 2);
+        }
+        int length = terms.values().stream().mapToInt(Integer::intValue).sum();
+        postIds[doc] = postId;
+        lengths[doc] = length;
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), t -> new Postings()).add(doc, term.getValue(), lengths, summaryAverage);
+        }
+        docIds.put(postId, doc);
+        liveDocs++;
+        liveLength += length;
+    }
+
+    private boolean removeLocked(String postId) {
+        Integer doc = docIds.remove(postId);
+        if (doc == null) {
+            return false;
+        }
+        removed.set(doc);
+        liveDocs--;
+        liveLength -= lengths[doc];
+        return true;
+    }
+
+    // Renumbers the live documents in order and drops removed ones from every list
+    private void compactLocked() {
+        int[] renumbered = renumbering();
+        for (Postings list : postings.values()) {
+            int kept = 0;
+            for (int i = 0; i < list.size; i++) {
+                int doc = renumbered[list.docs[i]];
+                if (doc >= 0) {
+                    list.docs[kept] = doc;
+                    list.freqs[kept++] = list.freqs[i];
+                }
+            }
+            list.size = kept;
+        }
+        postings.values().removeIf(list -> list.size == 0);
+        for (int doc = 0; doc < docCount; doc++) {
+            int to = renumbered[doc];
+            if (to >= 0) {
+                postIds[to] = postIds[doc];
+                lengths[to] = lengths[doc];
+                docIds.put(postIds[to], to);
+            }
+        }
+        Arrays.fill(postIds, liveDocs, docCount, null);
+        docCount = liveDocs;
+        removed.clear();
+        summarizeAllLocked();
+    }
+
+    private double averageLengthLocked() {
+        return Math.max(1, (double) liveLength / Math.max(1, liveDocs));
+    }
+
+    /*
+     * A tf computed against one average stays a bound for any other, scaled
+     * by the ratio of the two when the new one is longer. Keeping the summary
+     * average close keeps that factor small, and the bounds tight enough to
+     * skip blocks. It moves most while the index is small, where summarizing
+     * again is cheap.
+     */
+    private void resummarizeIfDriftedLocked() {
+        double average = averageLengthLocked();
+        if (average > summaryAverage * DRIFT || average * DRIFT < summaryAverage) {
+            summarizeAllLocked();
+        }
+    }
+
+    private void summarizeAllLocked() {
+        summaryAverage = averageLengthLocked();
+        for (Postings list : postings.values()) {
+            list.summarize(0, lengths, summaryAverage);
+        }
+    }
+
+    private int[] renumbering() {
+        int[] renumbered = new int[docCount];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            renumbered[doc] = removed.get(doc) ? -1 : next++;
+        }
+        return renumbered;
+    }
+
+    // Point-in-time copy of the index for writing; postings are trimmed to size, terms in map order
+    private record Copy(String[] postIds, int[] lengths, BitSet removed, int docCount, int liveDocs,
+                        String[] terms, int[][] docs, int[][] freqs) {
+    }
+
+    /**
+     * Writes the live documents to the file, through a temporary file moved
+     * into place so a crash never leaves half an index behind. Only copying
+     * the arrays holds the read lock; encoding and I/O happen after it is
+     * released, so writers and the readers queued behind them wait for the
+     * copy rather than the file.
+     */
+    public void write(Path file, LocalDateTime indexedThrough) throws IOException {
+        Copy copy;
+        lock.readLock().lock();
+        try {
+            copy = copy();
+        } finally {
+            lock.readLock().unlock();
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                write(out, copy, indexedThrough);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Copy copy() {
+        String[] terms = new String[postings.size()];
+        int[][] docs = new int[terms.length][];
+        int[][] freqs = new int[terms.length][];
+        int t = 0;
+        for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+            Postings list = entry.getValue();
+            terms[t] = entry.getKey();
+            docs[t] = Arrays.copyOf(list.docs, list.size);
+            freqs[t++] = Arrays.copyOf(list.freqs, list.size);
+        }
+        return new Copy(Arrays.copyOf(postIds, docCount), Arrays.copyOf(lengths, docCount), (BitSet) removed.clone(),
+                docCount, liveDocs, terms, docs, freqs);
+    }
+
+    private static void write(DataOutputStream out, Copy copy, LocalDateTime indexedThrough) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(indexedThrough.toString());
+        out.writeInt(copy.liveDocs());
+        int[] renumbered = new int[copy.docCount()];
+        int next = 0;
+        for (int doc = 0; doc < copy.docCount(); doc++) {
+            if (copy.removed().get(doc)) {
+                renumbered[doc] = -1;
+            } else {
+                renumbered[doc] = next++;
+                out.writeUTF(copy.postIds()[doc]);
+                writeVarInt(out, copy.lengths()[doc]);
+            }
+        }
+        out.writeInt(copy.terms().length);
+        for (int t = 0; t < copy.terms().length; t++) {
+            int[] docs = copy.docs()[t];
+            int[] freqs = copy.freqs()[t];
+            int kept = 0;
+            for (int doc : docs) {
+                if (renumbered[doc] >= 0) {
+                    kept++;
+                }
+            }
+            // Terms left without live documents are written empty and skipped on read
+            out.writeUTF(copy.terms()[t]);
+            writeVarInt(out, kept);
+            int previous = 0;
+            for (int i = 0; i < docs.length; i++) {
+                int doc = renumbered[docs[i]];
+                if (doc >= 0) {
+                    writeVarInt(out, doc - previous);
+                    writeVarInt(out, freqs[i]);
+                    previous = doc;
+                }
+            }
+        }
+    }
+
+    public static Snapshot read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a forum search index: " + file);
+            }
+            LocalDateTime indexedThrough = LocalDateTime.parse(in.readUTF());
+            ForumSearchIndex index = new ForumSearchIndex();
+            int docs = in.readInt();
+            index.postIds = new String[Math.max(64, docs)];
+            index.lengths = new int[Math.max(64, docs)];
+            for (int doc = 0; doc < docs; doc++) {
+                index.postIds[doc] = in.readUTF();
+                index.lengths[doc] = readVarInt(in);
+                index.docIds.put(index.postIds[doc], doc);
+                index.liveLength += index.lengths[doc];
+            }
+            index.docCount = docs;
+            index.liveDocs = docs;
+            int terms = in.readInt();
+            for (int t = 0; t < terms; t++) {
+                String term = in.readUTF();
+                int size = readVarInt(in);
+                if (size == 0) {
+                    continue;
+                }
+                Postings list = new Postings();
+                list.docs = new int[size];
+                list.freqs = new int[size];
+                int doc = 0;
+                for (int i = 0; i < size; i++) {
+                    doc += readVarInt(in);
+                    list.docs[i] = doc;
+                    list.freqs[i] = readVarInt(in);
+                }
+                list.size = size;
+                index.postings.put(term, list);
+            }
+            index.summarizeAllLocked();
+            return new Snapshot(index, indexedThrough);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt forum search index: " + file, e);
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static Map<String, Integer> termFrequencies(String text) {
+        Map<String, Integer> terms = new HashMap<>();
+        for (String token : tokenize(text)) {
+            terms.merge(token, 1, Integer::sum);
+        }
+        return terms;
+    }
+
+    // Lower-cased runs of letters and digits, without one-letter words and stop words
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = lower.substring(start, i);
+                if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
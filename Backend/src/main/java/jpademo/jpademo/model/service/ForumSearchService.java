@@ -0,0 +1,245 @@
+package jpademo.jpademo.model.service;
+
+import jakarta.annotation.PreDestroy;
+import jpademo.jpademo.model.repository.ForumCommentRepository;
+import jpademo.jpademo.model.repository.ForumPostRepository;
+import jpademo.jpademo.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the {@link ForumSearchIndex} in step with the forum tables.
+ * <p>
+ * On startup the index is read from {@code forum.search.index-file} and
+ * caught up with the posts and comments written since that snapshot; it is
+ * only rebuilt from the database when there is no usable file. Afterwards
+ * each committed post, comment and delete updates it, and the snapshot is
+ * rewritten every {@code forum.search.snapshot-interval} when anything changed.
+ */
+@Service
+public class ForumSearchService {
+
+    private static final int BATCH_SIZE = 1_000;
+    // Posts touched this long before the snapshot are re-read on catch-up, for writes that committed late
+    private static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(5);
+
+    @Autowired
+    private ForumPostRepository postRepository;
+
+    @Autowired
+    private ForumCommentRepository commentRepository;
+
+    private final Path indexFile;
+    private volatile ForumSearchIndex index = new ForumSearchIndex();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    // Posts written while a new index is loaded or rebuilt; null otherwise
+    private volatile Set<String> writtenWhileLoading;
+    // No snapshot is written before startup has loaded or built the index
+    private volatile boolean ready;
+
+    public ForumSearchService(@Value("${forum.search.index-file:data/forum-search.idx}") String indexFile) {
+        this.indexFile = Path.of(indexFile);
+    }
+
+    public List<ForumSearchIndex.Hit> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    public void indexPost(String postId, String title, String content) {
+        AfterCommit.run(() -> {
+            written(postId);
+            index.put(postId, text(title, content));
+            dirty.set(true);
+        });
+    }
+
+    public void indexComment(String postId, String text) {
+        AfterCommit.run(() -> {
+            written(postId);
+            index.append(postId, text);
+            dirty.set(true);
+        });
+    }
+
+    public void remove(String postId) {
+        AfterCommit.run(() -> {
+            written(postId);
+            index.remove(postId);
+            dirty.set(true);
+        });
+    }
+
+    // Recorded before the index field is read, so a write applied to the index being replaced is always re-read
+    private void written(String postId) {
+        Set<String> written = writtenWhileLoading;
+        if (written != null) {
+            written.add(postId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void open() {
+        long start = System.nanoTime();
+        Set<String> written = trackWrites();
+        ForumSearchIndex opened = null;
+        boolean loaded = false;
+        try {
+            if (Files.exists(indexFile)) {
+                try {
+                    ForumSearchIndex.Snapshot snapshot = ForumSearchIndex.read(indexFile);
+                    catchUp(snapshot.index(), snapshot.indexedThrough());
+                    opened = snapshot.index();
+                    loaded = true;
+                } catch (IOException e) {
+                    System.err.println("=== Forum search index unreadable, rebuilding: " + e.getMessage() + " ===");
+                }
+            }
+            if (!loaded) {
+                opened = new ForumSearchIndex();
+                build(opened);
+            }
+            index = opened;
+        } finally {
+            writtenWhileLoading = null;
+        }
+        reindexAll(opened, written);
+        ready = true;
+        dirty.set(true);
+        saveSnapshot();
+        System.out.println("=== Forum search index " + (loaded ? "loaded" : "built") + " with " + opened.size()
+                + " posts in " + (System.nanoTime() - start) / 1_000_000 + " ms ===");
+    }
+
+    /**
+     * Indexes every post from scratch into a new index and swaps it in once
+     * complete; searches keep using the current index meanwhile.
+     */
+    public void rebuild() {
+        Set<String> written = trackWrites();
+        ForumSearchIndex built = new ForumSearchIndex();
+        try {
+            build(built);
+            index = built;
+        } finally {
+            writtenWhileLoading = null;
+        }
+        reindexAll(built, written);
+    }
+
+    // Writes that land while a new index is loaded go to the old one; their posts are re-read once it is swapped in
+    private Set<String> trackWrites() {
+        Set<String> written = ConcurrentHashMap.newKeySet();
+        writtenWhileLoading = written;
+        return written;
+    }
+
+    private void build(ForumSearchIndex index) {
+        String afterId = "";
+        while (true) {
+            List<Object[]> rows = postRepository.findSearchTextAfter(afterId, PageRequest.of(0, BATCH_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<String> ids = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                ids.add((String) row[0]);
+            }
+            indexRows(index, rows, ids);
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    // Re-reads the posts changed since the snapshot and drops the ones deleted since
+    private void catchUp(ForumSearchIndex index, LocalDateTime indexedThrough) {
+        LocalDateTime since = indexedThrough.minus(CATCH_UP_MARGIN);
+        Set<String> changed = new LinkedHashSet<>(postRepository.findIdsPostedSince(since));
+        changed.addAll(commentRepository.findPostIdsCommentedSince(since));
+        reindexAll(index, changed);
+
+        Set<String> existing = new HashSet<>(postRepository.findAllIds());
+        int removed = 0;
+        for (String postId : index.postIds()) {
+            if (!existing.contains(postId)) {
+                index.remove(postId);
+                removed++;
+            }
+        }
+        System.out.println("=== Forum search catch-up: " + changed.size() + " posts re-read, " + removed + " removed ===");
+    }
+
+    private void reindexAll(ForumSearchIndex index, Collection<String> postIds) {
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        for (String postId : postIds) {
+            batch.add(postId);
+            if (batch.size() == BATCH_SIZE) {
+                reindex(index, batch);
+                batch.clear();
+            }
+        }
+        reindex(index, batch);
+    }
+
+    // Posts no longer in the database are removed
+    private void reindex(ForumSearchIndex index, List<String> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> posts = postRepository.findSearchText(postIds);
+        Set<String> deleted = new HashSet<>(postIds);
+        for (Object[] row : posts) {
+            deleted.remove((String) row[0]);
+        }
+        deleted.forEach(index::remove);
+        indexRows(index, posts, postIds);
+    }
+
+    // Puts each post, replacing any earlier version, then appends its comments in order
+    private void indexRows(ForumSearchIndex index, List<Object[]> posts, Collection<String> postIds) {
+        for (Object[] row : posts) {
+            index.put((String) row[0], text((String) row[1], (String) row[2]));
+        }
+        for (Object[] row : commentRepository.findTextsByPostIds(postIds)) {
+            index.append((String) row[0], (String) row[1]);
+        }
+    }
+
+    private static String text(String title, String content) {
+        return Objects.toString(title, "") + "\n" + Objects.toString(content, "");
+    }
+
+    @Scheduled(fixedDelayString = "${forum.search.snapshot-interval:300000}")
+    @PreDestroy
+    public void saveSnapshot() {
+        if (!ready || !dirty.getAndSet(false)) {
+            return;
+        }
+        // Taken before writing: anything applied after it is re-read on the next catch-up
+        LocalDateTime indexedThrough = LocalDateTime.now();
+        try {
+            index.write(indexFile, indexedThrough);
+        } catch (IOException e) {
+            dirty.set(true);
+            System.err.println("=== Forum search snapshot to " + indexFile + " failed: " + e.getMessage() + " ===");
+        }
+    }
+}
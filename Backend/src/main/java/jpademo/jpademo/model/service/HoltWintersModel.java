@@ -0,0 +1,74 @@
+package jpademo.jpademo.model.service;
+
+/**
+ * Additive Holt-Winters with a damped trend and a weekly season, fed one
+ * daily total at a time. Each observation is O(1); nothing is refit.
+ * Not thread-safe.
+ */
+public final class HoltWintersModel {
+
+    static final int SEASON = 7;
+    static final double ALPHA = 0.3;
+    static final double BETA = 0.05;
+    static final double GAMMA = 0.2;
+    // Trend damping, so a few busy days are not extrapolated to month end
+    static final double PHI = 0.9;
+
+    private double level;
+    private double trend;
+    private final double[] season = new double[SEASON];
+    // Season slot of the next observation
+    private int position;
+    private long observations;
+    private double squaredErrors;
+    private long errors;
+
+    public void observe(double value) {
+        if (observations < SEASON) {
+            // First week: collect raw values, then derive level and seasonal offsets from them
+            season[position] = value;
+            level = (level * observations + value) / (observations + 1);
+            if (observations == SEASON - 1) {
+                for (int i = 0; i < SEASON; i++) {
+                    season[i] -= level;
+                }
+            }
+        } else {
+            double seasonal = season[position];
+            double error = value - (level + PHI * trend + seasonal);
+            squaredErrors += error * error;
+            errors++;
+            
+            double previousLevel = level;
+            level = ALPHA * (value - seasonal) + (1 - ALPHA) * (level + PHI * trend);
+            trend = BETA * (level - previousLevel) + (1 - BETA) * PHI * trend;
+            season[position] = GAMMA * (value - level) + (1 - GAMMA) * seasonal;
+        }
+        position = (position + 1) % SEASON;
+        observations++;
+    }
+
+    /** Expected total {@code daysAhead} days after the last observation (1 = next day), never negative. */
+    public double forecast(int daysAhead) {
+        if (observations < SEASON) {
+            // Not a full week yet: the running mean is the best guess
+            return Math.max(0, level);
+        }
+        double damping = 0;
+        double factor = 1;
+        for (int i = 0; i < daysAhead; i++) {
+            factor *= PHI;
+            damping += factor;
+        }
+        return Math.max(0, level + damping * trend + season[(position + daysAhead - 1) % SEASON]);
+    }
+
+    /** Standard deviation of the one-day-ahead errors seen so far. */
+    public double residualStdDev() {
+        return errors > 0 ? Math.sqrt(squaredErrors / errors) : 0;
+    }
+
+    public long observations() {
+        return observations;
+    }
+}
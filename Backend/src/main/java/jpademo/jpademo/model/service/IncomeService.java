@@ -4,8 +4,10 @@ import jpademo.jpademo.model.Income;
 import jpademo.jpademo.model.repository.IncomeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class IncomeService {
@@ -13,27 +15,60 @@ public class IncomeService {
     @Autowired
     private IncomeRepository incomeRepository;
 
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
     public List<Income> getIncomesByUser(Long userId) {
         return incomeRepository.findByUserIdOrderByIncomeDateDesc(userId);
     }
 
     public BigDecimal getTotalIncome(Long userId) {
-        List<Income> incomes = incomeRepository.findByUserIdOrderByIncomeDateDesc(userId);
-        return incomes.stream()
-                .map(Income::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return rollupService.getTotalIncome(userId);
     }
 
+    @Transactional
     public Income createIncome(Income income) {
-        return incomeRepository.save(income);
+        Income saved = incomeRepository.save(income);
+        rollupService.addIncome(saved.getUserId(), saved.getIncomeDate(), saved.getCategory(), saved.getAmount());
+        ledgerService.credit(saved.getUserId(), saved.getAmount());
+        return saved;
     }
 
-    public Income updateIncome(Long id, Income income) {
-        income.setId(id);
-        return incomeRepository.save(income);
+    @Transactional
+    public Optional<Income> updateIncome(Long id, Income income) {
+        return incomeRepository.findById(id).map(existing -> {
+            // Capture the old bucket before merge overwrites the managed entity
+            Long oldUserId = existing.getUserId();
+            BigDecimal oldAmount = existing.getAmount();
+            rollupService.subtractIncome(oldUserId, existing.getIncomeDate(), existing.getCategory(), oldAmount);
+            
+            income.setId(id);
+            Income saved = incomeRepository.save(income);
+            rollupService.addIncome(saved.getUserId(), saved.getIncomeDate(), saved.getCategory(), saved.getAmount());
+            // One delta per ledger: a ledger seeded by the first would already count the second
+            if (oldUserId.equals(saved.getUserId())) {
+                ledgerService.credit(oldUserId, saved.getAmount().subtract(oldAmount));
+            } else {
+                ledgerService.debit(oldUserId, oldAmount);
+                ledgerService.credit(saved.getUserId(), saved.getAmount());
+            }
+            return saved;
+        });
     }
 
-    public void deleteIncome(Long id) {
-        incomeRepository.deleteById(id);
+    @Transactional
+    public boolean deleteIncome(Long id) {
+        Optional<Income> existing = incomeRepository.findById(id);
+        if (existing.isEmpty()) {
+            return false;
+        }
+        Income income = existing.get();
+        incomeRepository.delete(income);
+        rollupService.subtractIncome(income.getUserId(), income.getIncomeDate(), income.getCategory(), income.getAmount());
+        ledgerService.debit(income.getUserId(), income.getAmount());
+        return true;
     }
-}
\ No newline at end of file
+}
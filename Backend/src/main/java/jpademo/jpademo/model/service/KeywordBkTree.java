@@ -0,0 +1,92 @@
+package jpademo.jpademo.model.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * BK-tree over a fixed word list under Levenshtein distance, for finding
+ * every word within a small edit distance of a query without comparing it
+ * to the whole list. Immutable once built.
+ */
+final class KeywordBkTree {
+
+    private final String[] words;
+    // children[node][d] -> node whose word is at distance d from this node's word, or -1
+    private final int[][] children;
+    private final int maxLength;
+
+    KeywordBkTree(List<String> distinctWords) {
+        this.words = distinctWords.toArray(new String[0]);
+        this.maxLength = Arrays.stream(words).mapToInt(String::length).max().orElse(0);
+        this.children = new int[words.length][];
+
+        int[] previous = new int[maxLength + 1];
+        int[] current = new int[maxLength + 1];
+        for (int w = 0; w < words.length; w++) {
+            children[w] = new int[maxLength + 1];
+            Arrays.fill(children[w], -1);
+            int node = 0;
+            while (w > 0) {
+                int distance = levenshtein(words[w], words[node], previous, current);
+                if (distance == 0) {
+                    throw new IllegalArgumentException("Duplicate word: " + words[w]);
+                }
+                if (children[node][distance] < 0) {
+                    children[node][distance] = w;
+                    break;
+                }
+                node = children[node][distance];
+            }
+        }
+    }
+
+    String word(int id) {
+        return words[id];
+    }
+
+    /** Calls {@code found} with the id of every word within {@code radius} edits of the query. */
+    void search(String query, int radius, IntConsumer found) {
+        if (words.length == 0) {
+            return;
+        }
+        int width = Math.max(query.length(), maxLength) + 1;
+        int[] previous = new int[width];
+        int[] current = new int[width];
+        int[] stack = new int[words.length];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int distance = levenshtein(query, words[node], previous, current);
+            if (distance <= radius) {
+                found.accept(node);
+            }
+            // Triangle inequality: only subtrees at distance d +- radius can hold matches
+            for (int d = Math.max(1, distance - radius), end = Math.min(maxLength, distance + radius); d <= end; d++) {
+                if (children[node][d] >= 0) {
+                    stack[top++] = children[node][d];
+                }
+            }
+        }
+    }
+
+    // Two-row dynamic programme; the rows are scratch space of at least b.length() + 1
+    private static int levenshtein(String a, String b, int[] previous, int[] current) {
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -0,0 +1,98 @@
+package jpademo.jpademo.model.service;
+
+import jpademo.jpademo.model.repository.BalanceLedgerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user running balance. Callers apply one delta per user and transaction,
+ * after writing the raw income/expense rows. A user without a ledger row is
+ * seeded from the raw tables only then, on that miss; the seed already holds
+ * the rows just written, so the delta is not applied on top of it.
+ */
+@Service
+public class LedgerService {
+
+    @Autowired
+    private BalanceLedgerRepository ledgerRepository;
+
+    @Transactional
+    public void credit(Long userId, BigDecimal amount) {
+        apply(userId, amount);
+    }
+
+    @Transactional
+    public void debit(Long userId, BigDecimal amount) {
+        apply(userId, amount.negate());
+    }
+
+    private void apply(Long userId, BigDecimal delta) {
+        if (ledgerRepository.addDelta(userId, delta) == 1) {
+            return;
+        }
+        if (ledgerRepository.seed(userId) == 0) {
+            // Another transaction seeded the ledger first, from rows that did not include this write
+            ledgerRepository.addDelta(userId, delta);
+        }
+    }
+
+    /**
+     * Debits the amount only if the balance covers it, as one conditional
+     * UPDATE. Concurrent debits for the same user serialize on the ledger row.
+     */
+    @Transactional
+    public boolean tryDebit(Long userId, BigDecimal amount) {
+        if (ledgerRepository.debitIfSufficient(userId, amount) == 1) {
+            return true;
+        }
+        // Short of funds, unless there was no ledger row yet to debit
+        if (ledgerRepository.findBalance(userId).isPresent()) {
+            return false;
+        }
+        ledgerRepository.seed(userId);
+        return ledgerRepository.debitIfSufficient(userId, amount) == 1;
+    }
+
+    @Transactional
+    public BigDecimal getBalance(Long userId) {
+        return ledgerRepository.findBalance(userId).orElseGet(() -> {
+            ledgerRepository.seed(userId);
+            return ledgerRepository.findBalance(userId).orElse(BigDecimal.ZERO);
+        });
+    }
+
+    /**
+     * Compares every ledger row with the raw incomes/expenses tables and
+     * corrects the ones that drifted. Corrections are applied as deltas so
+     * writes committed in between are not overwritten.
+     */
+    @Scheduled(cron = "${ledger.reconcile.cron:0 30 3 * * *}")
+    @Transactional
+    public List<Map<String, Object>> reconcile() {
+        List<Map<String, Object>> corrections = new ArrayList<>();
+        for (Object[] row : ledgerRepository.findDrift()) {
+            Long userId = ((Number) row[0]).longValue();
+            BigDecimal ledgerBalance = new BigDecimal(row[1].toString());
+            BigDecimal expected = new BigDecimal(row[2].toString());
+            ledgerRepository.addDelta(userId, expected.subtract(ledgerBalance));
+            
+            Map<String, Object> correction = new HashMap<>();
+            correction.put("userId", userId);
+            correction.put("ledgerBalance", ledgerBalance);
+            correction.put("expectedBalance", expected);
+            corrections.add(correction);
+        }
+        if (!corrections.isEmpty()) {
+            System.out.println("=== Ledger reconcile corrected " + corrections.size() + " user(s) ===");
+        }
+        return corrections;
+    }
+}
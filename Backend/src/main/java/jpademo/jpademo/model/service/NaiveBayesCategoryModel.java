@@ -0,0 +1,224 @@
+package jpademo.jpademo.model.service;
+
+import jpademo.jpademo.model.dto.CategoryPrediction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Multinomial Naive Bayes over description tokens for one user.
+ * <p>
+ * Counts live in primitive arrays indexed by category id and token id,
+ * so learning or forgetting one expense is O(tokens) and nothing is
+ * retrained. Laplace smoothing is applied at prediction time.
+ * Predictions share a read lock so batch scoring can run in parallel.
+ */
+public class NaiveBayesCategoryModel {
+
+    // Each keyword hit multiplies a category's odds by about 20
+    static final double KEYWORD_WEIGHT = Math.log(20);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> vocabulary = new HashMap<>();
+    private final Map<String, Integer> categoryIds = new HashMap<>();
+    private String[] categories = new String[8];
+    private int[] documentCounts = new int[8];
+    private int[] tokenTotals = new int[8];
+    // tokenCounts[category][token]; rows grow with the vocabulary
+    private int[][] tokenCounts = new int[8][];
+    // Occurrences of each token over all categories; tokens at zero no longer count as vocabulary
+    private int[] tokenOccurrences = new int[64];
+    private int activeTokens;
+    private int categoryCount;
+    private int documents;
+
+    public void learn(String description, String category) {
+        lock.writeLock().lock();
+        try {
+            adjust(description, category, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Reverses a previous learn(), e.g. when an expense is edited or deleted
+    public void forget(String description, String category) {
+        lock.writeLock().lock();
+        try {
+            adjust(description, category, -1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int documents() {
+        lock.readLock().lock();
+        try {
+            return documents;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks categories for the description, best first. Categories with
+     * keyword hits are candidates even if the user never used them, and
+     * each hit adds {@link #KEYWORD_WEIGHT} times its weight to the log score.
+     * Returns an empty list when no token of the description has been seen.
+     */
+    public List<CategoryPrediction> predict(String description, Map<String, Double> keywordHits, int limit) {
+        List<String> tokens = tokenize(description);
+        lock.readLock().lock();
+        try {
+            return rank(tokens, keywordHits, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<CategoryPrediction> rank(List<String> tokens, Map<String, Double> keywordHits, int limit) {
+        int[] tokenIds = new int[tokens.size()];
+        int known = 0;
+        for (String token : tokens) {
+            Integer id = vocabulary.get(token);
+            if (id != null && tokenOccurrences[id] > 0) {
+                tokenIds[known++] = id;
+            }
+        }
+        if (known == 0 || documents == 0) {
+            return List.of();
+        }
+
+        Set<String> candidates = new LinkedHashSet<>(Arrays.asList(categories).subList(0, categoryCount));
+        candidates.addAll(keywordHits.keySet());
+        int vocabularySize = activeTokens;
+        double priorDenominator = Math.log(documents + candidates.size());
+
+        String[] names = candidates.toArray(new String[0]);
+        double[] scores = new double[names.length];
+        double best = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < names.length; i++) {
+            Integer c = categoryIds.get(names[i]);
+            int docs = c != null ? documentCounts[c] : 0;
+            int total = c != null ? tokenTotals[c] : 0;
+            int[] counts = c != null ? tokenCounts[c] : null;
+            
+            double score = Math.log(docs + 1) - priorDenominator;
+            double tokenDenominator = Math.log(total + vocabularySize);
+            for (int k = 0; k < known; k++) {
+                int t = tokenIds[k];
+                int count = counts != null && t < counts.length ? counts[t] : 0;
+                score += Math.log(count + 1) - tokenDenominator;
+            }
+            score += KEYWORD_WEIGHT * keywordHits.getOrDefault(names[i], 0.0);
+            scores[i] = score;
+            best = Math.max(best, score);
+        }
+
+        // Softmax, shifted by the best score for numeric stability
+        double sum = 0;
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = Math.exp(scores[i] - best);
+            sum += scores[i];
+        }
+        List<CategoryPrediction> ranked = new ArrayList<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            ranked.add(new CategoryPrediction(names[i], scores[i] / sum));
+        }
+        ranked.sort((a, b) -> Double.compare(b.probability(), a.probability()));
+        return ranked.subList(0, Math.min(limit, ranked.size()));
+    }
+
+    private void adjust(String description, String category, int delta) {
+        if (category == null || category.isBlank()) {
+            return;
+        }
+        Integer c = categoryIds.get(category);
+        if (c == null) {
+            if (delta < 0) {
+                return;
+            }
+            c = addCategory(category);
+        }
+        if (delta < 0 && documentCounts[c] == 0) {
+            return;
+        }
+        documentCounts[c] += delta;
+        documents += delta;
+        
+        for (String token : tokenize(description)) {
+            Integer t = vocabulary.get(token);
+            if (t == null) {
+                if (delta < 0) {
+                    continue;
+                }
+                t = vocabulary.size();
+                vocabulary.put(token, t);
+            }
+            int[] counts = tokenCounts[c];
+            if (t >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(t + 1, counts.length * 2));
+                tokenCounts[c] = counts;
+            }
+            if (delta < 0 && counts[t] == 0) {
+                continue;
+            }
+            counts[t] += delta;
+            tokenTotals[c] += delta;
+            
+            if (t >= tokenOccurrences.length) {
+                tokenOccurrences = Arrays.copyOf(tokenOccurrences, Math.max(t + 1, tokenOccurrences.length * 2));
+            }
+            if (tokenOccurrences[t] == 0) {
+                activeTokens++;
+            }
+            tokenOccurrences[t] += delta;
+            if (tokenOccurrences[t] == 0) {
+                activeTokens--;
+            }
+        }
+    }
+
+    private int addCategory(String category) {
+        if (categoryCount == categories.length) {
+            int capacity = categories.length * 2;
+            categories = Arrays.copyOf(categories, capacity);
+            documentCounts = Arrays.copyOf(documentCounts, capacity);
+            tokenTotals = Arrays.copyOf(tokenTotals, capacity);
+            tokenCounts = Arrays.copyOf(tokenCounts, capacity);
+        }
+        int c = categoryCount++;
+        categories[c] = category;
+        tokenCounts[c] = new int[Math.max(16, vocabulary.size())];
+        categoryIds.put(category, c);
+        return c;
+    }
+
+    // Lowercased runs of letters/digits, at least two chars long
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start >= 2) {
+                    tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
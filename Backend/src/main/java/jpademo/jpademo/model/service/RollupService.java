@@ -0,0 +1,161 @@
+package jpademo.jpademo.model.service;
+
+import jpademo.jpademo.model.dto.CategoryTotal;
+import jpademo.jpademo.model.event.FinanceDataChangedEvent;
+import jpademo.jpademo.model.repository.MonthlyRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the per-user (month, category) rollups for expenses and incomes.
+ * Every write method must run inside the caller's transaction so the rollup
+ * always commits or rolls back together with the raw row.
+ * Since every expense/income write passes through here, this is also where
+ * {@link FinanceDataChangedEvent}s are published.
+ */
+@Service
+public class RollupService {
+
+    public static final String EXPENSE = "EXPENSE";
+    public static final String INCOME = "INCOME";
+
+    // MonthlyRollupRepository.addDelta as plain JDBC, so a group of buckets goes in one batch
+    private static final String ADD_DELTA_SQL =
+            "INSERT INTO monthly_rollups (user_id, kind, rollup_month, category, total_amount, entry_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE total_amount = total_amount + VALUES(total_amount), " +
+            "entry_count = entry_count + VALUES(entry_count)";
+
+    @Autowired
+    private MonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void addExpense(Long userId, LocalDate date, String category, BigDecimal amount) {
+        apply(EXPENSE, userId, date, category, amount, 1);
+    }
+
+    /**
+     * Adds pre-aggregated expense totals per month, e.g. one bulk-import
+     * batch, as a single JDBC batch and a single change event.
+     */
+    @Transactional
+    public void addExpenses(Long userId, Map<YearMonth, List<CategoryTotal>> totalsByMonth) {
+        if (totalsByMonth.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        totalsByMonth.forEach((month, totals) -> {
+            for (CategoryTotal total : totals) {
+                rows.add(new Object[] {userId, EXPENSE, month.toString(), total.category(), total.total(), total.count()});
+            }
+        });
+        jdbcTemplate.batchUpdate(ADD_DELTA_SQL, rows);
+        YearMonth earliest = Collections.min(totalsByMonth.keySet());
+        eventPublisher.publishEvent(new FinanceDataChangedEvent(userId, earliest.atDay(1)));
+    }
+
+    @Transactional
+    public void subtractExpense(Long userId, LocalDate date, String category, BigDecimal amount) {
+        apply(EXPENSE, userId, date, category, amount.negate(), -1);
+    }
+
+    @Transactional
+    public void addIncome(Long userId, LocalDate date, String category, BigDecimal amount) {
+        apply(INCOME, userId, date, category, amount, 1);
+    }
+
+    @Transactional
+    public void subtractIncome(Long userId, LocalDate date, String category, BigDecimal amount) {
+        apply(INCOME, userId, date, category, amount.negate(), -1);
+    }
+
+    private void apply(String kind, Long userId, LocalDate date, String category, BigDecimal amount, long count) {
+        rollupRepository.addDelta(userId, kind, YearMonth.from(date).toString(), category, amount, count);
+        eventPublisher.publishEvent(new FinanceDataChangedEvent(userId, date));
+    }
+
+    // All-time totals per expense category
+    public List<CategoryTotal> getExpenseTotalsByCategory(Long userId) {
+        return withoutEmpty(rollupRepository.sumByCategory(userId, EXPENSE));
+    }
+
+    // Totals per expense category for a single month
+    public List<CategoryTotal> getMonthlyExpenseTotals(Long userId, YearMonth month) {
+        return withoutEmpty(rollupRepository.findMonth(userId, EXPENSE, month.toString()));
+    }
+
+    public BigDecimal getMonthlyIncomeTotal(Long userId, YearMonth month) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (CategoryTotal categoryTotal : rollupRepository.findMonth(userId, INCOME, month.toString())) {
+            total = total.add(categoryTotal.total());
+        }
+        return total;
+    }
+
+    public BigDecimal getTotalExpenses(Long userId) {
+        return rollupRepository.sumTotal(userId, EXPENSE);
+    }
+
+    public BigDecimal getTotalIncome(Long userId) {
+        return rollupRepository.sumTotal(userId, INCOME);
+    }
+
+    /**
+     * Recomputes a user's rollups from the raw expenses and incomes tables.
+     */
+    @Transactional
+    public void rebuild(Long userId) {
+        rollupRepository.deleteByUserId(userId);
+        rollupRepository.rebuildExpenses(userId);
+        rollupRepository.rebuildIncomes(userId);
+        eventPublisher.publishEvent(FinanceDataChangedEvent.allPeriods(userId));
+    }
+
+    /**
+     * Recomputes every rollup from the raw tables. Writes that land while this
+     * runs may be counted twice, so run it while the application is quiet.
+     */
+    @Transactional
+    public void rebuildAll() {
+        rollupRepository.deleteAllRollups();
+        rollupRepository.rebuildAllExpenses();
+        rollupRepository.rebuildAllIncomes();
+        eventPublisher.publishEvent(FinanceDataChangedEvent.allUsers());
+    }
+
+    // Backfill on first start after the rollup table was introduced
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0) {
+            System.out.println("=== Rollup table empty, rebuilding from raw data ===");
+            rebuildAll();
+        }
+    }
+
+    // Buckets whose rows were all deleted stay behind with a zero count
+    private List<CategoryTotal> withoutEmpty(List<CategoryTotal> totals) {
+        return totals.stream()
+                .filter(total -> total.count() != null && total.count() != 0)
+                .toList();
+    }
+}
@@ -19,11 +19,17 @@ public class SavingGoalService {
     private SavingGoalRepository repo;
     
     @Autowired
-    private BalanceService balanceService;
+    private LedgerService ledgerService;
     
     @Autowired
     private ExpenseRepository expenseRepository;
     
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private ExpenseCategoryClassifier categoryClassifier;
+    
     public List<SavingGoal> getGoalsByUser(Long userId) {
         return repo.findByUserId(userId);
     }
@@ -34,11 +40,11 @@ public class SavingGoalService {
             goal.setSavedAmount(0.0);
         }
         
-        // If initial amount provided, check balance and create expense
+        // If initial amount provided, debit the balance and create expense
         if (goal.getSavedAmount() > 0) {
-            if (!balanceService.hasEnoughBalance(goal.getUserId(), goal.getSavedAmount())) {
+            if (!ledgerService.tryDebit(goal.getUserId(), BigDecimal.valueOf(goal.getSavedAmount()))) {
                 throw new RuntimeException("Insufficient balance. Available: ₹" + 
-                    balanceService.getAvailableBalance(goal.getUserId()));
+                    ledgerService.getBalance(goal.getUserId()));
             }
             
             // Create expense entry for initial savings amount
@@ -49,27 +55,37 @@ public class SavingGoalService {
         return repo.save(goal);
     }
     
+    /**
+     * Contributes to a goal without a global lock. The conditional ledger
+     * debit row-locks only this user's balance, so contributions from the
+     * same user serialize while other users proceed in parallel, and the
+     * saved amount is incremented in SQL rather than read-modify-written.
+     */
     @Transactional
     public SavingGoal addAmount(Long id, Double amount) {
+        if (amount == null || amount <= 0) {
+            throw new RuntimeException("Amount must be greater than zero");
+        }
+        
         SavingGoal goal = repo.findById(id)
             .orElseThrow(() -> new RuntimeException("Saving goal not found"));
+        Long userId = goal.getUserId();
+        String goalName = goal.getGoalName();
         
-        // Check if user has enough balance
-        if (!balanceService.hasEnoughBalance(goal.getUserId(), amount)) {
+        // Debit the balance; the ledger UPDATE itself rejects an overdraft
+        if (!ledgerService.tryDebit(userId, BigDecimal.valueOf(amount))) {
             throw new RuntimeException("Insufficient balance. Available: ₹" + 
-                balanceService.getAvailableBalance(goal.getUserId()));
+                ledgerService.getBalance(userId));
         }
         
-        // Update saved amount
-        Double current = goal.getSavedAmount();
-        if (current == null) current = 0.0;
-        goal.setSavedAmount(current + amount);
+        // Create expense entry to record the deduction
+        createSavingsExpense(userId, amount, "Savings added to: " + goalName);
         
-        // Create expense entry to deduct from balance
-        createSavingsExpense(goal.getUserId(), amount, 
-            "Savings added to: " + goal.getGoalName());
+        // Update saved amount
+        repo.addToSavedAmount(id, amount);
         
-        return repo.save(goal);
+        return repo.findById(id)
+            .orElseThrow(() -> new RuntimeException("Saving goal not found"));
     }
     
     public void deleteGoal(Long id) {
@@ -78,7 +94,7 @@ public class SavingGoalService {
     
     /**
      * Creates an expense entry for savings
-     * This will automatically reduce the user's balance
+     * The ledger was already debited by tryDebit, so only the rollups are updated here
      */
     private void createSavingsExpense(Long userId, Double amount, String description) {
         Expense expense = new Expense();
@@ -89,5 +105,7 @@ public class SavingGoalService {
         expense.setExpenseDate(LocalDate.now());
         
         expenseRepository.save(expense);
+        rollupService.addExpense(userId, expense.getExpenseDate(), expense.getCategory(), expense.getAmount());
+        categoryClassifier.learn(userId, description, expense.getCategory());
     }
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+package jpademo.jpademo.model.service;
+
+import jpademo.jpademo.model.Expense;
+import jpademo.jpademo.model.ExpenseAnomaly;
+import jpademo.jpademo.model.repository.ExpenseAnomalyRepository;
+import jpademo.jpademo.model.repository.ExpenseRepository;
+import jpademo.jpademo.util.AfterCommit;
+import jpademo.jpademo.util.LoadGuard;
+import jpademo.jpademo.util.LruCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flags unusually large expenses as they are written.
+ * <p>
+ * Keeps a {@link SpendingStats} per (user, category). A user's stats are
+ * rebuilt from their most recent expenses on first touch and evicted when
+ * idle, so no request ever rescans the full history.
+ */
+@Service
+public class SpendingAnomalyDetector {
+
+    // Expenses replayed when a user's stats are rebuilt
+    private static final int REBUILD_WINDOW = 200;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ExpenseAnomalyRepository anomalyRepository;
+
+    private final LruCache<Long, Map<String, SpendingStats>> statsByUser;
+    private final LoadGuard<Long> loads = new LoadGuard<>();
+
+    public SpendingAnomalyDetector(@Value("${anomaly.max-users:5000}") int maxUsers) {
+        this.statsByUser = new LruCache<>(maxUsers);
+    }
+
+    /**
+     * Scores a just-saved expense against the category's history and records
+     * an anomaly in the caller's transaction when it stands out. The expense
+     * joins the history once the transaction commits.
+     */
+    public ExpenseAnomaly observe(Expense expense) {
+        Map<String, SpendingStats> stats = statsFor(expense.getUserId(), expense.getId());
+        double amount = expense.getAmount().doubleValue();
+        
+        ExpenseAnomaly anomaly = null;
+        synchronized (stats) {
+            SpendingStats categoryStats = stats.get(expense.getCategory());
+            if (categoryStats != null && categoryStats.isAnomalous(amount)) {
+                anomaly = new ExpenseAnomaly();
+                anomaly.setUserId(expense.getUserId());
+                anomaly.setExpenseId(expense.getId());
+                anomaly.setCategory(expense.getCategory());
+                anomaly.setAmount(expense.getAmount());
+                anomaly.setExpectedAmount(BigDecimal.valueOf(categoryStats.mean()).setScale(2, RoundingMode.HALF_UP));
+                anomaly.setZScore(Math.min(categoryStats.zScore(amount), 999.0));
+                anomaly.setDetectedAt(LocalDateTime.now());
+            }
+        }
+        if (anomaly != null) {
+            anomalyRepository.save(anomaly);
+        }
+        
+        // Applied to whatever stats are cached by then, which may have been rebuilt meanwhile
+        Long userId = expense.getUserId();
+        AfterCommit.run(() -> {
+            loads.changed(userId);
+            Map<String, SpendingStats> current = statsByUser.get(userId);
+            if (current != null) {
+                synchronized (current) {
+                    current.computeIfAbsent(expense.getCategory(), c -> new SpendingStats()).update(amount);
+                }
+            }
+        });
+        return anomaly;
+    }
+
+    // Up to limit anomalies, newest first, after the (detectedAt, id) cursor when one is given
+    public List<ExpenseAnomaly> getAnomalies(Long userId, LocalDateTime afterDetectedAt, Long afterId, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        if (afterDetectedAt == null) {
+            return anomalyRepository.findByUserIdOrderByDetectedAtDescIdDesc(userId, page);
+        }
+        return anomalyRepository.findPageAfter(userId, afterDetectedAt, afterId, page);
+    }
+
+    // Drops the anomalies recorded for an expense whose amount or category was edited
+    public void discard(Long expenseId) {
+        anomalyRepository.deleteByExpenseId(expenseId);
+    }
+
+    // Drops the user's state once the edit, delete or import commits; it is rebuilt on next use
+    public void evict(Long userId) {
+        AfterCommit.run(() -> {
+            loads.changed(userId);
+            statsByUser.remove(userId);
+        });
+    }
+
+    private Map<String, SpendingStats> statsFor(Long userId, Long excludeExpenseId) {
+        Map<String, SpendingStats> stats = statsByUser.get(userId);
+        if (stats != null) {
+            return stats;
+        }
+        // Replay oldest to newest; the expense being observed is already saved and is skipped
+        LoadGuard.Load load = loads.start(userId);
+        List<Expense> recent;
+        try {
+            recent = expenseRepository.findByUserIdOrderByExpenseDateDescIdDesc(
+                    userId, PageRequest.of(0, REBUILD_WINDOW));
+        } catch (RuntimeException e) {
+            loads.finish(userId, load);
+            throw e;
+        }
+        stats = new HashMap<>();
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            Expense expense = recent.get(i);
+            if (!expense.getId().equals(excludeExpenseId)) {
+                stats.computeIfAbsent(expense.getCategory(), c -> new SpendingStats())
+                        .update(expense.getAmount().doubleValue());
+            }
+        }
+        Map<String, SpendingStats> cached = statsByUser.putIfAbsent(userId, stats);
+        // An expense committed during the rebuild may be missing from it; score with it this once
+        if (!loads.finish(userId, load)) {
+            statsByUser.remove(userId, cached);
+        }
+        return cached;
+    }
+}
@@ -0,0 +1,55 @@
+package jpademo.jpademo.model.service;
+
+/**
+ * Exponentially weighted mean and variance of one user's spending in one
+ * category. O(1) space and time per observation; not thread-safe.
+ */
+public final class SpendingStats {
+
+    // Weight of the newest observation; ~the last 20 expenses dominate
+    static final double ALPHA = 0.1;
+    // No verdicts until the category has this much history
+    static final int MIN_OBSERVATIONS = 5;
+    static final double Z_THRESHOLD = 3.0;
+    // Also require a multiple of the mean, so flat histories don't flag small bumps
+    static final double RATIO_THRESHOLD = 2.0;
+
+    private double mean;
+    private double variance;
+    private long observations;
+
+    public void update(double amount) {
+        if (observations == 0) {
+            mean = amount;
+        } else {
+            double diff = amount - mean;
+            double increment = ALPHA * diff;
+            mean += increment;
+            variance = (1 - ALPHA) * (variance + diff * increment);
+        }
+        observations++;
+    }
+
+    // Standard deviations above the mean; infinite for a larger amount after a perfectly flat history
+    public double zScore(double amount) {
+        double deviation = amount - mean;
+        if (variance <= 0) {
+            return deviation > 0 ? Double.POSITIVE_INFINITY : 0;
+        }
+        return deviation / Math.sqrt(variance);
+    }
+
+    public boolean isAnomalous(double amount) {
+        return observations >= MIN_OBSERVATIONS
+                && amount >= mean * RATIO_THRESHOLD
+                && zScore(amount) >= Z_THRESHOLD;
+    }
+
+    public double mean() {
+        return mean;
+    }
+
+    public long observations() {
+        return observations;
+    }
+}
@@ -0,0 +1,27 @@
+package jpademo.jpademo.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects until the surrounding transaction commits,
+ * so a rollback never leaves caches ahead of the database.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {}
+
+    // Runs immediately when no transaction is active
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package jpademo.jpademo.util;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tells a cache load whether the data it read changed while it ran.
+ * <p>
+ * A load that reads outside the cache lock can miss a write that commits
+ * meanwhile, and the write's after-commit update finds nothing cached to
+ * apply to. The loader calls {@link #start} before reading, caches its
+ * result, then calls {@link #finish} and drops the cached result if it
+ * reports a change; writers call {@link #changed} before updating the
+ * cached value. Only keys with a load in flight are tracked.
+ */
+public class LoadGuard<K> {
+
+    /** One load in flight. */
+    public static final class Load {
+        private volatile boolean changed;
+    }
+
+    private final Map<K, Set<Load>> loading = new ConcurrentHashMap<>();
+
+    public Load start(K key) {
+        Load load = new Load();
+        loading.compute(key, (k, loads) -> {
+            Set<Load> updated = loads == null ? new HashSet<>() : loads;
+            updated.add(load);
+            return updated;
+        });
+        return load;
+    }
+
+    // Marks every load in flight for the key
+    public void changed(K key) {
+        loading.computeIfPresent(key, (k, loads) -> {
+            loads.forEach(load -> load.changed = true);
+            return loads;
+        });
+    }
+
+    // Marks every load in flight, for changes not scoped to one key
+    public void changedAll() {
+        loading.replaceAll((k, loads) -> {
+            loads.forEach(load -> load.changed = true);
+            return loads;
+        });
+    }
+
+    // True when nothing changed since the load started
+    public boolean finish(K key, Load load) {
+        loading.computeIfPresent(key, (k, loads) -> {
+            loads.remove(load);
+            return loads.isEmpty() ? null : loads;
+        });
+        return !load.changed;
+    }
+
+    // Keys with a load in flight
+    public int size() {
+        return loading.size();
+    }
+}
@@ -0,0 +1,177 @@
+package jpademo.jpademo.util;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Size-bounded map that evicts the least recently used entry, and optionally
+ * expires entries a fixed time after they were written.
+ * All operations synchronize on the cache; values should be cheap to hand out.
+ * An optional listener hears about the keys the cache drops on its own, by
+ * size or age; it runs under the cache lock and must not call back into it.
+ */
+public class LruCache<K, V> {
+
+    /** Counters since the cache was created; evictions are for size, expirations for age. */
+    public record Stats(long hits, long misses, long evictions, long expirations, int size, int maxEntries) {
+
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final int maxEntries;
+    // 0 when entries never expire
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Consumer<? super K> onDrop;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public LruCache(int maxEntries) {
+        this(maxEntries, Duration.ZERO);
+    }
+
+    public LruCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+
+    // The clock is in nanoseconds; tests pass their own to step through expiry
+    public LruCache(int maxEntries, Duration ttl, LongSupplier clock) {
+        this(maxEntries, ttl, clock, key -> { });
+    }
+
+    public LruCache(int maxEntries, Duration ttl, LongSupplier clock, Consumer<? super K> onDrop) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        if (ttl.isNegative()) {
+            throw new IllegalArgumentException("ttl must not be negative");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+        this.onDrop = onDrop;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() <= LruCache.this.maxEntries) {
+                    return false;
+                }
+                if (isExpired(eldest.getValue())) {
+                    expirations++;
+                } else {
+                    evictions++;
+                }
+                LruCache.this.onDrop.accept(eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        V value = live(key);
+        if (value != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, entry(value));
+    }
+
+    // Keeps an existing value; returns whichever value is cached afterwards
+    public synchronized V putIfAbsent(K key, V value) {
+        V existing = live(key);
+        if (existing != null) {
+            return existing;
+        }
+        entries.put(key, entry(value));
+        return value;
+    }
+
+    public synchronized V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                entries.put(key, entry(value));
+            }
+        }
+        return value;
+    }
+
+    public synchronized V remove(K key) {
+        Entry<V> removed = entries.remove(key);
+        return removed != null && !isExpired(removed) ? removed.value() : null;
+    }
+
+    // Removes the entry only while it still holds the given value
+    public synchronized boolean remove(K key, V value) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.value() != value) {
+            return false;
+        }
+        entries.remove(key);
+        return true;
+    }
+
+    public synchronized void removeIf(Predicate<? super K> condition) {
+        entries.keySet().removeIf(condition);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int maxEntries() {
+        return maxEntries;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, expirations, entries.size(), maxEntries);
+    }
+
+    // The value if present and not expired; drops an expired entry
+    private V live(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry)) {
+            entries.remove(key);
+            expirations++;
+            onDrop.accept(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    private Entry<V> entry(V value) {
+        return new Entry<>(value, ttlNanos == 0 ? Long.MAX_VALUE : clock.getAsLong() + ttlNanos);
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return entry.expiresAt() != Long.MAX_VALUE && clock.getAsLong() - entry.expiresAt() >= 0;
+    }
+}
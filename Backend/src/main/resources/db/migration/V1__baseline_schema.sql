@@ -0,0 +1,89 @@
+-- Schema as previously generated by spring.jpa.hibernate.ddl-auto=update.
+-- Existing databases are baselined at this version and skip this script.
+
+CREATE TABLE IF NOT EXISTS `user` (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    role VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_user_email UNIQUE (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS expenses (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    amount DECIMAL(38,2) NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    description VARCHAR(255),
+    expense_date DATE NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS incomes (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    amount DECIMAL(38,2) NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    description VARCHAR(255),
+    income_date DATE NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS budgets (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    limit_amount DECIMAL(38,2) NOT NULL,
+    period VARCHAR(20) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS saving_goals (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT,
+    goal_name VARCHAR(255),
+    target_amount FLOAT(53),
+    saved_amount FLOAT(53),
+    deadline VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS forum_posts (
+    id VARCHAR(255) NOT NULL,
+    title VARCHAR(255),
+    content TEXT,
+    category VARCHAR(255),
+    author_name VARCHAR(255),
+    author_id VARCHAR(255),
+    timestamp DATETIME(6),
+    likes INTEGER NOT NULL,
+    dislikes INTEGER NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS forum_comments (
+    id VARCHAR(255) NOT NULL,
+    post_id VARCHAR(255),
+    author_name VARCHAR(255),
+    author_id VARCHAR(255),
+    text TEXT,
+    timestamp DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_forum_comments_post FOREIGN KEY (post_id) REFERENCES forum_posts (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS forum_post_likes (
+    post_id VARCHAR(255) NOT NULL,
+    user_id VARCHAR(255),
+    CONSTRAINT fk_forum_post_likes_post FOREIGN KEY (post_id) REFERENCES forum_posts (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS forum_post_dislikes (
+    post_id VARCHAR(255) NOT NULL,
+    user_id VARCHAR(255),
+    CONSTRAINT fk_forum_post_dislikes_post FOREIGN KEY (post_id) REFERENCES forum_posts (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,18 @@
+-- Composite indexes for the per-user access paths.
+-- InnoDB appends the primary key to every secondary index, so
+-- (user_id, expense_date) also serves the (expense_date, id) keyset order.
+
+CREATE INDEX idx_expenses_user_date ON expenses (user_id, expense_date);
+CREATE INDEX idx_expenses_user_category_date ON expenses (user_id, category, expense_date);
+CREATE INDEX idx_incomes_user_date ON incomes (user_id, income_date);
+CREATE INDEX idx_saving_goals_user ON saving_goals (user_id);
+
+-- BudgetController upserts by (user_id, category); keep the newest row of any duplicates
+DELETE FROM budgets
+WHERE id NOT IN (
+    SELECT keep_id FROM (
+        SELECT MAX(id) AS keep_id FROM budgets GROUP BY user_id, category
+    ) AS newest
+);
+
+ALTER TABLE budgets ADD CONSTRAINT uk_budgets_user_category UNIQUE (user_id, category);
@@ -0,0 +1,15 @@
+-- Expenses flagged by the online spending anomaly detector
+
+CREATE TABLE expense_anomalies (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    expense_id BIGINT NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    amount DECIMAL(38,2) NOT NULL,
+    expected_amount DECIMAL(38,2) NOT NULL,
+    z_score DOUBLE NOT NULL,
+    detected_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_expense_anomalies_user_detected ON expense_anomalies (user_id, detected_at);
@@ -0,0 +1,3 @@
+-- Keyset order of the forum feed: newest first, id breaks timestamp ties
+
+CREATE INDEX idx_forum_posts_timestamp_id ON forum_posts (timestamp, id);
@@ -0,0 +1,27 @@
+-- One row per (post, user) reaction, replacing the forum_post_likes and
+-- forum_post_dislikes element collections that were rewritten on every toggle
+
+CREATE TABLE forum_post_reactions (
+    post_id VARCHAR(255) NOT NULL,
+    user_id VARCHAR(255) NOT NULL,
+    reaction VARCHAR(10) NOT NULL,
+    PRIMARY KEY (post_id, user_id),
+    CONSTRAINT fk_forum_post_reactions_post FOREIGN KEY (post_id) REFERENCES forum_posts (id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+INSERT INTO forum_post_reactions (post_id, user_id, reaction)
+SELECT DISTINCT post_id, user_id, 'LIKE' FROM forum_post_likes WHERE user_id IS NOT NULL;
+
+-- The old endpoints kept the two sets disjoint; should a user be in both, the like wins
+INSERT INTO forum_post_reactions (post_id, user_id, reaction)
+SELECT DISTINCT d.post_id, d.user_id, 'DISLIKE' FROM forum_post_dislikes d
+WHERE d.user_id IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM forum_post_reactions r WHERE r.post_id = d.post_id AND r.user_id = d.user_id);
+
+-- Counters may have drifted under lost updates; restart them from the rows
+UPDATE forum_posts p SET
+    likes = (SELECT COUNT(*) FROM forum_post_reactions r WHERE r.post_id = p.id AND r.reaction = 'LIKE'),
+    dislikes = (SELECT COUNT(*) FROM forum_post_reactions r WHERE r.post_id = p.id AND r.reaction = 'DISLIKE');
+
+DROP TABLE forum_post_likes;
+DROP TABLE forum_post_dislikes;
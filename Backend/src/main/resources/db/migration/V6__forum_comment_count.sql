@@ -0,0 +1,10 @@
+-- Comment threads are read a page at a time in (timestamp, id) order within a post;
+-- InnoDB appends the primary key, so this index also serves the id tie-break
+
+CREATE INDEX idx_forum_comments_post_timestamp ON forum_comments (post_id, timestamp);
+
+-- Denormalized count kept by the append-only comment insert
+ALTER TABLE forum_posts ADD COLUMN comment_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE forum_posts p SET
+    comment_count = (SELECT COUNT(*) FROM forum_comments c WHERE c.post_id = p.id);
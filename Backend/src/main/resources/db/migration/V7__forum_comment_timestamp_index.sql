@@ -0,0 +1,3 @@
+-- Search index catch-up on startup looks for comments written since its last snapshot
+
+CREATE INDEX idx_forum_comments_timestamp ON forum_comments (timestamp);
@@ -0,0 +1,23 @@
+-- Tables added after the baseline. Databases baselined at version 1 skip V1,
+-- so they are created here; IF NOT EXISTS covers schemas where
+-- ddl-auto=update already created them. RollupService backfills an empty
+-- rollup table on startup and LedgerService seeds each ledger on first use.
+
+CREATE TABLE IF NOT EXISTS monthly_rollups (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    kind VARCHAR(10) NOT NULL,
+    rollup_month VARCHAR(7) NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    total_amount DECIMAL(38,2) NOT NULL,
+    entry_count BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_rollup_user_kind_month_category UNIQUE (user_id, kind, rollup_month, category)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS balance_ledgers (
+    user_id BIGINT NOT NULL,
+    balance DECIMAL(38,2) NOT NULL,
+    updated_at DATETIME(6),
+    PRIMARY KEY (user_id)
+) ENGINE=InnoDB;
@@ -0,0 +1,7 @@
+-- An anomaly belongs to its expense: drop rows left behind by deleted
+-- expenses, then let the database delete anomalies together with their expense
+
+DELETE FROM expense_anomalies WHERE expense_id NOT IN (SELECT id FROM expenses);
+
+ALTER TABLE expense_anomalies ADD CONSTRAINT fk_expense_anomalies_expense
+    FOREIGN KEY (expense_id) REFERENCES expenses (id) ON DELETE CASCADE;
@@ -0,0 +1,79 @@
+package jpademo.jpademo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import jakarta.persistence.EntityManagerFactory;
+import jpademo.jpademo.model.Budget;
+import jpademo.jpademo.model.repository.BudgetRepository;
+import jpademo.jpademo.model.service.RollupService;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class BudgetAlertsQueryCountTests {
+
+	private static final Long USER_ID = 990_000_004L;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private BudgetRepository budgetRepository;
+
+	@Autowired
+	private RollupService rollupService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@AfterEach
+	void cleanUp() {
+		budgetRepository.deleteAll(budgetRepository.findByUserId(USER_ID));
+		// No raw expenses exist for this user, so a rebuild clears the test rollups
+		rollupService.rebuild(USER_ID);
+	}
+
+	@Test
+	void alertsIssueConstantStatementCountRegardlessOfBudgets() throws Exception {
+		addBudgetsWithSpend(0, 1);
+		long withOneBudget = statementsForAlertRequest();
+
+		addBudgetsWithSpend(1, 12);
+		long withTwelveBudgets = statementsForAlertRequest();
+
+		assertEquals(withOneBudget, withTwelveBudgets);
+	}
+
+	private void addBudgetsWithSpend(int from, int to) {
+		for (int i = from; i < to; i++) {
+			String category = "QueryCount" + i;
+			Budget budget = new Budget();
+			budget.setUserId(USER_ID);
+			budget.setCategory(category);
+			budget.setLimitAmount(new BigDecimal("100.00"));
+			budget.setPeriod("monthly");
+			budgetRepository.save(budget);
+			rollupService.addExpense(USER_ID, LocalDate.now(), category, new BigDecimal("90.00"));
+		}
+	}
+
+	private long statementsForAlertRequest() throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		mockMvc.perform(get("/api/budgets/alerts/{userId}", USER_ID)).andExpect(status().isOk());
+		return statistics.getPrepareStatementCount();
+	}
+}
@@ -0,0 +1,136 @@
+package jpademo.jpademo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jpademo.jpademo.model.Expense;
+import jpademo.jpademo.model.repository.ExpenseRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExpenseExportTests {
+
+	private static final Long USER_ID = 990_000_008L;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private Expense lunch;
+	private Expense taxi;
+	private Expense gift;
+
+	@BeforeEach
+	void seed() {
+		lunch = save("12.50", "Food", "Lunch", LocalDate.of(2024, 3, 1));
+		taxi = save("30.00", "Transport", "Taxi, airport", LocalDate.of(2024, 3, 2));
+		gift = save("45.99", "Shopping", "Book \"Dune\"", LocalDate.of(2024, 3, 2));
+		// Another user's rows stay out of the export
+		Expense other = new Expense();
+		other.setUserId(USER_ID + 1);
+		other.setAmount(new BigDecimal("99.00"));
+		other.setCategory("Food");
+		other.setExpenseDate(LocalDate.of(2024, 3, 3));
+		expenseRepository.save(other);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM expenses WHERE user_id IN (?, ?)", USER_ID, USER_ID + 1);
+	}
+
+	@Test
+	void csvExportQuotesFieldsAndListsNewestFirst() throws Exception {
+		MvcResult result = export("csv");
+
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("text/csv"))
+				.andExpect(header().string("Content-Disposition", "attachment; filename=\"expenses-" + USER_ID + ".csv\""));
+		assertEquals("id,date,amount,category,description\n"
+				+ gift.getId() + ",2024-03-02,45.99,Shopping,\"Book \"\"Dune\"\"\"\n"
+				+ taxi.getId() + ",2024-03-02,30.00,Transport,\"Taxi, airport\"\n"
+				+ lunch.getId() + ",2024-03-01,12.50,Food,Lunch\n",
+				result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void ndjsonExportWritesOneExpenseObjectPerLine() throws Exception {
+		MvcResult result = export("ndjson");
+
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("application/x-ndjson"))
+				.andExpect(header().string("Content-Disposition", "attachment; filename=\"expenses-" + USER_ID + ".ndjson\""));
+		String body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+		List<String> lines = body.lines().toList();
+		assertEquals(3, lines.size());
+		assertEquals('\n', body.charAt(body.length() - 1));
+
+		List<Expense> expected = List.of(gift, taxi, lunch);
+		for (int i = 0; i < lines.size(); i++) {
+			JsonNode row = objectMapper.readTree(lines.get(i));
+			assertEquals(expected.get(i).getId(), row.get("id").asLong());
+			assertEquals(USER_ID, row.get("userId").asLong());
+			assertEquals(0, expected.get(i).getAmount().compareTo(row.get("amount").decimalValue()), row.toString());
+			assertEquals(expected.get(i).getCategory(), row.get("category").asText());
+			assertEquals(expected.get(i).getDescription(), row.get("description").asText());
+			assertEquals(expected.get(i).getExpenseDate().toString(), row.get("expenseDate").asText());
+		}
+	}
+
+	@Test
+	void userWithoutExpensesGetsAHeaderOnlyCsv() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/expenses/user/{userId}/export", USER_ID + 2))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+		assertEquals("id,date,amount,category,description\n", result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+	}
+
+	private MvcResult export(String format) throws Exception {
+		return mockMvc.perform(get("/api/expenses/user/{userId}/export", USER_ID).param("format", format))
+				.andExpect(request().asyncStarted()).andReturn();
+	}
+
+	private Expense save(String amount, String category, String description, LocalDate date) {
+		Expense expense = new Expense();
+		expense.setUserId(USER_ID);
+		expense.setAmount(new BigDecimal(amount));
+		expense.setCategory(category);
+		expense.setDescription(description);
+		expense.setExpenseDate(date);
+		return expenseRepository.save(expense);
+	}
+}
@@ -0,0 +1,148 @@
+package jpademo.jpademo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jpademo.jpademo.model.Expense;
+import jpademo.jpademo.model.repository.ExpenseRepository;
+import jpademo.jpademo.util.CursorCodec;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExpensePagingTests {
+
+	private static final Long USER_ID = 990_000_001L;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	// Newest first; the three on March 2nd are ordered by id, highest first
+	private final List<Long> newestFirst = new ArrayList<>();
+
+	@BeforeEach
+	void seed() {
+		Long first = save(LocalDate.of(2024, 3, 1));
+		Long tieA = save(LocalDate.of(2024, 3, 2));
+		Long tieB = save(LocalDate.of(2024, 3, 2));
+		Long tieC = save(LocalDate.of(2024, 3, 2));
+		Long latest = save(LocalDate.of(2024, 3, 5));
+		Long older = save(LocalDate.of(2024, 2, 28));
+		newestFirst.addAll(List.of(latest, tieC, tieB, tieA, first, older));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM expenses WHERE user_id = ?", USER_ID);
+	}
+
+	@Test
+	void pagesWalkEveryExpenseOnceNewestFirstWithDateTiesBrokenById() throws Exception {
+		List<Long> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		while (true) {
+			MockHttpServletRequestBuilder request = get("/api/expenses/user/{userId}", USER_ID).param("limit", "2");
+			if (cursor != null) {
+				request.param("after", cursor);
+			}
+			JsonNode page = read(request);
+			pages++;
+			assertTrue(page.get("items").size() <= 2);
+			page.get("items").forEach(item -> seen.add(item.get("id").asLong()));
+			if (!page.get("hasMore").asBoolean()) {
+				assertTrue(page.get("nextCursor").isNull());
+				break;
+			}
+			cursor = page.get("nextCursor").asText();
+		}
+
+		assertEquals(newestFirst, seen);
+		// Six rows in pages of two; the third page ends the walk because there is no seventh row
+		assertEquals(3, pages);
+	}
+
+	@Test
+	void aPageBoundaryInsideADateTieResumesAtTheNextLowerId() throws Exception {
+		JsonNode first = read(get("/api/expenses/user/{userId}", USER_ID).param("limit", "3"));
+		assertTrue(first.get("hasMore").asBoolean());
+		assertEquals(newestFirst.get(2), first.get("items").get(2).get("id").asLong());
+		assertEquals(CursorCodec.encode("2024-03-02", newestFirst.get(2).toString()), first.get("nextCursor").asText());
+
+		JsonNode second = read(get("/api/expenses/user/{userId}", USER_ID).param("limit", "1")
+				.param("after", first.get("nextCursor").asText()));
+		assertEquals(1, second.get("items").size());
+		assertEquals(newestFirst.get(3), second.get("items").get(0).get("id").asLong());
+	}
+
+	@Test
+	void withoutPagingParametersEveryExpenseComesBackAsAList() throws Exception {
+		JsonNode all = read(get("/api/expenses/user/{userId}", USER_ID));
+
+		assertTrue(all.isArray());
+		assertEquals(newestFirst.size(), all.size());
+	}
+
+	@Test
+	void lastPageHasNoCursor() throws Exception {
+		JsonNode page = read(get("/api/expenses/user/{userId}", USER_ID).param("limit", "6"));
+
+		assertEquals(6, page.get("items").size());
+		assertFalse(page.get("hasMore").asBoolean());
+		assertTrue(page.get("nextCursor").isNull());
+	}
+
+	@Test
+	void invalidCursorIsABadRequest() throws Exception {
+		for (String cursor : List.of("not a cursor", CursorCodec.encode("2024-03-02"),
+				CursorCodec.encode("yesterday", "12"), CursorCodec.encode("2024-03-02", "twelve"))) {
+			mockMvc.perform(get("/api/expenses/user/{userId}", USER_ID).param("after", cursor))
+					.andExpect(status().isBadRequest())
+					.andExpect(content().string("Invalid cursor"));
+		}
+	}
+
+	private JsonNode read(MockHttpServletRequestBuilder request) throws Exception {
+		String body = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private Long save(LocalDate date) {
+		Expense expense = new Expense();
+		expense.setUserId(USER_ID);
+		expense.setAmount(new BigDecimal("10.00"));
+		expense.setCategory("Food");
+		expense.setExpenseDate(date);
+		return expenseRepository.save(expense).getId();
+	}
+}
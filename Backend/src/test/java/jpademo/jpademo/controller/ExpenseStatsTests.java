@@ -0,0 +1,151 @@
+package jpademo.jpademo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jpademo.jpademo.model.Expense;
+import jpademo.jpademo.model.repository.ExpenseRepository;
+import jpademo.jpademo.model.service.ExpenseImportService;
+import jpademo.jpademo.model.service.RollupService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExpenseStatsTests {
+
+	private static final Long USER_ID = 990_000_002L;
+	private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ExpenseImportService importService;
+
+	@Autowired
+	private RollupService rollupService;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM expenses WHERE user_id = ?", USER_ID);
+		jdbcTemplate.update("DELETE FROM balance_ledgers WHERE user_id = ?", USER_ID);
+		rollupService.rebuild(USER_ID);
+	}
+
+	@Test
+	void statsMatchTheExpenseRows() throws Exception {
+		String csv = "amount,category,date\n"
+				+ "54.20,Food," + LocalDate.now() + "\n"
+				+ "4.80,Food,2024-03-02\n"
+				+ "30.00,Transport,2024-03-03\n";
+		importService.importCsv(USER_ID, new BufferedReader(new StringReader(csv)));
+
+		JsonNode stats = stats();
+
+		assertEquals(89.0, stats.get("totalExpenses").asDouble(), 1e-9);
+		assertEquals(54.2, stats.get("monthlyExpenses").asDouble(), 1e-9);
+		assertEquals(3, stats.get("expenseCount").asLong());
+		assertEquals(59.0, stats.get("categoryTotals").get("Food").asDouble(), 1e-9);
+		assertEquals(30.0, stats.get("categoryTotals").get("Transport").asDouble(), 1e-9);
+	}
+
+	@Test
+	@Tag("benchmark")
+	void statsLatencyAtTenThousandToAMillionExpenses() throws Exception {
+		int imported = 0;
+		for (int size : new int[] {10_000, 100_000, 1_000_000}) {
+			importService.importCsv(USER_ID, generated(imported, size));
+			imported = size;
+
+			// What the endpoint used to do: load every expense entity and total them in Java
+			long[] entities = time(3, () -> {
+				Map<String, BigDecimal> totals = new HashMap<>();
+				for (Expense expense : expenseRepository.findByUserId(USER_ID)) {
+					totals.merge(expense.getCategory(), expense.getAmount(), BigDecimal::add);
+				}
+			});
+			// Now: the endpoint reads the monthly rollups
+			long[] rollups = time(50, () -> stats());
+
+			System.out.printf("Expense stats, %d expenses: entity load p50 %.1f ms, rollup endpoint p50 %.2f ms p99 %.2f ms%n",
+					size, entities[entities.length / 2] / 1e6, rollups[rollups.length / 2] / 1e6,
+					rollups[rollups.length * 99 / 100] / 1e6);
+			assertEquals(size, stats().get("expenseCount").asLong());
+			assertTrue(rollups[rollups.length / 2] < 50_000_000L, "median stats request took "
+					+ rollups[rollups.length / 2] / 1e6 + " ms");
+		}
+	}
+
+	private JsonNode stats() throws Exception {
+		String body = mockMvc.perform(get("/api/expenses/stats/{userId}", USER_ID)).andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	// Rows from+1 to to, a thousand a day over a dozen categories
+	private static BufferedReader generated(int from, int to) {
+		return new BufferedReader(Reader.nullReader()) {
+			private int row = from - 1;
+
+			@Override
+			public String readLine() {
+				row++;
+				if (row == from) {
+					return "amount,category,date";
+				}
+				if (row > to) {
+					return null;
+				}
+				return (row % 5000) / 100.0 + ",Category" + row % 12 + "," + FIRST_DAY.plusDays(row / 1000);
+			}
+		};
+	}
+
+	private interface Run {
+		void run() throws Exception;
+	}
+
+	// Sorted wall times of the given number of runs, after one warm-up
+	private static long[] time(int runs, Run run) throws Exception {
+		run.run();
+		long[] nanos = new long[runs];
+		for (int i = 0; i < runs; i++) {
+			long start = System.nanoTime();
+			run.run();
+			nanos[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(nanos);
+		return nanos;
+	}
+}
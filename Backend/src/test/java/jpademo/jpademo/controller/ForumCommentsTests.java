@@ -0,0 +1,152 @@
+package jpademo.jpademo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+import jpademo.jpademo.forum.model.ForumPost;
+import jpademo.jpademo.model.repository.ForumPostRepository;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class ForumCommentsTests {
+
+	private static final String AUTHOR = "990000023";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ForumPostRepository forumPostRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final List<ForumPost> created = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		// By id, so each post is loaded with its current comments before the cascade
+		created.forEach(post -> forumPostRepository.deleteById(post.getId()));
+	}
+
+	@Test
+	void addingACommentReturnsOnlyThatCommentAndCountsIt() throws Exception {
+		String postId = newPost();
+
+		JsonNode comment = comment(postId, "First!");
+
+		assertEquals("First!", comment.get("text").asText());
+		assertEquals(AUTHOR, comment.get("authorId").asText());
+		assertTrue(comment.hasNonNull("id"));
+		assertFalse(comment.has("post"));
+		assertFalse(comment.has("comments"));
+		assertEquals(1, forumPostRepository.findById(postId).orElseThrow().getCommentCount());
+	}
+
+	@Test
+	void pagesWalkTheThreadOldestFirst() throws Exception {
+		String postId = newPost();
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			expected.add(comment(postId, "Comment " + i).get("id").asText());
+		}
+
+		List<String> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			MockHttpServletRequestBuilder request = get("/api/forum/posts/{id}/comments", postId).param("limit", "3");
+			if (cursor != null) {
+				request.param("after", cursor);
+			}
+			JsonNode page = fetch(request);
+			page.get("items").forEach(item -> seen.add(item.get("id").asText()));
+			cursor = page.get("hasMore").asBoolean() ? page.get("nextCursor").asText() : null;
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(3, pages);
+		assertEquals(expected, seen);
+	}
+
+	@Test
+	void invalidCursorIsRejected() throws Exception {
+		mockMvc.perform(get("/api/forum/posts/{id}/comments", newPost()).param("after", "not-a-cursor"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void commentInsertCostDoesNotGrowWithTheThread() throws Exception {
+		String postId = newPost();
+		long first = statementsForComment(postId);
+		for (int i = 0; i < 30; i++) {
+			comment(postId, "Filler " + i);
+		}
+		long thirtySecond = statementsForComment(postId);
+
+		assertEquals(first, thirtySecond);
+		assertEquals(32, forumPostRepository.findById(postId).orElseThrow().getCommentCount());
+	}
+
+	private String newPost() {
+		ForumPost post = new ForumPost();
+		post.setTitle("Comments test");
+		post.setContent("Comments test content");
+		post.setCategory("General");
+		post.setAuthorName("comments-test");
+		post.setAuthorId(AUTHOR);
+		post.setTimestamp(LocalDateTime.now());
+		ForumPost saved = forumPostRepository.save(post);
+		created.add(saved);
+		return saved.getId();
+	}
+
+	private MockHttpServletRequestBuilder commentRequest(String postId, String text) throws Exception {
+		String body = objectMapper.writeValueAsString(
+				Map.of("text", text, "authorName", "comments-test", "authorId", AUTHOR));
+		return post("/api/forum/posts/{id}/comments", postId).contentType(MediaType.APPLICATION_JSON).content(body);
+	}
+
+	private JsonNode comment(String postId, String text) throws Exception {
+		return fetch(commentRequest(postId, text));
+	}
+
+	private JsonNode fetch(MockHttpServletRequestBuilder request) throws Exception {
+		String body = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private long statementsForComment(String postId) throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		comment(postId, "Counted");
+		return statistics.getPrepareStatementCount();
+	}
+}
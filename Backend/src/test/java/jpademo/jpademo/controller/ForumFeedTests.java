@@ -0,0 +1,179 @@
+package jpademo.jpademo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+import jpademo.jpademo.forum.model.ForumPost;
+import jpademo.jpademo.forum.model.ForumReaction;
+import jpademo.jpademo.forum.model.ReactionType;
+import jpademo.jpademo.model.repository.ForumPostRepository;
+import jpademo.jpademo.model.repository.ForumReactionRepository;
+import jpademo.jpademo.model.service.ForumCommentService;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class ForumFeedTests {
+
+	private static final String VIEWER = "990000021";
+	// Far enough ahead that posts left by other tests never interleave with these
+	private static final LocalDateTime NEWEST = LocalDateTime.of(2999, 1, 1, 12, 0);
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ForumPostRepository forumPostRepository;
+
+	@Autowired
+	private ForumReactionRepository forumReactionRepository;
+
+	@Autowired
+	private ForumCommentService forumCommentService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final List<ForumPost> created = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		// By id, so each post is loaded with its current comments before the cascade
+		created.forEach(post -> forumPostRepository.deleteById(post.getId()));
+	}
+
+	@Test
+	void pagesWalkTheFeedNewestFirstWithoutGapsOrRepeats() throws Exception {
+		// Three posts share a timestamp, so the id has to break the tie across page boundaries
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			expected.add(post(NEWEST.minusMinutes(i < 3 ? 0 : i), 0, false).getId());
+		}
+		List<String> seen = new ArrayList<>();
+		String cursor = null;
+		do {
+			MockHttpServletRequestBuilder request = get("/api/forum/posts/feed").param("limit", "2");
+			if (cursor != null) {
+				request.param("before", cursor);
+			}
+			JsonNode page = fetch(request);
+			for (JsonNode item : page.get("items")) {
+				if (item.get("timestamp").asText().startsWith("2999")) {
+					seen.add(item.get("id").asText());
+				}
+			}
+			cursor = page.get("hasMore").asBoolean() ? page.get("nextCursor").asText() : null;
+		} while (cursor != null && seen.size() < expected.size());
+
+		assertEquals(expected.size(), seen.size());
+		assertEquals(expected.size(), seen.stream().distinct().count());
+		assertTrue(seen.containsAll(expected));
+		for (int i = 1; i < seen.size(); i++) {
+			ForumPost previous = forumPostRepository.findById(seen.get(i - 1)).orElseThrow();
+			ForumPost current = forumPostRepository.findById(seen.get(i)).orElseThrow();
+			int order = current.getTimestamp().compareTo(previous.getTimestamp());
+			assertTrue(order < 0 || (order == 0 && current.getId().compareTo(previous.getId()) < 0));
+		}
+	}
+
+	@Test
+	void summariesCarryCountsAndTheViewersReaction() throws Exception {
+		ForumPost liked = post(NEWEST, 3, true);
+		post(NEWEST.minusMinutes(1), 0, false);
+
+		JsonNode items = fetch(get("/api/forum/posts/feed").param("limit", "2").param("userId", VIEWER)).get("items");
+
+		assertEquals(liked.getId(), items.get(0).get("id").asText());
+		assertEquals(3, items.get(0).get("commentCount").asLong());
+		assertEquals(2, items.get(0).get("likes").asInt());
+		assertTrue(items.get(0).get("likedByMe").asBoolean());
+		assertFalse(items.get(0).get("dislikedByMe").asBoolean());
+		assertFalse(items.get(0).has("likedBy"));
+		assertFalse(items.get(0).has("comments"));
+		assertEquals(0, items.get(1).get("commentCount").asLong());
+		assertFalse(items.get(1).get("likedByMe").asBoolean());
+	}
+
+	@Test
+	void invalidCursorIsRejected() throws Exception {
+		mockMvc.perform(get("/api/forum/posts/feed").param("before", "not-a-cursor"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void feedPageIssuesConstantStatementCountRegardlessOfPageSize() throws Exception {
+		for (int i = 0; i < 12; i++) {
+			post(NEWEST.minusMinutes(i), 2, true);
+		}
+
+		long smallPage = statementsForFeed(1);
+		long fullPage = statementsForFeed(12);
+
+		assertEquals(1, smallPage);
+		assertEquals(smallPage, fullPage);
+	}
+
+	private ForumPost post(LocalDateTime timestamp, int comments, boolean likedByViewer) {
+		ForumPost post = new ForumPost();
+		post.setTitle("Feed test");
+		post.setContent("Feed test content");
+		post.setCategory("General");
+		post.setAuthorName("feed-test");
+		post.setAuthorId(VIEWER);
+		post.setTimestamp(timestamp);
+		ForumPost saved = forumPostRepository.save(post);
+		created.add(saved);
+		for (int i = 0; i < comments; i++) {
+			forumCommentService.addComment(saved.getId(), "feed-test", "1", "Comment " + i);
+		}
+		if (likedByViewer) {
+			like(saved, VIEWER);
+			like(saved, "1");
+			forumPostRepository.addReactionCounts(saved.getId(), 2, 0);
+		}
+		return saved;
+	}
+
+	private void like(ForumPost post, String userId) {
+		ForumReaction reaction = new ForumReaction();
+		reaction.setPostId(post.getId());
+		reaction.setUserId(userId);
+		reaction.setReaction(ReactionType.LIKE);
+		forumReactionRepository.save(reaction);
+	}
+
+	private JsonNode fetch(MockHttpServletRequestBuilder request) throws Exception {
+		String body = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private long statementsForFeed(int limit) throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		fetch(get("/api/forum/posts/feed").param("limit", String.valueOf(limit)).param("userId", VIEWER));
+		return statistics.getPrepareStatementCount();
+	}
+}
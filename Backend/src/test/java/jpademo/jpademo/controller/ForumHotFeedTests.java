@@ -0,0 +1,127 @@
+package jpademo.jpademo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jpademo.jpademo.model.repository.ForumPostRepository;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class ForumHotFeedTests {
+
+	private static final String AUTHOR = "990000025";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ForumPostRepository forumPostRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final List<String> created = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		created.stream().filter(forumPostRepository::existsById).forEach(forumPostRepository::deleteById);
+	}
+
+	@Test
+	void reactionsAndCommentsMovePostsUpTheFeed() throws Exception {
+		String older = createPost("Hot test: older");
+		String newer = createPost("Hot test: newer");
+		assertEquals(List.of(newer, older), ours(walk(50)));
+
+		for (int user = 0; user < 20; user++) {
+			react(older, "like", "hot-liker-" + user);
+		}
+		assertEquals(List.of(older, newer), ours(walk(50)));
+
+		for (int i = 0; i < 20; i++) {
+			comment(newer, "Me too " + i);
+		}
+		List<JsonNode> feed = walk(3);
+		assertEquals(List.of(newer, older), ours(feed));
+		JsonNode top = feed.stream().filter(item -> item.get("id").asText().equals(newer)).findFirst().orElseThrow();
+		assertEquals(20, top.get("commentCount").asInt());
+	}
+
+	@Test
+	void deletedPostsLeaveTheFeed() throws Exception {
+		String postId = createPost("Hot test: deleted");
+
+		mockMvc.perform(delete("/api/forum/posts/{id}", postId).param("userId", AUTHOR)).andExpect(status().isOk());
+
+		assertFalse(ours(walk(50)).contains(postId));
+	}
+
+	@Test
+	void invalidCursorIsRejected() throws Exception {
+		mockMvc.perform(get("/api/forum/posts/hot").param("after", "not-a-cursor")).andExpect(status().isBadRequest());
+	}
+
+	private String createPost(String title) throws Exception {
+		String body = objectMapper.writeValueAsString(Map.of("title", title, "content", "Hot feed test",
+				"category", "General", "authorName", "hot-test", "authorId", AUTHOR));
+		String id = fetch(post("/api/forum/posts").contentType(MediaType.APPLICATION_JSON).content(body))
+				.get("id").asText();
+		created.add(id);
+		return id;
+	}
+
+	private void react(String postId, String reaction, String userId) throws Exception {
+		String body = objectMapper.writeValueAsString(Map.of("userId", userId));
+		fetch(post("/api/forum/posts/{id}/" + reaction, postId).contentType(MediaType.APPLICATION_JSON).content(body));
+	}
+
+	private void comment(String postId, String text) throws Exception {
+		String body = objectMapper.writeValueAsString(Map.of("text", text, "authorName", "hot-test", "authorId", AUTHOR));
+		fetch(post("/api/forum/posts/{id}/comments", postId).contentType(MediaType.APPLICATION_JSON).content(body));
+	}
+
+	// The whole feed, page by page; it also holds posts other tests left in the ranking
+	private List<JsonNode> walk(int pageSize) throws Exception {
+		List<JsonNode> items = new ArrayList<>();
+		String cursor = null;
+		do {
+			MockHttpServletRequestBuilder request = get("/api/forum/posts/hot").param("limit", String.valueOf(pageSize));
+			if (cursor != null) {
+				request.param("after", cursor);
+			}
+			JsonNode page = fetch(request);
+			page.get("items").forEach(items::add);
+			cursor = page.get("hasMore").asBoolean() ? page.get("nextCursor").asText() : null;
+		} while (cursor != null);
+		return items;
+	}
+
+	private List<String> ours(List<JsonNode> items) {
+		return items.stream().map(item -> item.get("id").asText()).filter(created::contains).toList();
+	}
+
+	private JsonNode fetch(MockHttpServletRequestBuilder request) throws Exception {
+		String body = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+}
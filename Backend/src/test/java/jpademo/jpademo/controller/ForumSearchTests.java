@@ -0,0 +1,159 @@
+package jpademo.jpademo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jpademo.jpademo.forum.model.ForumPost;
+import jpademo.jpademo.model.repository.ForumPostRepository;
+import jpademo.jpademo.model.service.ForumSearchIndex;
+import jpademo.jpademo.model.service.ForumSearchService;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class ForumSearchTests {
+
+	private static final String AUTHOR = "990000024";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ForumPostRepository forumPostRepository;
+
+	@Autowired
+	private ForumSearchService forumSearchService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final List<String> created = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		created.stream().filter(forumPostRepository::existsById).forEach(forumPostRepository::deleteById);
+	}
+
+	@Test
+	void newPostsAndTheirCommentsAreSearchable() throws Exception {
+		String match = createPost("Refinancing a quokkaloan", "Is the quokkaloan worth it at 6%?");
+		String other = createPost("Another quokkaloan question", "Rates are up everywhere");
+		comment(other, "Ask the bank about wallabyfees before signing");
+
+		assertEquals(List.of(match, other), ids(search("quokkaloan")));
+		assertEquals(List.of(other), ids(search("wallabyfees")));
+		JsonNode item = search("wallabyfees").get(0);
+		assertEquals("Another quokkaloan question", item.get("title").asText());
+		assertEquals(1, item.get("commentCount").asInt());
+	}
+
+	@Test
+	void deletedPostsDropOutOfResults() throws Exception {
+		String postId = createPost("Selling my numbatcoin", "Time to cash out");
+
+		mockMvc.perform(delete("/api/forum/posts/{id}", postId).param("userId", AUTHOR)).andExpect(status().isOk());
+
+		assertTrue(search("numbatcoin").isEmpty());
+	}
+
+	@Test
+	void blankQueryIsRejected() throws Exception {
+		mockMvc.perform(get("/api/forum/search").param("q", "  ")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void reopeningCatchesUpWithPostsWrittenAroundTheIndex() throws Exception {
+		createPost("Budgeting for a dingotrip", "Flights first, then lodging");
+		forumSearchService.saveSnapshot();
+
+		// Written straight to the table, so only the catch-up on open can see it
+		ForumPost post = new ForumPost();
+		post.setTitle("Cheap dingotrip hostels");
+		post.setContent("Share your finds");
+		post.setCategory("General");
+		post.setAuthorName("search-test");
+		post.setAuthorId(AUTHOR);
+		post.setTimestamp(LocalDateTime.now());
+		String unseen = forumPostRepository.save(post).getId();
+		created.add(unseen);
+		assertEquals(1, search("dingotrip").size());
+
+		forumSearchService.open();
+
+		assertTrue(ids(search("dingotrip")).contains(unseen));
+		assertEquals(2, search("dingotrip").size());
+	}
+
+	@Test
+	void searchesDuringARebuildStillFindExistingPosts() throws Exception {
+		String postId = createPost("Splitting a bilbyrent", "Two flatmates, one lease");
+		AtomicBoolean rebuilding = new AtomicBoolean(true);
+		Thread rebuilds = new Thread(() -> {
+			for (int i = 0; i < 50; i++) {
+				forumSearchService.rebuild();
+			}
+			rebuilding.set(false);
+		});
+		rebuilds.start();
+
+		int searches = 0;
+		while (rebuilding.get()) {
+			List<ForumSearchIndex.Hit> hits = forumSearchService.search("bilbyrent", 10);
+			assertEquals(1, hits.size(), "search " + searches + " during a rebuild");
+			assertEquals(postId, hits.get(0).postId());
+			searches++;
+		}
+		rebuilds.join();
+		assertEquals(1, search("bilbyrent").size());
+	}
+
+	private String createPost(String title, String content) throws Exception {
+		String body = objectMapper.writeValueAsString(Map.of("title", title, "content", content,
+				"category", "General", "authorName", "search-test", "authorId", AUTHOR));
+		String id = fetch(post("/api/forum/posts").contentType(MediaType.APPLICATION_JSON).content(body))
+				.get("id").asText();
+		created.add(id);
+		return id;
+	}
+
+	private void comment(String postId, String text) throws Exception {
+		String body = objectMapper.writeValueAsString(Map.of("text", text, "authorName", "search-test", "authorId", AUTHOR));
+		fetch(post("/api/forum/posts/{id}/comments", postId).contentType(MediaType.APPLICATION_JSON).content(body));
+	}
+
+	private JsonNode search(String query) throws Exception {
+		return fetch(get("/api/forum/search").param("q", query)).get("items");
+	}
+
+	private JsonNode fetch(MockHttpServletRequestBuilder request) throws Exception {
+		String body = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private static List<String> ids(JsonNode items) {
+		List<String> ids = new ArrayList<>();
+		items.forEach(item -> ids.add(item.get("id").asText()));
+		return ids;
+	}
+}
@@ -0,0 +1,116 @@
+package jpademo.jpademo.model.repository;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Checks via EXPLAIN that the per-user repository queries are served by the
+ * composite indexes from the V2 migration instead of a scan plus filesort.
+ */
+@SpringBootTest
+class SchemaIndexUsageTests {
+
+	private static final long FIRST_USER_ID = 990_000_009L;
+	private static final int USERS = 40;
+	private static final int ROWS_PER_USER = 25;
+	private static final String[] CATEGORIES = { "Food", "Transport", "Shopping", "Bills", "Other" };
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void seed() {
+		List<Object[]> expenses = new ArrayList<>();
+		List<Object[]> incomes = new ArrayList<>();
+		LocalDate start = LocalDate.of(2024, 1, 1);
+		for (int u = 0; u < USERS; u++) {
+			for (int i = 0; i < ROWS_PER_USER; i++) {
+				Date date = Date.valueOf(start.plusDays(i * 7L));
+				expenses.add(new Object[] { FIRST_USER_ID + u, new BigDecimal("10.00"), CATEGORIES[i % CATEGORIES.length],
+						date, Timestamp.valueOf(LocalDateTime.now()) });
+				incomes.add(new Object[] { FIRST_USER_ID + u, new BigDecimal("100.00"), "Salary", date });
+			}
+		}
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO expenses (user_id, amount, category, expense_date, created_at) VALUES (?, ?, ?, ?, ?)",
+				expenses);
+		jdbcTemplate.batchUpdate("INSERT INTO incomes (user_id, amount, category, income_date) VALUES (?, ?, ?, ?)",
+				incomes);
+		jdbcTemplate.update("INSERT INTO budgets (user_id, category, limit_amount, period) VALUES (?, 'Food', 100, 'monthly')",
+				FIRST_USER_ID);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		long lastUserId = FIRST_USER_ID + USERS;
+		jdbcTemplate.update("DELETE FROM expenses WHERE user_id >= ? AND user_id < ?", FIRST_USER_ID, lastUserId);
+		jdbcTemplate.update("DELETE FROM incomes WHERE user_id >= ? AND user_id < ?", FIRST_USER_ID, lastUserId);
+		jdbcTemplate.update("DELETE FROM budgets WHERE user_id >= ? AND user_id < ?", FIRST_USER_ID, lastUserId);
+	}
+
+	@Test
+	void expenseHistoryUsesUserDateIndex() {
+		assertUsesIndex("idx_expenses_user_date",
+				"SELECT * FROM expenses WHERE user_id = ? ORDER BY expense_date DESC, id DESC", FIRST_USER_ID);
+	}
+
+	@Test
+	void expenseWindowSumUsesUserDateIndex() {
+		assertUsesIndex("idx_expenses_user_date",
+				"SELECT SUM(amount) FROM expenses WHERE user_id = ? AND expense_date >= ? AND expense_date < ?",
+				FIRST_USER_ID, Date.valueOf("2024-02-01"), Date.valueOf("2024-03-01"));
+	}
+
+	@Test
+	void categoryWindowUsesUserCategoryDateIndex() {
+		assertUsesIndex("idx_expenses_user_category_date",
+				"SELECT * FROM expenses WHERE user_id = ? AND category = ? AND expense_date >= ? AND expense_date < ?",
+				FIRST_USER_ID, "Food", Date.valueOf("2024-01-01"), Date.valueOf("2024-04-01"));
+	}
+
+	@Test
+	void incomeHistoryUsesUserDateIndex() {
+		assertUsesIndex("idx_incomes_user_date",
+				"SELECT * FROM incomes WHERE user_id = ? ORDER BY income_date DESC", FIRST_USER_ID);
+	}
+
+	@Test
+	void budgetLookupUsesUniqueUserCategoryKey() {
+		assertUsesIndex("uk_budgets_user_category",
+				"SELECT * FROM budgets WHERE user_id = ? AND category = ?", FIRST_USER_ID, "Food");
+	}
+
+	@Test
+	void duplicateBudgetCategoryIsRejected() {
+		assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+				"INSERT INTO budgets (user_id, category, limit_amount, period) VALUES (?, 'Food', 200, 'monthly')",
+				FIRST_USER_ID));
+	}
+
+	private void assertUsesIndex(String index, String sql, Object... args) {
+		List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, args);
+		StringBuilder used = new StringBuilder();
+		for (Map<String, Object> row : plan) {
+			// MySQL reports the chosen index in the "key" column, other engines return a textual plan
+			used.append(row.containsKey("key") ? row.get("key") : row.values()).append(' ');
+		}
+		assertTrue(used.toString().toLowerCase().contains(index), "Expected " + index + " in plan: " + plan);
+	}
+}
@@ -0,0 +1,99 @@
+package jpademo.jpademo.model.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import jpademo.jpademo.model.dto.BudgetSuggestionRequest;
+import jpademo.jpademo.model.dto.CategorySuggestionRequest;
+import jpademo.jpademo.model.event.FinanceDataChangedEvent;
+
+class AIResultCacheTests {
+
+	private static final Long USER_ID = 990_000_018L;
+	private static final YearMonth MARCH = YearMonth.of(2024, 3);
+	private static final YearMonth APRIL = YearMonth.of(2024, 4);
+
+	private final AIResultCache cache = new AIResultCache(100, Duration.ofMinutes(10));
+	private final AtomicInteger computations = new AtomicInteger();
+
+	@Test
+	void equalRequestsShareOneResult() {
+		cache.get(new BudgetSuggestionRequest(50000, 35000, null), this::compute);
+		cache.get(new BudgetSuggestionRequest(50000.0, 35000.0, List.of()), this::compute);
+		cache.get(new CategorySuggestionRequest("  Uber RIDE ", null).normalized(), this::compute);
+		cache.get(new CategorySuggestionRequest("uber ride", null).normalized(), this::compute);
+
+		assertEquals(2, computations.get());
+		assertEquals(2, cache.stats().hits());
+		assertEquals(2, cache.stats().misses());
+	}
+
+	@Test
+	void userResultsDropWhenTheirPeriodChanges() {
+		cache.getForUser(USER_ID, MARCH, "monthly", this::compute);
+		cache.getForUser(USER_ID, APRIL, "monthly", this::compute);
+		cache.getForUser(USER_ID, null, "alerts", this::compute);
+		cache.getForUser(USER_ID + 1, MARCH, "monthly", this::compute);
+		cache.get("shared", this::compute);
+
+		cache.onFinanceDataChanged(new FinanceDataChangedEvent(USER_ID, LocalDate.of(2024, 4, 10)));
+
+		// March of this user, the other user and the shared entry survive
+		cache.getForUser(USER_ID, MARCH, "monthly", this::compute);
+		cache.getForUser(USER_ID + 1, MARCH, "monthly", this::compute);
+		cache.get("shared", this::compute);
+		assertEquals(5, computations.get());
+
+		cache.getForUser(USER_ID, APRIL, "monthly", this::compute);
+		cache.getForUser(USER_ID, null, "alerts", this::compute);
+		assertEquals(7, computations.get());
+
+		cache.onFinanceDataChanged(FinanceDataChangedEvent.allUsers());
+		cache.getForUser(USER_ID + 1, MARCH, "monthly", this::compute);
+		cache.get("shared", this::compute);
+		assertEquals(8, computations.get());
+	}
+
+	@Test
+	void resultComputedAcrossAnInvalidationIsNotKept() {
+		// The user's data changes after the computation read it but before it was cached
+		cache.getForUser(USER_ID, MARCH, "monthly", () -> {
+			cache.onFinanceDataChanged(new FinanceDataChangedEvent(USER_ID, LocalDate.of(2024, 3, 1)));
+			return compute();
+		});
+		cache.getForUser(USER_ID + 1, MARCH, "monthly", () -> {
+			cache.onFinanceDataChanged(FinanceDataChangedEvent.allUsers());
+			return compute();
+		});
+
+		cache.getForUser(USER_ID, MARCH, "monthly", this::compute);
+		cache.getForUser(USER_ID + 1, MARCH, "monthly", this::compute);
+		assertEquals(4, computations.get());
+	}
+
+	@Test
+	void entriesEvictedBySizeAreStillInvalidatedWhenCachedAgain() {
+		AIResultCache small = new AIResultCache(2, Duration.ofMinutes(10));
+		small.getForUser(USER_ID, MARCH, "monthly", this::compute);
+		small.getForUser(USER_ID, APRIL, "monthly", this::compute);
+		small.get("shared", this::compute);
+		small.getForUser(USER_ID, MARCH, "monthly", this::compute);
+		assertEquals(4, computations.get());
+
+		small.onFinanceDataChanged(new FinanceDataChangedEvent(USER_ID, LocalDate.of(2024, 1, 1)));
+
+		small.getForUser(USER_ID, MARCH, "monthly", this::compute);
+		assertEquals(5, computations.get());
+	}
+
+	private Integer compute() {
+		return computations.incrementAndGet();
+	}
+}
@@ -0,0 +1,91 @@
+package jpademo.jpademo.model.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import jpademo.jpademo.model.dto.CategorySuggestion;
+import jpademo.jpademo.model.dto.CategorySuggestionRequest;
+
+/**
+ * Batch suggestions must equal one-by-one suggestions, in input order.
+ */
+class AIServiceBatchTests {
+
+	private static final CategoryKeywordDictionary KEYWORDS = new CategoryKeywordDictionary(
+			new ClassPathResource("category-keywords.properties"));
+
+	private static final String[] WORDS = { "uber", "pizza", "netflix", "rent", "gym", "udemy", "mall", "random",
+			"paid", "to", "from", "blinkit", "hotel", "metro", "bill" };
+
+	@Test
+	void batchMatchesSingleSuggestionsInOrder() {
+		AIService aiService = new AIService(KEYWORDS, 4);
+		List<String> descriptions = descriptions(10_000);
+
+		List<CategorySuggestion> batch = aiService.suggestCategories(descriptions, null);
+
+		assertEquals(descriptions.size(), batch.size());
+		for (int i = 0; i < descriptions.size(); i++) {
+			assertEquals(aiService.suggestCategory(new CategorySuggestionRequest(descriptions.get(i), null)), batch.get(i),
+					"item " + i);
+		}
+		aiService.shutdownScoringPool();
+	}
+
+	@Test
+	void nullDescriptionsFallBackToOther() {
+		AIService aiService = new AIService(KEYWORDS, 2);
+
+		List<CategorySuggestion> batch = aiService.suggestCategories(Collections.singletonList(null), null);
+
+		assertEquals("Other", batch.get(0).suggestedCategory());
+		aiService.shutdownScoringPool();
+	}
+
+	@Test
+	void oversizedBatchIsRejected() {
+		AIService aiService = new AIService(KEYWORDS, 2);
+
+		assertThrows(IllegalArgumentException.class,
+				() -> aiService.suggestCategories(descriptions(AIService.MAX_BATCH_SIZE + 1), null));
+		aiService.shutdownScoringPool();
+	}
+
+	@Test
+	void throughputWithOneAndAllCores() {
+		List<String> descriptions = descriptions(10_000);
+		int cores = Runtime.getRuntime().availableProcessors();
+		for (int parallelism : new int[] { 1, cores }) {
+			AIService aiService = new AIService(KEYWORDS, parallelism);
+			aiService.suggestCategories(descriptions, null);
+			long start = System.nanoTime();
+			for (int run = 0; run < 5; run++) {
+				aiService.suggestCategories(descriptions, null);
+			}
+			System.out.printf("Batch suggest, %d thread(s): %.1f ms per 10k%n", parallelism,
+					(System.nanoTime() - start) / 5 / 1e6);
+			aiService.shutdownScoringPool();
+		}
+	}
+
+	private static List<String> descriptions(int count) {
+		Random random = new Random(13);
+		List<String> descriptions = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			StringBuilder text = new StringBuilder();
+			for (int w = 2 + random.nextInt(4); w > 0; w--) {
+				text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+			}
+			descriptions.add(text.toString().trim());
+		}
+		return descriptions;
+	}
+}
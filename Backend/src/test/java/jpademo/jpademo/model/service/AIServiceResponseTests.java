@@ -0,0 +1,182 @@
+package jpademo.jpademo.model.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jpademo.jpademo.model.dto.BudgetSuggestionRequest;
+import jpademo.jpademo.model.dto.CategoryAmount;
+import jpademo.jpademo.model.dto.CategorySuggestion;
+import jpademo.jpademo.model.dto.CategorySuggestionRequest;
+import jpademo.jpademo.model.dto.ExpenseTips;
+import jpademo.jpademo.model.dto.MonthlyAnalytics;
+import jpademo.jpademo.model.dto.MonthlyAnalyticsReport;
+import jpademo.jpademo.model.dto.MonthlyAnalyticsRequest;
+import jpademo.jpademo.model.dto.SpendingAlert;
+import jpademo.jpademo.model.dto.SpendingAlertReport;
+import jpademo.jpademo.model.dto.SpendingAlertRequest;
+
+/**
+ * The typed AI endpoints must keep the JSON the frontend already reads.
+ */
+class AIServiceResponseTests {
+
+	private static final CategoryKeywordDictionary KEYWORDS = new CategoryKeywordDictionary(
+			new ClassPathResource("category-keywords.properties"));
+
+	// Configured like the one Spring MVC uses: unknown request fields are ignored
+	private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+	private final AIService aiService = new AIService(KEYWORDS, 1);
+
+	@Test
+	void requestsAndResponsesKeepTheirJsonKeys() throws Exception {
+		List<CategoryAmount> expenses = mapper.readValue(
+				"[{\"category\":\"Food\",\"amount\":12000},{\"category\":\"Transport\",\"amount\":5000}]",
+				new TypeReference<List<CategoryAmount>>() { });
+		assertKeys(aiService.generateExpenseTips(expenses), "type", "tips", "status", "totalAnalyzed");
+
+		BudgetSuggestionRequest budget = mapper.readValue(
+				"{\"income\":50000,\"expenses\":35000,\"topCategories\":[\"Food\"]}", BudgetSuggestionRequest.class);
+		assertKeys(aiService.generateBudgetSuggestion(budget), "suggestedBudget", "healthStatus", "healthEmoji",
+				"recommendations", "potentialSavings", "savingsGoal", "currentSavingsRate");
+
+		MonthlyAnalyticsRequest monthly = mapper.readValue(
+				"{\"totalIncome\":50000,\"totalExpenses\":35000,\"categoryBreakdown\":{\"Food\":12000}}",
+				MonthlyAnalyticsRequest.class);
+		MonthlyAnalytics analytics = aiService.generateMonthlyAnalytics(monthly);
+		assertKeys(analytics, "financialHealth", "healthEmoji", "insights", "trends", "netSavings",
+				"categoryBreakdown");
+		assertKeys(analytics.trends(), "savingsRate", "expenseRatio", "netWorth");
+		assertKeys(new MonthlyAnalyticsReport("2024-05", 50000, 35000, analytics), "month", "totalIncome",
+				"totalExpenses", "financialHealth", "healthEmoji", "insights", "trends", "netSavings",
+				"categoryBreakdown");
+
+		SpendingAlertRequest alertRequest = mapper.readValue(
+				"{\"weeklySpending\":8000,\"monthlyBudget\":30000,\"daysRemaining\":20}", SpendingAlertRequest.class);
+		SpendingAlert alert = aiService.generateSpendingAlert(alertRequest);
+		assertKeys(alert, "alertLevel", "alertEmoji", "messages", "projectedSpending", "remainingBudget",
+				"weeklyBudget", "dailyBudget");
+		assertKeys(new SpendingAlertReport(8000, 30000, 20, alert), "weeklySpending", "monthlyBudget",
+				"daysRemaining", "alertLevel", "alertEmoji", "messages", "projectedSpending", "remainingBudget",
+				"weeklyBudget", "dailyBudget");
+
+		CategorySuggestionRequest suggest = mapper.readValue(
+				"{\"description\":\"Bought groceries from supermarket\",\"amount\":2500}",
+				CategorySuggestionRequest.class);
+		assertKeys(aiService.suggestCategory(suggest), "suggestedCategory", "alternativeCategories", "confidence",
+				"confidenceLabel");
+	}
+
+	@Test
+	void tipTextsMatchTheFormattedOnes() {
+		ExpenseTips tips = aiService.generateExpenseTips(List.of(new CategoryAmount("Transport", 5000),
+				new CategoryAmount("Food", 12000), new CategoryAmount("Bills", 2000)));
+
+		assertEquals(List.of(
+				"🍽️ Food expenses are high (" + String.format("%.1f%%", 12000 * 100.0 / 19000)
+						+ "). Try meal planning and cooking at home to save ₹" + String.format("%.0f", 12000 * 0.3)
+						+ "/month",
+				"🚗 Transport costs are above average. Consider carpooling or public transport to reduce by ₹"
+						+ String.format("%.0f", 5000 * 0.25)),
+				tips.tips());
+	}
+
+	@Test
+	void topSpendersTieInInputOrder() {
+		// All four tie at 25%; only the first three get a tip, so Entertainment (> 15%) gets none
+		ExpenseTips tips = aiService.generateExpenseTips(List.of(new CategoryAmount("Transport", 100),
+				new CategoryAmount("Food", 100), new CategoryAmount("Shopping", 100),
+				new CategoryAmount("Entertainment", 100)));
+
+		assertEquals(1, tips.tips().size());
+		assertTrue(tips.tips().get(0).startsWith("🚗 Transport"));
+		assertEquals(400.0, tips.totalAnalyzed());
+	}
+
+	@Test
+	void typosFindTheCategoryAtLowerConfidence() {
+		CategorySuggestion exact = aiService.suggestCategory(new CategorySuggestionRequest("zomato order", null));
+		CategorySuggestion typo = aiService.suggestCategory(new CategorySuggestionRequest("zommato order", null));
+
+		assertEquals("Food", exact.suggestedCategory());
+		assertEquals("Food", typo.suggestedCategory());
+		assertEquals("High", exact.confidenceLabel());
+		assertTrue(typo.confidence() < exact.confidence());
+	}
+
+	@Test
+	void fixedPointTextMatchesStringFormat() {
+		Random random = new Random(17);
+		for (int i = 0; i < 100_000; i++) {
+			double value = (random.nextDouble() - 0.3) * Math.pow(10, random.nextInt(10));
+			for (int decimals = 0; decimals <= 2; decimals++) {
+				assertEquals(String.format("%." + decimals + "f", value),
+						AIService.appendFixed(new StringBuilder(), value, decimals).toString(),
+						value + " to " + decimals + " decimals");
+			}
+		}
+		for (double value : new double[] { 0, -0.0, -0.4, 0.5, 2.5, 99.95, Double.NaN,
+				Double.POSITIVE_INFINITY, 1e16 }) {
+			assertEquals(String.format("%.1f", value), AIService.appendFixed(new StringBuilder(), value, 1).toString());
+			assertEquals(String.format("%.0f", value), AIService.appendFixed(new StringBuilder(), value, 0).toString());
+		}
+	}
+
+	@Test
+	void bytesAllocatedPerCall() {
+		List<CategoryAmount> expenses = List.of(new CategoryAmount("Food", 12000), new CategoryAmount("Transport", 5000),
+				new CategoryAmount("Shopping", 4000), new CategoryAmount("Entertainment", 3000),
+				new CategoryAmount("Bills", 2000));
+		BudgetSuggestionRequest budget = new BudgetSuggestionRequest(50000, 45000, List.of("Food"));
+		MonthlyAnalyticsRequest monthly = new MonthlyAnalyticsRequest(50000, 35000,
+				Map.of("Food", 12000.0, "Transport", 5000.0, "Bills", 8000.0));
+		SpendingAlertRequest alert = new SpendingAlertRequest(8000, 30000, 20);
+		CategorySuggestionRequest suggest = new CategorySuggestionRequest("Uber ride to the airport after dinner", null);
+
+		System.out.printf("expense-tips:      %d bytes/call%n", allocatedPerCall(() -> aiService.generateExpenseTips(expenses)));
+		System.out.printf("budget-suggestion: %d bytes/call%n", allocatedPerCall(() -> aiService.generateBudgetSuggestion(budget)));
+		System.out.printf("monthly-analytics: %d bytes/call%n", allocatedPerCall(() -> aiService.generateMonthlyAnalytics(monthly)));
+		System.out.printf("spending-alerts:   %d bytes/call%n", allocatedPerCall(() -> aiService.generateSpendingAlert(alert)));
+		System.out.printf("suggest-category:  %d bytes/call%n", allocatedPerCall(() -> aiService.suggestCategory(suggest)));
+	}
+
+	private void assertKeys(Object response, String... keys) {
+		JsonNode json = mapper.valueToTree(response);
+		Set<String> actual = new TreeSet<>();
+		json.fieldNames().forEachRemaining(actual::add);
+		assertEquals(new TreeSet<>(List.of(keys)), actual);
+	}
+
+	// Bytes allocated by this thread per call, after a warm-up so the JIT has settled
+	private static long allocatedPerCall(Supplier<Object> call) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		List<Object> sink = new ArrayList<>(1);
+		for (int i = 0; i < 50_000; i++) {
+			sink.add(call.get());
+			sink.clear();
+		}
+		long threadId = Thread.currentThread().getId();
+		long before = threads.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < 100_000; i++) {
+			sink.add(call.get());
+			sink.clear();
+		}
+		return (threads.getThreadAllocatedBytes(threadId) - before) / 100_000;
+	}
+}
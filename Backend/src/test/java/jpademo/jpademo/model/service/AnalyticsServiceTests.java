@@ -0,0 +1,123 @@
+package jpademo.jpademo.model.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import jpademo.jpademo.model.Expense;
+import jpademo.jpademo.model.Income;
+import jpademo.jpademo.model.dto.MonthlyAnalyticsReport;
+import jpademo.jpademo.model.dto.SpendingAlertReport;
+import jpademo.jpademo.model.repository.BalanceLedgerRepository;
+import jpademo.jpademo.model.repository.ExpenseRepository;
+import jpademo.jpademo.model.repository.IncomeRepository;
+
+@SpringBootTest
+class AnalyticsServiceTests {
+
+	private static final Long USER_ID = 990_000_014L;
+	private static final YearMonth MARCH = YearMonth.of(2024, 3);
+	private static final YearMonth APRIL = YearMonth.of(2024, 4);
+
+	@Autowired
+	private AnalyticsService analyticsService;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private IncomeService incomeService;
+
+	@Autowired
+	private RollupService rollupService;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private IncomeRepository incomeRepository;
+
+	@Autowired
+	private BalanceLedgerRepository ledgerRepository;
+
+	@AfterEach
+	void cleanUp() {
+		expenseRepository.deleteAll(expenseRepository.findByUserId(USER_ID));
+		incomeRepository.deleteAll(incomeRepository.findByUserIdOrderByIncomeDateDesc(USER_ID));
+		ledgerRepository.deleteById(USER_ID);
+		rollupService.rebuild(USER_ID);
+	}
+
+	@Test
+	void monthlyAnalyticsAreComputedFromStoredData() {
+		addIncome(MARCH.atDay(1), "1000");
+		addExpense(MARCH.atDay(5), "Food", "300");
+		addExpense(MARCH.atDay(9), "Transport", "100");
+		addExpense(APRIL.atDay(2), "Food", "999");
+
+		MonthlyAnalyticsReport analytics = analyticsService.getMonthlyAnalytics(USER_ID, MARCH);
+
+		assertEquals(1000.0, analytics.totalIncome());
+		assertEquals(400.0, analytics.totalExpenses());
+		assertEquals(600.0, analytics.analytics().netSavings());
+		assertEquals(Map.of("Food", 300.0, "Transport", 100.0), analytics.analytics().categoryBreakdown());
+	}
+
+	@Test
+	void cachedUntilAWriteTouchesTheMonth() {
+		addIncome(MARCH.atDay(1), "1000");
+		MonthlyAnalyticsReport march = analyticsService.getMonthlyAnalytics(USER_ID, MARCH);
+		assertSame(march, analyticsService.getMonthlyAnalytics(USER_ID, MARCH));
+
+		// A later month does not affect March
+		addExpense(APRIL.atDay(3), "Food", "50");
+		assertSame(march, analyticsService.getMonthlyAnalytics(USER_ID, MARCH));
+
+		addExpense(MARCH.atDay(3), "Food", "250");
+		MonthlyAnalyticsReport refreshed = analyticsService.getMonthlyAnalytics(USER_ID, MARCH);
+		assertNotSame(march, refreshed);
+		assertEquals(250.0, refreshed.totalExpenses());
+	}
+
+	@Test
+	void spendingAlertsNeedABudgetOrIncome() {
+		assertTrue(analyticsService.getSpendingAlerts(USER_ID).isEmpty());
+
+		addIncome(LocalDate.now(), "10000");
+		addExpense(LocalDate.now(), "Food", "700");
+		SpendingAlertReport alerts = analyticsService.getSpendingAlerts(USER_ID).orElseThrow();
+
+		assertEquals(700.0, alerts.weeklySpending());
+		assertEquals(7000.0, alerts.monthlyBudget());
+	}
+
+	private void addIncome(LocalDate date, String amount) {
+		Income income = new Income();
+		income.setUserId(USER_ID);
+		income.setAmount(new BigDecimal(amount));
+		income.setCategory("Salary");
+		income.setIncomeDate(date);
+		incomeService.createIncome(income);
+	}
+
+	private void addExpense(LocalDate date, String category, String amount) {
+		Expense expense = new Expense();
+		expense.setUserId(USER_ID);
+		expense.setAmount(new BigDecimal(amount));
+		expense.setCategory(category);
+		expense.setDescription("test");
+		expense.setExpenseDate(date);
+		expenseService.createExpense(expense);
+	}
+}
@@ -0,0 +1,145 @@
+package jpademo.jpademo.model.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import jpademo.jpademo.model.dto.CategorySuggestion;
+import jpademo.jpademo.model.dto.CategorySuggestionRequest;
+
+class CategoryKeywordDictionaryTests {
+
+	// "zorblax pizza" gives Food at 95 under A and a Transport-first tie at 85 under B
+	private static final String VERSION_A = "Food = Zorblax, pizza\nTransport = uber\n";
+	private static final String VERSION_B = "# swapped\nTransport = zorblax, uber\n\nFood = pizza\n";
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void parsesCategoriesInFileOrder() throws Exception {
+		Path file = write(dir.resolve("keywords.properties"), VERSION_B);
+
+		Map<String, List<String>> keywords = CategoryKeywordDictionary.parse(new FileSystemResource(file)).categories();
+
+		assertEquals(List.of("Transport", "Food"), List.copyOf(keywords.keySet()));
+		assertEquals(List.of("zorblax", "uber"), keywords.get("Transport"));
+	}
+
+	@Test
+	void exactWordsComeWithEachReload() throws Exception {
+		Path file = write(dir.resolve("keywords.properties"), "Transport = parking\n!exact = Packing\n");
+		CategoryKeywordDictionary dictionary = new CategoryKeywordDictionary(new FileSystemResource(file));
+
+		assertEquals(Set.of("packing"), CategoryKeywordDictionary.parse(new FileSystemResource(file)).exactWords());
+		assertEquals(List.of("Transport"), dictionary.current().categories());
+		assertArrayEquals(new double[] { 0 }, dictionary.current().weightedScore("packing tape"));
+
+		write(file, "Transport = parking\n");
+		dictionary.reload();
+
+		assertArrayEquals(new double[] { 0.7 }, dictionary.current().weightedScore("packing tape"));
+	}
+
+	@Test
+	void invalidFileKeepsThePreviousSnapshot() throws Exception {
+		Path file = write(dir.resolve("keywords.properties"), VERSION_A);
+		CategoryKeywordDictionary dictionary = new CategoryKeywordDictionary(new FileSystemResource(file));
+		CategoryKeywordMatcher loaded = dictionary.current();
+
+		write(file, "Food: pizza\n");
+		assertThrows(IllegalArgumentException.class, dictionary::reload);
+		dictionary.reloadIfChanged();
+
+		assertSame(loaded, dictionary.current());
+	}
+
+	@Test
+	void changedFileIsPickedUp() throws Exception {
+		Path file = write(dir.resolve("keywords.properties"), VERSION_A);
+		CategoryKeywordDictionary dictionary = new CategoryKeywordDictionary(new FileSystemResource(file));
+		CategoryKeywordMatcher loaded = dictionary.current();
+
+		dictionary.reloadIfChanged();
+		assertSame(loaded, dictionary.current());
+
+		write(file, VERSION_B);
+		Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 5_000));
+		dictionary.reloadIfChanged();
+
+		assertEquals(List.of("Transport", "Food"), dictionary.current().categories());
+		assertArrayEquals(new int[] { 1, 0 }, dictionary.current().score("zorblax"));
+	}
+
+	@Test
+	void classifiersNeverSeeAHalfBuiltDictionary() throws Exception {
+		Path file = write(dir.resolve("keywords.properties"), VERSION_A);
+		CategoryKeywordDictionary dictionary = new CategoryKeywordDictionary(new FileSystemResource(file));
+		AIService aiService = new AIService(dictionary, 1);
+		CategorySuggestionRequest request = new CategorySuggestionRequest("zorblax pizza", null);
+
+		int threads = 64;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		AtomicBoolean running = new AtomicBoolean(true);
+		CountDownLatch started = new CountDownLatch(threads);
+		Map<String, Integer> outcomes = new ConcurrentHashMap<>();
+		List<Future<?>> classifiers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			classifiers.add(pool.submit(() -> {
+				started.countDown();
+				while (running.get()) {
+					CategorySuggestion suggestion = aiService.suggestCategory(request);
+					outcomes.merge(suggestion.suggestedCategory() + "@" + suggestion.confidence(), 1, Integer::sum);
+				}
+				return null;
+			}));
+		}
+
+		started.await();
+		int reloads = 0;
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+		while (System.nanoTime() < deadline) {
+			// Replace the file in one move, the way an operator should
+			Path next = write(dir.resolve("next.properties"), reloads % 2 == 0 ? VERSION_B : VERSION_A);
+			Files.move(next, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			dictionary.reload();
+			reloads++;
+		}
+		running.set(false);
+		for (Future<?> classifier : classifiers) {
+			classifier.get();
+		}
+		pool.shutdown();
+		aiService.shutdownScoringPool();
+
+		System.out.printf("Keyword reloads: %d while 64 threads classified %s%n", reloads, outcomes);
+		assertTrue(reloads > 10);
+		assertTrue(Set.of("Food@95.0", "Transport@85.0").containsAll(outcomes.keySet()), outcomes.toString());
+	}
+
+	private static Path write(Path file, String content) throws Exception {
+		return Files.writeString(file, content);
+	}
+}
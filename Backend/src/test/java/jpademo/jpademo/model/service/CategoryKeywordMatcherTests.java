@@ -0,0 +1,269 @@
+package jpademo.jpademo.model.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * The automaton must agree with the plain contains() loop it replaced, and
+ * fuzzy scoring with a word-by-word scan over every keyword.
+ */
+class CategoryKeywordMatcherTests {
+
+	@Test
+	void overlappingKeywordsAreAllCounted() {
+		Map<String, List<String>> keywords = new LinkedHashMap<>();
+		keywords.put("A", List.of("he", "she", "hers"));
+		keywords.put("B", List.of("his", "s", "eat"));
+		CategoryKeywordMatcher matcher = new CategoryKeywordMatcher(keywords);
+
+		assertArrayEquals(new int[] { 3, 1 }, matcher.score("uSHERS"));
+		assertArrayEquals(new int[] { 0, 2 }, matcher.score("this"));
+		assertArrayEquals(new int[] { 1, 1 }, matcher.score("theater"));
+		assertArrayEquals(new int[] { 0, 0 }, matcher.score(""));
+		assertArrayEquals(new int[] { 0, 0 }, matcher.score(null));
+	}
+
+	@Test
+	void repeatedOccurrencesCountOnce() {
+		Map<String, List<String>> keywords = new LinkedHashMap<>();
+		keywords.put("Food", List.of("pizza", "food"));
+		CategoryKeywordMatcher matcher = new CategoryKeywordMatcher(keywords);
+
+		assertArrayEquals(new int[] { 1 }, matcher.score("pizza pizza PIZZA"));
+	}
+
+	@Test
+	void topKeepsCategoryOrderOnTies() {
+		assertArrayEquals(new int[] { 2, 0, 3 }, CategoryKeywordMatcher.top(new int[] { 1, 0, 2, 1, 1 }, 3));
+		assertArrayEquals(new int[] { 1 }, CategoryKeywordMatcher.top(new int[] { 0, 4, 0 }, 3));
+		assertArrayEquals(new int[0], CategoryKeywordMatcher.top(new int[] { 0, 0 }, 3));
+	}
+
+	@Test
+	void matchesNaiveLoopForSmallMediumAndLargeKeywordSets() {
+		for (int size : new int[] { 10, 100, 10_000 }) {
+			Random random = new Random(size);
+			Map<String, List<String>> keywords = randomKeywords(random, size);
+			CategoryKeywordMatcher matcher = new CategoryKeywordMatcher(keywords);
+
+			for (int i = 0; i < 500; i++) {
+				String text = randomText(random, 5 + random.nextInt(80));
+				assertArrayEquals(naiveScore(keywords, text), matcher.score(text), "text: " + text);
+			}
+		}
+	}
+
+	@Test
+	void misspeltWordsCountAtALowerWeight() {
+		Map<String, List<String>> keywords = new LinkedHashMap<>();
+		keywords.put("Food", List.of("zomato", "restaurant", "eat"));
+		keywords.put("Transport", List.of("petrol"));
+		keywords.put("Shopping", List.of("amazon"));
+		keywords.put("Entertainment", List.of("netflix"));
+		CategoryKeywordMatcher matcher = new CategoryKeywordMatcher(keywords);
+
+		assertArrayEquals(new double[] { 0.7, 0.7, 0.7, 0.7 }, matcher.weightedScore("zommato PETRL amazn netflx"));
+		// Swapped letters are one edit; long words may be two edits off
+		assertArrayEquals(new double[] { 0, 0, 0.7, 0 }, matcher.weightedScore("amzaon"));
+		assertArrayEquals(new double[] { 0.4, 0, 0, 0 }, matcher.weightedScore("resturent"));
+		// Exact hits are not counted again, and short words are never fuzzy
+		assertArrayEquals(new double[] { 1, 0, 0, 0 }, matcher.weightedScore("zomato zomata"));
+		assertArrayEquals(new double[] { 0, 0, 0, 0 }, matcher.weightedScore("amzn petl"));
+	}
+
+	@Test
+	void ordinaryWordsNearAShippedKeywordAreNotTypos() throws Exception {
+		CategoryKeywordDictionary.Keywords shipped = CategoryKeywordDictionary.parse(new ClassPathResource("category-keywords.properties"));
+		CategoryKeywordMatcher matcher = new CategoryKeywordMatcher(shipped.categories(), shipped.exactWords());
+
+		// prime, water, class, train, store, lunch, concert are all one edit away
+		for (String text : List.of("price check", "later", "waiter tip", "glass bottle", "brain scan", "grain sack",
+				"stone tiles", "launch event", "currency convert fee", "packing tape", "coast guard patrol")) {
+			assertArrayEquals(new double[matcher.categories().size()], matcher.weightedScore(text), "text: " + text);
+		}
+		// Typos of six-letter and longer keywords still count
+		double[] scores = matcher.weightedScore("zommato resturent petrl netflx concrt");
+		assertEquals(1.1, scores[matcher.categories().indexOf("Food")], 1e-9);
+		assertEquals(0.7, scores[matcher.categories().indexOf("Transport")], 1e-9);
+		assertEquals(1.4, scores[matcher.categories().indexOf("Entertainment")], 1e-9);
+	}
+
+	@Test
+	void exactWordsAreNeverTypos() {
+		Map<String, List<String>> keywords = new LinkedHashMap<>();
+		keywords.put("Transport", List.of("parking"));
+		keywords.put("Entertainment", List.of("concert"));
+
+		assertArrayEquals(new double[] { 0.7, 0.7 }, new CategoryKeywordMatcher(keywords).weightedScore("packing convert"));
+		assertArrayEquals(new double[] { 0, 0.7 },
+				new CategoryKeywordMatcher(keywords, Set.of("Packing")).weightedScore("packing convert"));
+	}
+
+	@Test
+	void osaDistanceCountsAdjacentSwapsAsOneEdit() {
+		assertEquals(0, CategoryKeywordMatcher.osaDistance("uber", "uber"));
+		assertEquals(1, CategoryKeywordMatcher.osaDistance("amazn", "amazon"));
+		assertEquals(1, CategoryKeywordMatcher.osaDistance("amzaon", "amazon"));
+		assertEquals(2, CategoryKeywordMatcher.osaDistance("resturent", "restaurant"));
+		assertEquals(3, CategoryKeywordMatcher.osaDistance("ca", "abc"));
+	}
+
+	@Test
+	void fuzzyScoresMatchALinearScan() {
+		for (int size : new int[] { 10, 100, 1_000 }) {
+			Random random = new Random(size);
+			Map<String, List<String>> keywords = randomKeywords(random, size);
+			CategoryKeywordMatcher matcher = new CategoryKeywordMatcher(keywords);
+
+			for (int i = 0; i < 300; i++) {
+				String text = randomText(random, 5 + random.nextInt(40));
+				assertArrayEquals(naiveWeightedScore(keywords, text), matcher.weightedScore(text), 1e-9, "text: " + text);
+			}
+		}
+	}
+
+	@Test
+	void fuzzyLatencyComparedWithExact() {
+		Random random = new Random(19);
+		CategoryKeywordMatcher matcher = new CategoryKeywordMatcher(randomKeywords(random, 100));
+		List<String> texts = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			texts.add(randomText(random, 20 + random.nextInt(40)));
+		}
+		for (int run = 0; run < 2; run++) {
+			long[] exact = new long[texts.size()];
+			long[] fuzzy = new long[texts.size()];
+			for (int i = 0; i < texts.size(); i++) {
+				long start = System.nanoTime();
+				matcher.score(texts.get(i));
+				exact[i] = System.nanoTime() - start;
+				start = System.nanoTime();
+				matcher.weightedScore(texts.get(i));
+				fuzzy[i] = System.nanoTime() - start;
+			}
+			Arrays.sort(exact);
+			Arrays.sort(fuzzy);
+			if (run == 1) {
+				System.out.printf("Keyword scoring, 100 keywords: exact p50 %.1f us p99 %.1f us, fuzzy p50 %.1f us p99 %.1f us%n",
+						exact[exact.length / 2] / 1e3, exact[exact.length * 99 / 100] / 1e3,
+						fuzzy[fuzzy.length / 2] / 1e3, fuzzy[fuzzy.length * 99 / 100] / 1e3);
+			}
+		}
+	}
+
+	@Test
+	@Tag("benchmark")
+	void automatonComparedWithContainsLoop() {
+		for (int size : new int[] { 10, 100, 10_000 }) {
+			Random random = new Random(size);
+			Map<String, List<String>> keywords = randomKeywords(random, size);
+			CategoryKeywordMatcher matcher = new CategoryKeywordMatcher(keywords);
+			List<String> texts = new ArrayList<>();
+			for (int i = 0; i < 2_000; i++) {
+				texts.add(randomText(random, 20 + random.nextInt(40)));
+			}
+			long[] automaton = new long[texts.size()];
+			long[] naive = new long[texts.size()];
+			// Each run overwrites the last, so the timings kept are from after the JIT warmed up; the median keeps GC pauses out
+			for (int run = 0; run < 5; run++) {
+				for (int i = 0; i < texts.size(); i++) {
+					long start = System.nanoTime();
+					matcher.score(texts.get(i));
+					automaton[i] = System.nanoTime() - start;
+					start = System.nanoTime();
+					naiveScore(keywords, texts.get(i));
+					naive[i] = System.nanoTime() - start;
+				}
+			}
+			Arrays.sort(automaton);
+			Arrays.sort(naive);
+			long automatonMedian = automaton[automaton.length / 2];
+			long naiveMedian = naive[naive.length / 2];
+			System.out.printf("Keyword scoring, %d keywords: automaton p50 %.2f us, contains loop p50 %.2f us (%.1fx)%n",
+					size, automatonMedian / 1e3, naiveMedian / 1e3, (double) naiveMedian / automatonMedian);
+		}
+	}
+
+	// Every word of the text against every keyword, with the matcher's length, distance and first-letter rules
+	private static double[] naiveWeightedScore(Map<String, List<String>> keywords, String text) {
+		int[] exact = naiveScore(keywords, text);
+		double[] scores = new double[exact.length];
+		String[] words = text.toLowerCase().split("[^\\p{L}\\p{N}]+");
+		int c = 0;
+		for (List<String> list : keywords.values()) {
+			scores[c] = exact[c];
+			for (String keyword : new LinkedHashSet<>(list)) {
+				if (keyword.length() < CategoryKeywordMatcher.FUZZY_KEYWORD_MIN_LENGTH || text.toLowerCase().contains(keyword)) {
+					continue;
+				}
+				int best = Integer.MAX_VALUE;
+				for (String word : words) {
+					int limit = Math.min(word.length(), keyword.length()) >= CategoryKeywordMatcher.FUZZY_LONG_LENGTH ? 2
+							: Math.min(word.length(), keyword.length()) >= CategoryKeywordMatcher.FUZZY_MIN_LENGTH ? 1 : 0;
+					int distance = CategoryKeywordMatcher.osaDistance(word, keyword);
+					if (word.length() >= CategoryKeywordMatcher.FUZZY_MIN_LENGTH && distance <= limit
+							&& word.charAt(0) == keyword.charAt(0)) {
+						best = Math.min(best, distance);
+					}
+				}
+				if (best != Integer.MAX_VALUE) {
+					scores[c] += CategoryKeywordMatcher.FUZZY_WEIGHTS[best] * Collections.frequency(list, keyword);
+				}
+			}
+			c++;
+		}
+		return scores;
+	}
+
+	private static int[] naiveScore(Map<String, List<String>> keywords, String text) {
+		String lower = text.toLowerCase();
+		int[] scores = new int[keywords.size()];
+		int c = 0;
+		for (List<String> list : keywords.values()) {
+			for (String keyword : list) {
+				if (lower.contains(keyword)) {
+					scores[c]++;
+				}
+			}
+			c++;
+		}
+		return scores;
+	}
+
+	private static Map<String, List<String>> randomKeywords(Random random, int size) {
+		Map<String, List<String>> keywords = new LinkedHashMap<>();
+		for (int c = 0; c < 7; c++) {
+			keywords.put("Category" + c, new ArrayList<>());
+		}
+		List<List<String>> lists = new ArrayList<>(keywords.values());
+		for (int k = 0; k < size; k++) {
+			// Short words over a small alphabet so that overlaps are frequent
+			lists.get(random.nextInt(lists.size())).add(randomText(random, 2 + random.nextInt(5)).toLowerCase().trim()
+					.replace(' ', 'a') + (char) ('a' + random.nextInt(6)));
+		}
+		return keywords;
+	}
+
+	private static String randomText(Random random, int length) {
+		String alphabet = "abcdefABCDEF éü";
+		StringBuilder text = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return text.toString();
+	}
+}
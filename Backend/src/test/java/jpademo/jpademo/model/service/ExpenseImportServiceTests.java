@@ -0,0 +1,190 @@
+package jpademo.jpademo.model.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jpademo.jpademo.model.Expense;
+import jpademo.jpademo.model.dto.CategoryTotal;
+import jpademo.jpademo.model.repository.BalanceLedgerRepository;
+import jpademo.jpademo.model.repository.ExpenseRepository;
+
+@SpringBootTest
+class ExpenseImportServiceTests {
+
+	private static final Long USER_ID = 990_000_007L;
+	private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+	@Autowired
+	private ExpenseImportService importService;
+
+	@Autowired
+	private RollupService rollupService;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private BalanceLedgerRepository ledgerRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM expenses WHERE user_id = ?", USER_ID);
+		ledgerRepository.findById(USER_ID).ifPresent(ledgerRepository::delete);
+		rollupService.rebuild(USER_ID);
+	}
+
+	@Test
+	void csvColumnsMayComeInAnyOrderAndFieldsMayBeQuoted() throws Exception {
+		String csv = """
+				date,description,amount,category
+				2026-10-01,"Groceries, weekly",54.20,Food
+				2026-10-02,"The ""good"" coffee",4.80,Food
+
+				2026-10-03,Bus pass,30.00,Transport
+				""";
+
+		Map<String, Object> report = importService.importCsv(USER_ID, reader(csv));
+
+		assertEquals(3L, report.get("imported"));
+		assertEquals(0L, report.get("failed"));
+		List<String> descriptions = expenseRepository.findByUserId(USER_ID).stream().map(Expense::getDescription).sorted().toList();
+		assertEquals(List.of("Bus pass", "Groceries, weekly", "The \"good\" coffee"), descriptions);
+		assertEquals(0, new BigDecimal("59.00").compareTo(total("Food")));
+		assertEquals(0, new BigDecimal("-89.00").compareTo(ledgerRepository.findBalance(USER_ID).orElseThrow()));
+	}
+
+	@Test
+	void ndjsonRowsUseTheExpenseRequestFields() throws Exception {
+		String ndjson = """
+				{"amount": 12.5, "category": "Food", "description": "Lunch", "date": "2026-10-05"}
+				{"amount": "99.99", "category": "Shopping", "date": "2026-10-06"}
+				""";
+
+		Map<String, Object> report = importService.importNdjson(USER_ID, reader(ndjson));
+
+		assertEquals(2L, report.get("imported"));
+		assertEquals(0, new BigDecimal("99.99").compareTo(total("Shopping")));
+	}
+
+	@Test
+	void badRowsAreReportedByRowNumberAndTheRestImported() throws Exception {
+		String ndjson = """
+				{"amount": 10, "category": "Food", "date": "2026-10-05"}
+				{"category": "Food", "date": "2026-10-05"}
+				not json
+				{"amount": 10, "category": "Food", "date": "05/10/2026"}
+				{"amount": 10, "category": ["Food"], "date": "2026-10-05"}
+				{"amount": 20, "category": "Food", "date": "2026-10-06"}
+				""";
+
+		Map<String, Object> report = importService.importNdjson(USER_ID, reader(ndjson));
+
+		assertEquals(2L, report.get("imported"));
+		assertEquals(4L, report.get("failed"));
+		assertEquals(List.of(2, 3, 4, 5), errorRows(report));
+		assertEquals(0, new BigDecimal("30").compareTo(total("Food")));
+	}
+
+	@Test
+	void oversizeFieldsAreRejectedBeforeTheDatabase() throws Exception {
+		String csv = "amount,category,description,date\n"
+				+ "10.00,Food,ok,2026-10-01\n"
+				+ "10.00," + "C".repeat(51) + ",too long category,2026-10-01\n"
+				+ "10.00,Food," + "d".repeat(256) + ",2026-10-01\n";
+
+		Map<String, Object> report = importService.importCsv(USER_ID, reader(csv));
+
+		assertEquals(1L, report.get("imported"));
+		assertEquals(List.of(3, 4), errorRows(report));
+		assertTrue(errorMessages(report).get(0).startsWith("Category is longer than 50"));
+	}
+
+	@Test
+	void rowsTheDatabaseRefusesDoNotCostTheRestOfTheirBatch() throws Exception {
+		// Passes parsing but does not fit DECIMAL(38,2), so the JDBC batch fails in the database
+		String csv = "amount,category,description,date\n"
+				+ "10.00,Food,before,2026-10-01\n"
+				+ "1" + "0".repeat(38) + ",Food,overflow,2026-10-01\n"
+				+ "15.00,Food,after,2026-10-01\n";
+
+		Map<String, Object> report = importService.importCsv(USER_ID, reader(csv));
+
+		assertEquals(2L, report.get("imported"));
+		assertEquals(List.of(3), errorRows(report));
+		assertTrue(errorMessages(report).get(0).startsWith("Not saved: "));
+		assertEquals(2, expenseRepository.findByUserId(USER_ID).size());
+		assertEquals(0, new BigDecimal("25.00").compareTo(total("Food")));
+		assertEquals(0, new BigDecimal("-25.00").compareTo(ledgerRepository.findBalance(USER_ID).orElseThrow()));
+	}
+
+	@Test
+	@Tag("benchmark")
+	void importsAMillionRows() throws Exception {
+		int rows = 1_000_000;
+		// Generates the CSV on the fly instead of holding it in memory
+		BufferedReader generated = new BufferedReader(Reader.nullReader()) {
+			private int row = -1;
+
+			@Override
+			public String readLine() {
+				row++;
+				if (row == 0) {
+					return "amount,category,description,date";
+				}
+				if (row > rows) {
+					return null;
+				}
+				// In date order like a bank export, a thousand rows a day over a dozen categories
+				return (row % 5000) / 100.0 + ",Category" + row % 12 + ",Imported row " + row + "," + FIRST_DAY.plusDays(row / 1000);
+			}
+		};
+
+		long start = System.nanoTime();
+		Map<String, Object> report = importService.importCsv(USER_ID, generated);
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("Expense import, %d CSV rows: %.1f s, %.0f rows/s%n", rows, seconds, rows / seconds);
+		assertEquals((long) rows, report.get("imported"));
+		assertTrue(seconds < 60, "import took " + seconds + " s");
+	}
+
+	private BigDecimal total(String category) {
+		return rollupService.getExpenseTotalsByCategory(USER_ID).stream()
+				.filter(total -> total.category().equals(category))
+				.map(CategoryTotal::total)
+				.findFirst()
+				.orElse(BigDecimal.ZERO);
+	}
+
+	private static BufferedReader reader(String body) {
+		return new BufferedReader(new StringReader(body));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Integer> errorRows(Map<String, Object> report) {
+		return ((List<Map<String, Object>>) report.get("errors")).stream().map(error -> (Integer) error.get("row")).toList();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<String> errorMessages(Map<String, Object> report) {
+		return ((List<Map<String, Object>>) report.get("errors")).stream().map(error -> (String) error.get("error")).toList();
+	}
+}
@@ -0,0 +1,94 @@
+package jpademo.jpademo.model.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+
+import jakarta.persistence.EntityManagerFactory;
+import jpademo.jpademo.model.Expense;
+import jpademo.jpademo.model.repository.ExpenseRepository;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ExpenseSearchTests {
+
+	private static final Long USER_ID = 990_000_010L;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@BeforeEach
+	void seed() {
+		List<Expense> expenses = new ArrayList<>();
+		// Two months of alternating Food/Transport expenses, amounts 1..60
+		LocalDate start = LocalDate.of(2024, 4, 1);
+		for (int i = 0; i < 60; i++) {
+			Expense expense = new Expense();
+			expense.setUserId(USER_ID);
+			expense.setAmount(BigDecimal.valueOf(i + 1));
+			expense.setCategory(i % 2 == 0 ? "Food" : "Transport");
+			expense.setDescription("seed " + i);
+			expense.setExpenseDate(start.plusDays(i));
+			expenses.add(expense);
+		}
+		expenseRepository.saveAll(expenses);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		expenseRepository.deleteAll(expenseRepository.findByUserId(USER_ID));
+	}
+
+	@Test
+	void monthAndCategoryFilterReturnsOnlyMatchingRowsNewestFirst() {
+		Slice<Expense> slice = expenseService.searchExpenses(USER_ID, LocalDate.of(2024, 5, 1),
+				LocalDate.of(2024, 5, 31), List.of("Food"), null, null, "date", false, 0, 50);
+
+		assertEquals(15, slice.getNumberOfElements());
+		assertFalse(slice.hasNext());
+		LocalDate previous = LocalDate.MAX;
+		for (Expense expense : slice) {
+			assertEquals("Food", expense.getCategory());
+			assertEquals(5, expense.getExpenseDate().getMonthValue());
+			assertTrue(expense.getExpenseDate().isBefore(previous));
+			previous = expense.getExpenseDate();
+		}
+	}
+
+	@Test
+	void amountRangeAndPagingIssueNoCountQuery() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		Slice<Expense> first = expenseService.searchExpenses(USER_ID, null, null, null,
+				new BigDecimal("11"), new BigDecimal("40"), "amount", true, 0, 20);
+		Slice<Expense> second = expenseService.searchExpenses(USER_ID, null, null, null,
+				new BigDecimal("11"), new BigDecimal("40"), "amount", true, 1, 20);
+
+		assertEquals(2, statistics.getPrepareStatementCount());
+		assertTrue(first.hasNext());
+		assertFalse(second.hasNext());
+		assertEquals(0, new BigDecimal("11").compareTo(first.getContent().get(0).getAmount()));
+		assertEquals(10, second.getNumberOfElements());
+		assertEquals(0, new BigDecimal("40").compareTo(second.getContent().get(9).getAmount()));
+	}
+}
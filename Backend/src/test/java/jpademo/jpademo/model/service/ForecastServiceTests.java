@@ -0,0 +1,127 @@
+package jpademo.jpademo.model.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jpademo.jpademo.model.Expense;
+import jpademo.jpademo.model.dto.CategoryForecast;
+import jpademo.jpademo.model.dto.SpendingForecast;
+import jpademo.jpademo.model.repository.BalanceLedgerRepository;
+import jpademo.jpademo.model.repository.ExpenseRepository;
+
+@SpringBootTest
+class ForecastServiceTests {
+
+	private static final Long USER_ID = 990_000_016L;
+
+	@Autowired
+	private ForecastService forecastService;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private RollupService rollupService;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private BalanceLedgerRepository ledgerRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeEach
+	void seed() {
+		LocalDate today = LocalDate.now();
+		for (int daysAgo = 40; daysAgo >= 1; daysAgo--) {
+			create("Food", today.minusDays(daysAgo), 100);
+		}
+	}
+
+	@AfterEach
+	void cleanUp() {
+		expenseRepository.deleteAll(expenseRepository.findByUserId(USER_ID));
+		ledgerRepository.deleteById(USER_ID);
+		rollupService.rebuild(USER_ID);
+	}
+
+	@Test
+	void steadyDailySpendProjectsToTheMonthTotal() {
+		LocalDate today = LocalDate.now();
+		SpendingForecast forecast = forecastService.getForecast(USER_ID);
+		CategoryForecast food = category(forecast, "Food");
+
+		assertEquals(100.0 * (today.getDayOfMonth() - 1), food.spentToDate(), 0.01);
+		assertEquals(100.0 * today.lengthOfMonth(), food.projected(), 100.0 * today.lengthOfMonth() * 0.02);
+		assertTrue(food.lower() <= food.projected());
+		assertTrue(food.upper() >= food.projected());
+		assertEquals(today.lengthOfMonth() - today.getDayOfMonth() + 1, forecast.daysRemaining());
+		assertEquals(food.projected(), forecast.total().projected(), 0.01);
+	}
+
+	@Test
+	void jsonKeepsTheResponseShape() {
+		JsonNode json = objectMapper.valueToTree(forecastService.getForecast(USER_ID));
+
+		assertEquals(LocalDate.now().toString(), json.get("asOf").asText());
+		assertEquals("Food", json.get("categories").get(0).get("category").asText());
+		assertTrue(json.get("categories").get(0).has("spentToDate"));
+		// The overall total has no category
+		assertFalse(json.get("total").has("category"));
+		assertTrue(json.get("total").has("upper"));
+	}
+
+	@Test
+	void resultIsCachedUntilTodaysSpendingChanges() {
+		SpendingForecast first = forecastService.getForecast(USER_ID);
+		assertSame(first, forecastService.getForecast(USER_ID));
+
+		create("Food", LocalDate.now(), 900);
+		SpendingForecast refreshed = forecastService.getForecast(USER_ID);
+
+		assertNotSame(first, refreshed);
+		double spent = category(refreshed, "Food").spentToDate();
+		assertEquals(100.0 * (LocalDate.now().getDayOfMonth() - 1) + 900, spent, 0.01);
+	}
+
+	@Test
+	void precomputeWarmsActiveUsers() {
+		assertTrue(forecastService.precomputeActiveUsers() >= 1);
+	}
+
+	private static CategoryForecast category(SpendingForecast forecast, String name) {
+		for (CategoryForecast row : forecast.categories()) {
+			if (name.equals(row.category())) {
+				return row;
+			}
+		}
+		throw new AssertionError("No forecast for " + name + ": " + forecast);
+	}
+
+	private void create(String category, LocalDate date, double amount) {
+		Expense expense = new Expense();
+		expense.setUserId(USER_ID);
+		expense.setAmount(BigDecimal.valueOf(amount));
+		expense.setCategory(category);
+		expense.setDescription("test");
+		expense.setExpenseDate(date);
+		expenseService.createExpense(expense);
+	}
+}
@@ -0,0 +1,193 @@
+package jpademo.jpademo.model.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+class ForumHotRankingTests {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 18, 12, 0);
+
+	@Test
+	void engagementAndAgeTradeOff() {
+		ForumHotRanking ranking = new ForumHotRanking();
+		ranking.track("quiet", NOW, 0, 0, 0);
+		ranking.track("liked", NOW, 0, 0, 0);
+		ranking.track("discussed", NOW, 0, 0, 0);
+		ranking.track("disliked", NOW, 0, 0, 0);
+		// Each tenfold of engagement is worth 12.5 hours, so a thousand likes keep a day-old post near the top
+		ranking.track("yesterday", NOW.minusDays(1), 1_000, 0, 0);
+
+		ranking.react("liked", 10, 0);
+		for (int i = 0; i < 10; i++) {
+			ranking.comment("discussed");
+		}
+		ranking.react("disliked", 1, 5);
+
+		assertEquals(List.of("discussed", "yesterday", "liked", "quiet", "disliked"), ids(ranking.page(null, 10)));
+	}
+
+	@Test
+	void removedAndAgedOutPostsLeaveTheRanking() {
+		ForumHotRanking ranking = new ForumHotRanking();
+		ranking.track("fresh", NOW, 0, 0, 0);
+		ranking.track("deleted", NOW, 5, 0, 0);
+		ranking.track("old", NOW.minusDays(8), 1_000, 0, 0);
+
+		ranking.remove("deleted");
+		assertEquals(1, ranking.pruneBefore(NOW.minusDays(7)));
+		// Reactions to posts that are no longer ranked do not bring them back
+		ranking.react("old", 1, 0);
+
+		assertEquals(List.of("fresh"), ids(ranking.page(null, 10)));
+		assertEquals(1, ranking.size());
+	}
+
+	@Test
+	void concurrentUpdatesLeaveTheSameOrderAsAFullSort() throws Exception {
+		int posts = 5_000;
+		ForumHotRanking ranking = new ForumHotRanking();
+		LocalDateTime[] created = new LocalDateTime[posts];
+		Random random = new Random(25);
+		for (int p = 0; p < posts; p++) {
+			created[p] = NOW.minusSeconds(random.nextInt(7 * 24 * 3600));
+			ranking.track(id(p), created[p], 0, 0, 0);
+		}
+
+		AtomicIntegerArray likes = new AtomicIntegerArray(posts);
+		AtomicIntegerArray dislikes = new AtomicIntegerArray(posts);
+		AtomicIntegerArray comments = new AtomicIntegerArray(posts);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		List<Future<?>> workers = new ArrayList<>();
+		for (int w = 0; w < 8; w++) {
+			long seed = w;
+			workers.add(pool.submit(() -> {
+				Random events = new Random(seed);
+				for (int e = 0; e < 50_000; e++) {
+					int p = events.nextInt(posts);
+					switch (events.nextInt(3)) {
+						case 0 -> {
+							likes.incrementAndGet(p);
+							ranking.react(id(p), 1, 0);
+						}
+						case 1 -> {
+							dislikes.incrementAndGet(p);
+							ranking.react(id(p), 0, 1);
+						}
+						default -> {
+							comments.incrementAndGet(p);
+							ranking.comment(id(p));
+						}
+					}
+				}
+			}));
+		}
+		for (Future<?> worker : workers) {
+			worker.get();
+		}
+		pool.shutdown();
+
+		List<ForumHotRanking.Entry> expected = new ArrayList<>();
+		for (int p = 0; p < posts; p++) {
+			expected.add(new ForumHotRanking.Entry(id(p),
+					ForumHotRanking.score(created[p], likes.get(p), dislikes.get(p), comments.get(p))));
+		}
+		expected.sort(ForumHotRanking.ORDER);
+
+		assertEquals(expected, walk(ranking, 37));
+	}
+
+	@Test
+	@Tag("benchmark")
+	void feedLatencyAtOneHundredThousandActivePosts() {
+		int posts = 100_000;
+		ForumHotRanking ranking = new ForumHotRanking();
+		Random random = new Random(100_000);
+		LocalDateTime[] created = new LocalDateTime[posts];
+		for (int p = 0; p < posts; p++) {
+			created[p] = NOW.minusSeconds(random.nextInt(7 * 24 * 3600));
+			ranking.track(id(p), created[p], 0, 0, 0);
+		}
+
+		int events = 1_000_000;
+		long updateStart = System.nanoTime();
+		for (int e = 0; e < events; e++) {
+			// A few posts draw most of the activity
+			int p = (int) (posts * Math.pow(random.nextDouble(), 3));
+			if (e % 4 == 0) {
+				ranking.comment(id(p));
+			} else {
+				ranking.react(id(p), e % 7 == 0 ? 0 : 1, e % 7 == 0 ? 1 : 0);
+			}
+		}
+		long updateNanos = System.nanoTime() - updateStart;
+
+		int requests = 20_000;
+		long[] top = new long[requests];
+		long[] deep = new long[requests];
+		ForumHotRanking.Entry pageFifty = walk(ranking, 20).get(50 * 20 - 1);
+		for (int run = 0; run < 2; run++) {
+			for (int r = 0; r < requests; r++) {
+				long start = System.nanoTime();
+				ranking.page(null, 21);
+				top[r] = System.nanoTime() - start;
+				start = System.nanoTime();
+				ranking.page(pageFifty, 21);
+				deep[r] = System.nanoTime() - start;
+			}
+		}
+		Arrays.sort(top);
+		Arrays.sort(deep);
+
+		// What serving the feed would cost if every request scored and sorted all active posts instead
+		long[] sorts = new long[20];
+		for (int s = 0; s < sorts.length; s++) {
+			long start = System.nanoTime();
+			List<ForumHotRanking.Entry> all = new ArrayList<>(posts);
+			for (int p = 0; p < posts; p++) {
+				all.add(new ForumHotRanking.Entry(id(p), ForumHotRanking.score(created[p], p % 13, p % 3, p % 5)));
+			}
+			all.sort(ForumHotRanking.ORDER);
+			sorts[s] = System.nanoTime() - start;
+		}
+		Arrays.sort(sorts);
+
+		System.out.printf("Forum hot feed, %d active posts: %.0f updates/s; first page p50 %.1f us p99 %.1f us, "
+				+ "page 51 p50 %.1f us p99 %.1f us; full re-sort p50 %.1f ms%n",
+				posts, events / (updateNanos / 1e9), top[requests / 2] / 1e3, top[requests * 99 / 100] / 1e3,
+				deep[requests / 2] / 1e3, deep[requests * 99 / 100] / 1e3, sorts[sorts.length / 2] / 1e6);
+		assertTrue(top[requests / 2] < 1_000_000L, "median first page took " + top[requests / 2] / 1e6 + " ms");
+		assertTrue(deep[requests / 2] < 1_000_000L, "median page 51 took " + deep[requests / 2] / 1e6 + " ms");
+	}
+
+	private static String id(int post) {
+		return "post-" + post;
+	}
+
+	private static List<String> ids(List<ForumHotRanking.Entry> entries) {
+		return entries.stream().map(ForumHotRanking.Entry::postId).toList();
+	}
+
+	// Every entry, collected page by page the way the feed hands them out
+	private static List<ForumHotRanking.Entry> walk(ForumHotRanking ranking, int pageSize) {
+		List<ForumHotRanking.Entry> all = new ArrayList<>();
+		List<ForumHotRanking.Entry> page = ranking.page(null, pageSize);
+		while (!page.isEmpty()) {
+			all.addAll(page);
+			page = ranking.page(page.get(page.size() - 1), pageSize);
+		}
+		return all;
+	}
+}
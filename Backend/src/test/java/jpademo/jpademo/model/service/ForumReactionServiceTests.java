@@ -0,0 +1,180 @@
+package jpademo.jpademo.model.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import jpademo.jpademo.forum.model.ForumPost;
+import jpademo.jpademo.forum.model.ReactionType;
+import jpademo.jpademo.model.dto.ForumPostSummary;
+import jpademo.jpademo.model.repository.ForumPostRepository;
+import jpademo.jpademo.model.repository.ForumReactionRepository;
+
+// Flushes are driven by the tests, not the schedule
+@SpringBootTest(properties = "forum.reactions.flush-interval=3600000")
+class ForumReactionServiceTests {
+
+	private static final String USER = "990000022";
+
+	@Autowired
+	private ForumReactionService reactionService;
+
+	@Autowired
+	private ForumPostRepository forumPostRepository;
+
+	@Autowired
+	private ForumReactionRepository forumReactionRepository;
+
+	private final List<ForumPost> created = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		reactionService.flush();
+		forumPostRepository.deleteAll(created);
+	}
+
+	@Test
+	void reactingAgainTogglesAndTheOppositeReactionSwitches() {
+		String postId = post().getId();
+
+		reactionService.react(postId, USER, ReactionType.LIKE);
+		assertCounts(reactionService.summary(postId, USER), 1, 0);
+		assertTrue(reactionService.summary(postId, USER).likedByMe());
+
+		reactionService.react(postId, USER, ReactionType.DISLIKE);
+		assertCounts(reactionService.summary(postId, USER), 0, 1);
+		assertTrue(reactionService.summary(postId, USER).dislikedByMe());
+
+		reactionService.react(postId, USER, ReactionType.DISLIKE);
+		ForumPostSummary cleared = reactionService.summary(postId, USER);
+		assertCounts(cleared, 0, 0);
+		assertFalse(cleared.likedByMe());
+		assertFalse(cleared.dislikedByMe());
+
+		reactionService.react(postId, USER, ReactionType.LIKE);
+		reactionService.flush();
+		assertEquals(1, forumPostRepository.findById(postId).orElseThrow().getLikes());
+		assertEquals(0, forumPostRepository.findById(postId).orElseThrow().getDislikes());
+	}
+
+	@Test
+	void concurrentReactionsToOnePostAreAllCounted() throws Exception {
+		String postId = post().getId();
+		int users = 2_000;
+		ExecutorService pool = Executors.newFixedThreadPool(32);
+		List<Future<?>> tasks = new ArrayList<>();
+		long start = System.nanoTime();
+		for (int u = 0; u < users; u++) {
+			String userId = "reaction-" + u;
+			tasks.add(pool.submit(() -> {
+				reactionService.react(postId, userId, ReactionType.LIKE);
+				// Every third user changes their mind and every fifth of those withdraws entirely
+				if (userId.hashCode() % 3 == 0) {
+					reactionService.react(postId, userId, ReactionType.DISLIKE);
+					if (userId.hashCode() % 5 == 0) {
+						reactionService.react(postId, userId, ReactionType.DISLIKE);
+					}
+				}
+			}));
+		}
+		for (Future<?> task : tasks) {
+			task.get();
+		}
+		long elapsed = System.nanoTime() - start;
+		pool.shutdown();
+
+		int likes = 0;
+		int dislikes = 0;
+		for (int u = 0; u < users; u++) {
+			int hash = ("reaction-" + u).hashCode();
+			if (hash % 3 != 0) {
+				likes++;
+			} else if (hash % 5 != 0) {
+				dislikes++;
+			}
+		}
+		reactionService.flush();
+		ForumPost stored = forumPostRepository.findById(postId).orElseThrow();
+		long rows = forumReactionRepository.findAll().stream().filter(r -> r.getPostId().equals(postId)).count();
+
+		System.out.printf("Forum reactions: %d users on one post in %.1f ms%n", users, elapsed / 1e6);
+		assertEquals(likes, stored.getLikes());
+		assertEquals(dislikes, stored.getDislikes());
+		assertEquals(likes + dislikes, rows);
+	}
+
+	@Test
+	void flushesRacingReactionsLoseNothingAndLeaveNoEntriesBehind() throws Exception {
+		List<String> postIds = List.of(post().getId(), post().getId(), post().getId());
+		ExecutorService pool = Executors.newFixedThreadPool(9);
+		List<Future<?>> tasks = new ArrayList<>();
+		for (int worker = 0; worker < 8; worker++) {
+			int w = worker;
+			tasks.add(pool.submit(() -> {
+				for (int i = 0; i < 100; i++) {
+					reactionService.react(postIds.get(i % postIds.size()), "flush-race-" + w + "-" + i, ReactionType.LIKE);
+				}
+			}));
+		}
+		Future<?> flusher = pool.submit(() -> {
+			while (!tasks.stream().allMatch(Future::isDone)) {
+				reactionService.flush();
+			}
+		});
+		for (Future<?> task : tasks) {
+			task.get();
+		}
+		flusher.get();
+		pool.shutdown();
+
+		reactionService.flush();
+
+		int likes = postIds.stream().mapToInt(id -> forumPostRepository.findById(id).orElseThrow().getLikes()).sum();
+		assertEquals(800, likes);
+		assertEquals(0, reactionService.pendingPosts());
+	}
+
+	@Test
+	void savingALoadedPostKeepsCountsChangedSinceItWasRead() {
+		ForumPost stale = forumPostRepository.findById(post().getId()).orElseThrow();
+		reactionService.react(stale.getId(), USER, ReactionType.LIKE);
+		reactionService.flush();
+
+		stale.setTitle("Edited after the like");
+		forumPostRepository.save(stale);
+
+		ForumPost stored = forumPostRepository.findById(stale.getId()).orElseThrow();
+		assertEquals("Edited after the like", stored.getTitle());
+		assertEquals(1, stored.getLikes());
+	}
+
+	private ForumPost post() {
+		ForumPost post = new ForumPost();
+		post.setTitle("Reaction test");
+		post.setContent("Reaction test content");
+		post.setCategory("General");
+		post.setAuthorName("reaction-test");
+		post.setAuthorId(USER);
+		post.setTimestamp(LocalDateTime.now());
+		ForumPost saved = forumPostRepository.save(post);
+		created.add(saved);
+		return saved;
+	}
+
+	private static void assertCounts(ForumPostSummary summary, int likes, int dislikes) {
+		assertEquals(likes, summary.likes());
+		assertEquals(dislikes, summary.dislikes());
+	}
+}
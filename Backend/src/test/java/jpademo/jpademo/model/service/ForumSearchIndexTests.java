@@ -0,0 +1,277 @@
+package jpademo.jpademo.model.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ForumSearchIndexTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void tokenizeLowerCasesAndDropsStopWordsAndSingleLetters() {
+		assertEquals(List.of("saving", "401", "emergency", "fund", "budget2024"),
+				ForumSearchIndex.tokenize("Saving for a 401(k) and the Emergency-fund! Budget2024, I"));
+	}
+
+	@Test
+	void denserAndRarerMatchesRankFirst() {
+		ForumSearchIndex index = new ForumSearchIndex();
+		index.put("groceries", "Cutting my grocery budget in half");
+		index.put("budget-heavy", "Budget budget budget: how I finally stuck to a budget");
+		index.put("rent", "Rent went up again, budget is tight");
+		index.put("unrelated", "Best index funds for beginners");
+
+		List<ForumSearchIndex.Hit> budget = index.search("budget", 10);
+		assertEquals("budget-heavy", budget.get(0).postId());
+		assertEquals(3, budget.size());
+
+		// "grocery" is in one post, "budget" in three, so the rarer word decides the order
+		assertEquals("groceries", index.search("grocery budget", 10).get(0).postId());
+		assertTrue(index.search("crypto", 10).isEmpty());
+		assertTrue(index.search("the and of", 10).isEmpty());
+	}
+
+	@Test
+	void appendedCommentsAreSearchableAndPutReplacesTheDocument() {
+		ForumSearchIndex index = new ForumSearchIndex();
+		index.put("older", "Debt snowball or avalanche?");
+		index.put("newer", "Weekly meal prep ideas");
+		index.append("older", "Avalanche saves more interest, snowball keeps you motivated");
+
+		assertEquals(List.of("older"), ids(index.search("motivated", 10)));
+
+		index.put("older", "Edited: which debt to pay first");
+		assertTrue(index.search("motivated", 10).isEmpty());
+		assertEquals(List.of("older"), ids(index.search("debt", 10)));
+		assertEquals(2, index.size());
+	}
+
+	@Test
+	void scoresMatchANaiveBm25Scan() {
+		Random random = new Random(24);
+		ForumSearchIndex index = new ForumSearchIndex();
+		Map<String, List<String>> documents = new HashMap<>();
+		for (int d = 0; d < 2_000; d++) {
+			String text = randomText(random, 5 + random.nextInt(30), 300);
+			String id = "post-" + d;
+			index.put(id, text);
+			documents.put(id, new ArrayList<>(ForumSearchIndex.tokenize(text)));
+			if (random.nextInt(4) == 0) {
+				String comment = randomText(random, 8, 300);
+				index.append(id, comment);
+				documents.get(id).addAll(ForumSearchIndex.tokenize(comment));
+			}
+		}
+
+		for (int q = 0; q < 200; q++) {
+			String query = randomText(random, 1 + random.nextInt(3), 300);
+			List<ForumSearchIndex.Hit> hits = index.search(query, 10);
+			List<Map.Entry<String, Double>> expected = naiveTop(documents, query, 10);
+			assertEquals(expected.size(), hits.size(), query);
+			for (int i = 0; i < hits.size(); i++) {
+				assertEquals(expected.get(i).getValue(), hits.get(i).score(), 1e-9, query);
+			}
+		}
+	}
+
+	@Test
+	void scoresMatchANaiveBm25ScanWithCommonAndRareTermsAndGrowingPosts() {
+		Random random = new Random(25);
+		ForumSearchIndex index = new ForumSearchIndex();
+		Map<String, List<String>> documents = new HashMap<>();
+		for (int d = 0; d < 4_000; d++) {
+			// Posts get longer over time, so the average length moves away from the one the bounds were summarized with
+			String text = zipfText(random, 4 + d / 100);
+			String id = "post-" + d;
+			index.put(id, text);
+			documents.put(id, new ArrayList<>(ForumSearchIndex.tokenize(text)));
+			if (d > 0 && random.nextInt(5) == 0) {
+				// A comment on an older post lands mid-list
+				String older = "post-" + random.nextInt(d);
+				String comment = zipfText(random, 10);
+				index.append(older, comment);
+				documents.get(older).addAll(ForumSearchIndex.tokenize(comment));
+			}
+		}
+
+		for (int q = 0; q < 200; q++) {
+			String query = zipfText(random, 1 + random.nextInt(3));
+			List<ForumSearchIndex.Hit> hits = index.search(query, 10);
+			List<Map.Entry<String, Double>> expected = naiveTop(documents, query, 10);
+			assertEquals(expected.size(), hits.size(), query);
+			for (int i = 0; i < hits.size(); i++) {
+				assertEquals(expected.get(i).getValue(), hits.get(i).score(), 1e-9, query);
+			}
+		}
+	}
+
+	@Test
+	void removedPostsDisappearAndCompactionKeepsScores() {
+		ForumSearchIndex index = new ForumSearchIndex();
+		ForumSearchIndex survivors = new ForumSearchIndex();
+		Random random = new Random(7);
+		for (int d = 0; d < 4_000; d++) {
+			String text = randomText(random, 12, 500);
+			index.put("post-" + d, text);
+			if (d % 2 == 1) {
+				survivors.put("post-" + d, text);
+			}
+		}
+		// Compacts at the 1,000th and again at the 2,000th removal, so none are left pending
+		for (int d = 0; d < 4_000; d += 2) {
+			assertTrue(index.remove("post-" + d));
+		}
+
+		assertEquals(2_000, index.size());
+		for (int q = 0; q < 50; q++) {
+			String query = randomText(random, 2, 500);
+			assertEquals(survivors.search(query, 10), index.search(query, 10), query);
+		}
+	}
+
+	@Test
+	void snapshotRoundTripKeepsLiveDocumentsAndScores() throws Exception {
+		ForumSearchIndex index = new ForumSearchIndex();
+		Random random = new Random(11);
+		for (int d = 0; d < 500; d++) {
+			index.put("post-" + d, randomText(random, 20, 400));
+		}
+		index.remove("post-3");
+		index.append("post-4", "zebra");
+		LocalDateTime through = LocalDateTime.of(2026, 10, 18, 9, 30, 15, 123_456_000);
+		Path file = dir.resolve("forum-search.idx");
+
+		index.write(file, through);
+		ForumSearchIndex.Snapshot snapshot = ForumSearchIndex.read(file);
+
+		assertEquals(through, snapshot.indexedThrough());
+		assertEquals(499, snapshot.index().size());
+		assertEquals(List.of("post-4"), ids(snapshot.index().search("zebra", 10)));
+		for (int q = 0; q < 50; q++) {
+			String query = randomText(random, 2, 400);
+			List<ForumSearchIndex.Hit> before = index.search(query, 10);
+			List<ForumSearchIndex.Hit> after = snapshot.index().search(query, 10);
+			assertEquals(ids(before), ids(after), query);
+		}
+		try (var files = Files.list(dir)) {
+			assertEquals(1, files.count(), "temporary file left behind");
+		}
+	}
+
+	@Test
+	@Tag("benchmark")
+	void queryLatencyOnAMillionPosts() throws Exception {
+		Random random = new Random(1_000_000);
+		ForumSearchIndex index = new ForumSearchIndex();
+		int posts = 1_000_000;
+		long buildStart = System.nanoTime();
+		for (int d = 0; d < posts; d++) {
+			index.put("post-" + d, zipfText(random, 8 + random.nextInt(8)));
+		}
+		long buildNanos = System.nanoTime() - buildStart;
+
+		Path file = dir.resolve("forum-search.idx");
+		long writeStart = System.nanoTime();
+		index.write(file, LocalDateTime.now());
+		long writeNanos = System.nanoTime() - writeStart;
+		long readStart = System.nanoTime();
+		ForumSearchIndex loaded = ForumSearchIndex.read(file).index();
+		long readNanos = System.nanoTime() - readStart;
+		assertEquals(posts, loaded.size());
+
+		int queries = 2_000;
+		long[] nanos = new long[queries];
+		for (int run = 0; run < 2; run++) {
+			for (int q = 0; q < queries; q++) {
+				String query = zipfText(random, 1 + random.nextInt(3));
+				long start = System.nanoTime();
+				loaded.search(query, 20);
+				nanos[q] = System.nanoTime() - start;
+			}
+		}
+		Arrays.sort(nanos);
+		System.out.printf("Forum search, %d posts: build %.1f s, snapshot %d MB written in %.1f s and read in %.1f s, "
+				+ "query p50 %.2f ms p99 %.2f ms%n",
+				posts, buildNanos / 1e9, Files.size(file) >> 20, writeNanos / 1e9, readNanos / 1e9,
+				nanos[queries / 2] / 1e6, nanos[queries * 99 / 100] / 1e6);
+		assertTrue(nanos[queries / 2] < 10_000_000L, "median query took " + nanos[queries / 2] / 1e6 + " ms");
+		assertTrue(nanos[queries * 99 / 100] < 10_000_000L, "p99 query took " + nanos[queries * 99 / 100] / 1e6 + " ms");
+	}
+
+	private static List<String> ids(List<ForumSearchIndex.Hit> hits) {
+		return hits.stream().map(ForumSearchIndex.Hit::postId).toList();
+	}
+
+	private static String randomText(Random random, int words, int vocabulary) {
+		StringBuilder text = new StringBuilder();
+		for (int w = 0; w < words; w++) {
+			text.append("word").append(random.nextInt(vocabulary)).append(' ');
+		}
+		return text.toString();
+	}
+
+	// Word frequencies fall off like natural text: the k-th word is about 1/k as common as the first
+	private static final int ZIPF_VOCABULARY = 50_000;
+	private static final double[] ZIPF_CUMULATIVE = new double[ZIPF_VOCABULARY];
+
+	static {
+		double total = 0;
+		for (int k = 0; k < ZIPF_VOCABULARY; k++) {
+			total += 1.0 / (k + 1);
+			ZIPF_CUMULATIVE[k] = total;
+		}
+		for (int k = 0; k < ZIPF_VOCABULARY; k++) {
+			ZIPF_CUMULATIVE[k] /= total;
+		}
+	}
+
+	private static String zipfText(Random random, int words) {
+		StringBuilder text = new StringBuilder();
+		for (int w = 0; w < words; w++) {
+			int k = Arrays.binarySearch(ZIPF_CUMULATIVE, random.nextDouble());
+			text.append("term").append(k < 0 ? -k - 1 : k).append(' ');
+		}
+		return text.toString();
+	}
+
+	private static List<Map.Entry<String, Double>> naiveTop(Map<String, List<String>> documents, String query, int limit) {
+		double averageLength = documents.values().stream().mapToInt(List::size).average().orElse(1);
+		averageLength = Math.max(1, averageLength);
+		Map<String, Double> scores = new HashMap<>();
+		for (String term : new LinkedHashSet<>(ForumSearchIndex.tokenize(query))) {
+			long df = documents.values().stream().filter(tokens -> tokens.contains(term)).count();
+			if (df == 0) {
+				continue;
+			}
+			double idf = Math.log(1 + (documents.size() - df + 0.5) / (df + 0.5));
+			for (Map.Entry<String, List<String>> doc : documents.entrySet()) {
+				long freq = doc.getValue().stream().filter(term::equals).count();
+				if (freq > 0) {
+					double norm = ForumSearchIndex.K1 * (1 - ForumSearchIndex.B + ForumSearchIndex.B * doc.getValue().size() / averageLength);
+					scores.merge(doc.getKey(), idf * freq * (ForumSearchIndex.K1 + 1) / (freq + norm), Double::sum);
+				}
+			}
+		}
+		return scores.entrySet().stream()
+				.sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder()))
+				.limit(limit)
+				.toList();
+	}
+}
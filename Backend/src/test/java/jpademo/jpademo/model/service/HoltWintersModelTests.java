@@ -0,0 +1,50 @@
+package jpademo.jpademo.model.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class HoltWintersModelTests {
+
+	@Test
+	void constantSeriesForecastsTheConstant() {
+		HoltWintersModel model = new HoltWintersModel();
+		for (int day = 0; day < 56; day++) {
+			model.observe(100);
+		}
+
+		assertEquals(100, model.forecast(1), 0.01);
+		assertEquals(100, model.forecast(20), 0.01);
+		assertEquals(0, model.residualStdDev(), 0.01);
+	}
+
+	@Test
+	void learnsTheWeeklyPattern() {
+		HoltWintersModel model = new HoltWintersModel();
+		// Weekdays 100, weekends 400
+		for (int day = 0; day < 56; day++) {
+			model.observe(day % 7 >= 5 ? 400 : 100);
+		}
+
+		// The next observation would be day 56, a "Monday" of the pattern
+		assertEquals(100, model.forecast(1), 15);
+		assertEquals(400, model.forecast(6), 15);
+		assertEquals(400, model.forecast(7), 15);
+		assertEquals(100, model.forecast(8), 15);
+	}
+
+	@Test
+	void noisyHistoryWidensTheResiduals() {
+		HoltWintersModel model = new HoltWintersModel();
+		Random random = new Random(16);
+		for (int day = 0; day < 56; day++) {
+			model.observe(Math.max(0, 100 + random.nextGaussian() * 30));
+		}
+
+		assertTrue(model.residualStdDev() > 15 && model.residualStdDev() < 60, "std " + model.residualStdDev());
+		assertTrue(model.forecast(1) > 60 && model.forecast(1) < 140, "forecast " + model.forecast(1));
+	}
+}
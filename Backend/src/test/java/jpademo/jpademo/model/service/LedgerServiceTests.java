@@ -0,0 +1,143 @@
+package jpademo.jpademo.model.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import jpademo.jpademo.model.Expense;
+import jpademo.jpademo.model.Income;
+import jpademo.jpademo.model.repository.BalanceLedgerRepository;
+import jpademo.jpademo.model.repository.ExpenseRepository;
+import jpademo.jpademo.model.repository.IncomeRepository;
+
+@SpringBootTest
+class LedgerServiceTests {
+
+	private static final Long USER_ID = 990_000_005L;
+
+	@Autowired
+	private LedgerService ledgerService;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private IncomeService incomeService;
+
+	@Autowired
+	private RollupService rollupService;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private IncomeRepository incomeRepository;
+
+	@MockitoSpyBean
+	private BalanceLedgerRepository ledgerRepository;
+
+	@AfterEach
+	void cleanUp() {
+		expenseRepository.deleteAll(expenseRepository.findByUserId(USER_ID));
+		incomeRepository.deleteAll(incomeRepository.findByUserIdOrderByIncomeDateDesc(USER_ID));
+		ledgerRepository.findById(USER_ID).ifPresent(ledgerRepository::delete);
+		rollupService.rebuild(USER_ID);
+	}
+
+	@Test
+	void firstWriteSeedsFromHistoryIncludingItself() {
+		// History written before the user had a ledger
+		incomeRepository.save(income("500.00"));
+		expenseRepository.save(expense("120.00"));
+		assertTrue(ledgerRepository.findBalance(USER_ID).isEmpty());
+		clearInvocations(ledgerRepository);
+
+		expenseService.createExpense(expense("30.00"));
+
+		assertBalance("350.00");
+		verify(ledgerRepository).seed(USER_ID);
+	}
+
+	@Test
+	void everyKindOfWriteKeepsTheBalanceExact() {
+		Income salary = incomeService.createIncome(income("1000.00"));
+		Expense rent = expenseService.createExpense(expense("400.00"));
+		assertBalance("600.00");
+
+		expenseService.updateExpense(rent.getId(), Map.of("amount", "450.00"));
+		assertBalance("550.00");
+
+		Income raise = income("1200.00");
+		incomeService.updateIncome(salary.getId(), raise);
+		assertBalance("750.00");
+
+		expenseService.deleteExpense(rent.getId());
+		incomeService.deleteIncome(salary.getId());
+		assertBalance("0.00");
+		assertTrue(ledgerService.reconcile().isEmpty());
+	}
+
+	@Test
+	void updatingAnIncomeOfAnUnseededUserCountsItOnce() {
+		Income salary = incomeRepository.save(income("1000.00"));
+
+		incomeService.updateIncome(salary.getId(), income("1200.00"));
+
+		assertBalance("1200.00");
+	}
+
+	@Test
+	void writesToAnExistingLedgerDoNotRescanHistory() {
+		incomeService.createIncome(income("1000.00"));
+		clearInvocations(ledgerRepository);
+
+		expenseService.createExpense(expense("10.00"));
+		assertTrue(ledgerService.tryDebit(USER_ID, new BigDecimal("90.00")));
+		assertFalse(ledgerService.tryDebit(USER_ID, new BigDecimal("5000.00")));
+
+		// The seed sums the user's whole history, so it may only run for a user without a ledger
+		verify(ledgerRepository, never()).seed(any());
+		assertBalance("900.00");
+	}
+
+	private void assertBalance(String expected) {
+		assertEquals(0, new BigDecimal(expected).compareTo(ledgerRepository.findBalance(USER_ID).orElseThrow()),
+				"balance " + ledgerRepository.findBalance(USER_ID).orElseThrow());
+	}
+
+	private static Income income(String amount) {
+		Income income = new Income();
+		income.setUserId(USER_ID);
+		income.setAmount(new BigDecimal(amount));
+		income.setCategory("Salary");
+		income.setIncomeDate(LocalDate.now());
+		income.setCreatedAt(LocalDateTime.now());
+		return income;
+	}
+
+	private static Expense expense(String amount) {
+		Expense expense = new Expense();
+		expense.setUserId(USER_ID);
+		expense.setAmount(new BigDecimal(amount));
+		expense.setCategory("Bills");
+		expense.setDescription("Ledger test");
+		expense.setExpenseDate(LocalDate.now());
+		expense.setCreatedAt(LocalDateTime.now());
+		return expense;
+	}
+}
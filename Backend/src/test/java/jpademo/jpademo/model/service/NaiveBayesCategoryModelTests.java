@@ -0,0 +1,121 @@
+package jpademo.jpademo.model.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import jpademo.jpademo.model.dto.CategoryPrediction;
+
+/**
+ * Accuracy and latency of the per-user classifier on synthetic expense histories.
+ */
+class NaiveBayesCategoryModelTests {
+
+	private static final String[] CATEGORIES = { "Groceries", "Commute", "Pets", "Kids", "Subscriptions", "Gifts" };
+	private static final String[] NOISE = { "order", "payment", "online", "paid", "via", "upi", "card", "monthly",
+			"weekly", "store", "app", "bill" };
+
+	@Test
+	void learnsUserSpecificVocabulary() {
+		NaiveBayesCategoryModel model = new NaiveBayesCategoryModel();
+		for (int i = 0; i < 5; i++) {
+			model.learn("Blinkit order #" + i, "Groceries");
+			model.learn("Rapido bike to office", "Commute");
+		}
+
+		List<CategoryPrediction> predictions = model.predict("blinkit order", Map.of(), 3);
+
+		assertEquals("Groceries", predictions.get(0).category());
+		assertTrue(predictions.get(0).probability() > 0.8);
+	}
+
+	@Test
+	void keywordHitsActAsPrior() {
+		NaiveBayesCategoryModel model = new NaiveBayesCategoryModel();
+		for (int i = 0; i < 5; i++) {
+			model.learn("order from shop", "Groceries");
+			model.learn("order from shop", "Gifts");
+		}
+
+		List<CategoryPrediction> predictions = model.predict("order from shop", Map.of("Gifts", 1.0), 3);
+
+		assertEquals("Gifts", predictions.get(0).category());
+	}
+
+	@Test
+	void unknownWordsYieldNoPrediction() {
+		NaiveBayesCategoryModel model = new NaiveBayesCategoryModel();
+		model.learn("Blinkit order", "Groceries");
+
+		assertTrue(model.predict("zzz qqq", Map.of("Food", 1.0), 3).isEmpty());
+	}
+
+	@Test
+	void forgetUndoesLearn() {
+		NaiveBayesCategoryModel model = new NaiveBayesCategoryModel();
+		model.learn("vet visit", "Pets");
+		model.learn("vet visit", "Pets");
+		model.learn("toy store", "Kids");
+		List<CategoryPrediction> before = model.predict("vet toy", Map.of(), 3);
+
+		model.learn("vet toy bundle", "Kids");
+		model.forget("vet toy bundle", "Kids");
+
+		assertEquals(3, model.documents());
+		assertEquals(before, model.predict("vet toy", Map.of(), 3));
+	}
+
+	@Test
+	void syntheticHistoryAccuracyAndLatency() {
+		Random random = new Random(12);
+		String[][] signatures = new String[CATEGORIES.length][15];
+		for (int c = 0; c < CATEGORIES.length; c++) {
+			for (int w = 0; w < signatures[c].length; w++) {
+				signatures[c][w] = CATEGORIES[c].toLowerCase().substring(0, 3) + "merchant" + w;
+			}
+		}
+
+		NaiveBayesCategoryModel model = new NaiveBayesCategoryModel();
+		long learnStart = System.nanoTime();
+		for (int i = 0; i < 2000; i++) {
+			int c = random.nextInt(CATEGORIES.length);
+			model.learn(description(random, signatures[c]), CATEGORIES[c]);
+		}
+		long learnNanos = System.nanoTime() - learnStart;
+
+		int correct = 0;
+		int trials = 500;
+		long predictStart = System.nanoTime();
+		for (int i = 0; i < trials; i++) {
+			int c = random.nextInt(CATEGORIES.length);
+			List<CategoryPrediction> predictions = model.predict(description(random, signatures[c]), Map.of(), 3);
+			if (!predictions.isEmpty() && predictions.get(0).category().equals(CATEGORIES[c])) {
+				correct++;
+			}
+		}
+		long predictNanos = System.nanoTime() - predictStart;
+
+		double accuracy = (double) correct / trials;
+		System.out.printf("Naive Bayes: accuracy %.3f, learn %.1f us/expense, predict %.1f us/call%n",
+				accuracy, learnNanos / 2000 / 1000.0, predictNanos / trials / 1000.0);
+		assertTrue(accuracy >= 0.9, "accuracy " + accuracy);
+		assertTrue(predictNanos / trials < 5_000_000, "predict took " + predictNanos / trials + " ns");
+	}
+
+	// One or two merchant words mixed with shared filler words
+	private static String description(Random random, String[] signature) {
+		StringBuilder text = new StringBuilder(signature[random.nextInt(signature.length)]);
+		if (random.nextBoolean()) {
+			text.append(' ').append(signature[random.nextInt(signature.length)]);
+		}
+		for (int i = random.nextInt(3); i >= 0; i--) {
+			text.append(' ').append(NOISE[random.nextInt(NOISE.length)]);
+		}
+		return text.toString();
+	}
+}
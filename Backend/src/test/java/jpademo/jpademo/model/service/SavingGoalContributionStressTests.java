@@ -0,0 +1,127 @@
+package jpademo.jpademo.model.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import jpademo.jpademo.model.Income;
+import jpademo.jpademo.model.SavingGoal;
+import jpademo.jpademo.model.repository.BalanceLedgerRepository;
+import jpademo.jpademo.model.repository.ExpenseRepository;
+import jpademo.jpademo.model.repository.IncomeRepository;
+import jpademo.jpademo.model.repository.SavingGoalRepository;
+
+@SpringBootTest
+class SavingGoalContributionStressTests {
+
+	private static final Long USER_ID = 990_000_006L;
+	private static final double CONTRIBUTION = 10.0;
+	private static final int AFFORDABLE_CONTRIBUTIONS = 100;
+	private static final int ATTEMPTED_CONTRIBUTIONS = 160;
+
+	@Autowired
+	private SavingGoalService savingGoalService;
+
+	@Autowired
+	private IncomeService incomeService;
+
+	@Autowired
+	private RollupService rollupService;
+
+	@Autowired
+	private SavingGoalRepository savingGoalRepository;
+
+	@Autowired
+	private IncomeRepository incomeRepository;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private BalanceLedgerRepository ledgerRepository;
+
+	@AfterEach
+	void cleanUp() {
+		savingGoalRepository.deleteAll(savingGoalRepository.findByUserId(USER_ID));
+		expenseRepository.deleteAll(expenseRepository.findByUserId(USER_ID));
+		incomeRepository.deleteAll(incomeRepository.findByUserIdOrderByIncomeDateDesc(USER_ID));
+		ledgerRepository.deleteById(USER_ID);
+		rollupService.rebuild(USER_ID);
+	}
+
+	@Test
+	void concurrentContributionsNeverOverdraw() throws Exception {
+		for (int threads : new int[] {1, 8, 64}) {
+			cleanUp();
+			runContributors(threads);
+		}
+	}
+
+	private void runContributors(int threads) throws Exception {
+		Income income = new Income();
+		income.setUserId(USER_ID);
+		income.setAmount(BigDecimal.valueOf(CONTRIBUTION * AFFORDABLE_CONTRIBUTIONS));
+		income.setCategory("Salary");
+		income.setIncomeDate(LocalDate.now());
+		incomeService.createIncome(income);
+
+		SavingGoal goal = new SavingGoal();
+		goal.setUserId(USER_ID);
+		goal.setGoalName("Stress test");
+		goal.setTargetAmount(1_000_000.0);
+		Long goalId = savingGoalService.createGoal(goal).getId();
+
+		AtomicInteger remaining = new AtomicInteger(ATTEMPTED_CONTRIBUTIONS);
+		AtomicInteger succeeded = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				while (remaining.getAndDecrement() > 0) {
+					try {
+						savingGoalService.addAmount(goalId, CONTRIBUTION);
+						succeeded.incrementAndGet();
+					} catch (RuntimeException insufficientBalance) {
+						// Expected once the balance is used up
+					}
+				}
+				return null;
+			}));
+		}
+
+		long startedAt = System.nanoTime();
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		double seconds = (System.nanoTime() - startedAt) / 1e9;
+		pool.shutdown();
+
+		BigDecimal balance = ledgerRepository.findBalance(USER_ID).orElseThrow();
+		double saved = savingGoalRepository.findById(goalId).orElseThrow().getSavedAmount();
+
+		System.out.printf("contributors=%d attempts=%d succeeded=%d throughput=%.1f ops/s%n",
+				threads, ATTEMPTED_CONTRIBUTIONS, succeeded.get(), ATTEMPTED_CONTRIBUTIONS / seconds);
+
+		assertTrue(balance.signum() >= 0, "balance went negative: " + balance);
+		assertEquals(AFFORDABLE_CONTRIBUTIONS, succeeded.get());
+		assertEquals(succeeded.get() * CONTRIBUTION, saved, 0.0001);
+		assertEquals(0, balance.compareTo(BigDecimal.ZERO));
+	}
+}
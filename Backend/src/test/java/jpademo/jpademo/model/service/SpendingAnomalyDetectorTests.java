@@ -0,0 +1,177 @@
+package jpademo.jpademo.model.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import jpademo.jpademo.model.Expense;
+import jpademo.jpademo.model.ExpenseAnomaly;
+import jpademo.jpademo.model.repository.BalanceLedgerRepository;
+import jpademo.jpademo.model.repository.ExpenseAnomalyRepository;
+import jpademo.jpademo.model.repository.ExpenseRepository;
+
+@SpringBootTest
+class SpendingAnomalyDetectorTests {
+
+	private static final Long USER_ID = 990_000_015L;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private SpendingAnomalyDetector anomalyDetector;
+
+	@Autowired
+	private RollupService rollupService;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private ExpenseAnomalyRepository anomalyRepository;
+
+	@Autowired
+	private BalanceLedgerRepository ledgerRepository;
+
+	@AfterEach
+	void cleanUp() {
+		anomalyRepository.deleteAll(anomalyRepository.findByUserIdOrderByDetectedAtDesc(USER_ID));
+		expenseRepository.deleteAll(expenseRepository.findByUserId(USER_ID));
+		ledgerRepository.deleteById(USER_ID);
+		rollupService.rebuild(USER_ID);
+		anomalyDetector.evict(USER_ID);
+	}
+
+	@Test
+	void flagsFiveTimesTheUsualFoodSpend() {
+		for (int i = 0; i < 10; i++) {
+			create("Food", 90 + (i % 3) * 10);
+		}
+		create("Transport", 40);
+
+		create("Food", 110);
+		assertTrue(anomalyRepository.findByUserIdOrderByDetectedAtDesc(USER_ID).isEmpty());
+
+		Expense spike = create("Food", 500);
+		ExpenseAnomaly anomaly = anomalyRepository.findByUserIdOrderByDetectedAtDesc(USER_ID).get(0);
+		assertEquals(spike.getId(), anomaly.getExpenseId());
+		assertEquals("Food", anomaly.getCategory());
+		assertTrue(anomaly.getExpectedAmount().doubleValue() < 120);
+	}
+
+	@Test
+	void rebuildsStateFromRecentHistoryAfterEviction() {
+		for (int i = 0; i < 10; i++) {
+			create("Bills", 1000);
+		}
+		anomalyDetector.evict(USER_ID);
+
+		create("Bills", 5000);
+
+		assertEquals(1, anomalyRepository.findByUserIdOrderByDetectedAtDesc(USER_ID).size());
+	}
+
+	@Test
+	void anomaliesGoWithTheirExpense() {
+		for (int i = 0; i < 10; i++) {
+			create("Food", 100);
+		}
+		Expense deleted = create("Food", 5000);
+		Expense edited = create("Food", 5000);
+		assertEquals(2, anomalyRepository.findByUserIdOrderByDetectedAtDesc(USER_ID).size());
+
+		expenseService.deleteExpense(deleted.getId());
+		expenseService.updateExpense(edited.getId(), Map.of("amount", "95.00"));
+
+		assertTrue(anomalyRepository.findByUserIdOrderByDetectedAtDesc(USER_ID).isEmpty());
+	}
+
+	@Test
+	void anomaliesArePagedNewestFirst() {
+		List<Long> spikes = new ArrayList<>();
+		for (String category : List.of("Food", "Bills", "Transport")) {
+			for (int i = 0; i < 10; i++) {
+				create(category, 100);
+			}
+			spikes.add(0, create(category, 5000).getId());
+		}
+
+		List<Long> walked = new ArrayList<>();
+		List<ExpenseAnomaly> page = anomalyDetector.getAnomalies(USER_ID, null, null, 2);
+		while (!page.isEmpty()) {
+			page.forEach(anomaly -> walked.add(anomaly.getExpenseId()));
+			ExpenseAnomaly last = page.get(page.size() - 1);
+			page = anomalyDetector.getAnomalies(USER_ID, last.getDetectedAt(), last.getId(), 2);
+		}
+
+		assertEquals(spikes, walked);
+	}
+
+	@Test
+	@Tag("benchmark")
+	void observeOverheadComparedToCreate() {
+		for (int i = 0; i < 10; i++) {
+			create("Food", 100);
+		}
+		int creates = 50;
+		long createStart = System.nanoTime();
+		for (int i = 0; i < creates; i++) {
+			create("Food", 100);
+		}
+		double createMicros = (System.nanoTime() - createStart) / 1000.0 / creates;
+
+		Expense probe = new Expense();
+		probe.setId(-1L);
+		probe.setUserId(USER_ID);
+		probe.setCategory("Food");
+		probe.setAmount(new BigDecimal("100"));
+		int observes = 100_000;
+		long observeStart = System.nanoTime();
+		for (int i = 0; i < observes; i++) {
+			assertNull(anomalyDetector.observe(probe));
+		}
+		double observeMicros = (System.nanoTime() - observeStart) / 1000.0 / observes;
+
+		System.out.printf("createExpense %.1f us, anomaly observe %.3f us (%.2f%%)%n",
+				createMicros, observeMicros, observeMicros / createMicros * 100);
+	}
+
+	@Test
+	void noVerdictDuringWarmUp() {
+		SpendingStats stats = new SpendingStats();
+		for (int i = 0; i < SpendingStats.MIN_OBSERVATIONS - 1; i++) {
+			stats.update(100);
+		}
+		assertFalse(stats.isAnomalous(10_000));
+
+		stats.update(100);
+		assertTrue(stats.isAnomalous(10_000));
+		assertFalse(stats.isAnomalous(150));
+	}
+
+	private Expense create(String category, double amount) {
+		Expense expense = new Expense();
+		expense.setUserId(USER_ID);
+		expense.setAmount(BigDecimal.valueOf(amount));
+		expense.setCategory(category);
+		expense.setDescription("test");
+		expense.setExpenseDate(LocalDate.now());
+		Expense saved = expenseService.createExpense(expense);
+		assertNotNull(saved.getId());
+		return saved;
+	}
+}
@@ -0,0 +1,55 @@
+package jpademo.jpademo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LoadGuardTests {
+
+	@Test
+	void aChangeDuringTheLoadIsReported() {
+		LoadGuard<Long> guard = new LoadGuard<>();
+		LoadGuard.Load quiet = guard.start(1L);
+		LoadGuard.Load raced = guard.start(2L);
+
+		guard.changed(2L);
+
+		assertTrue(guard.finish(1L, quiet));
+		assertFalse(guard.finish(2L, raced));
+		assertEquals(0, guard.size());
+	}
+
+	@Test
+	void changesOutsideALoadAreNotTracked() {
+		LoadGuard<Long> guard = new LoadGuard<>();
+		guard.changed(1L);
+
+		LoadGuard.Load load = guard.start(1L);
+
+		assertTrue(guard.finish(1L, load));
+		assertEquals(0, guard.size());
+	}
+
+	@Test
+	void cachedLoadIsDroppedWhenAWriteRacedIt() {
+		LruCache<Long, String> cache = new LruCache<>(10);
+		LoadGuard<Long> guard = new LoadGuard<>();
+
+		LoadGuard.Load load = guard.start(1L);
+		// A write commits after the load read the database but before it cached its result
+		guard.changed(1L);
+		String cached = cache.putIfAbsent(1L, "loaded");
+		if (!guard.finish(1L, load)) {
+			cache.remove(1L, cached);
+		}
+
+		assertNull(cache.get(1L));
+		// Only the value the load cached is removed
+		cache.put(1L, "newer");
+		assertFalse(cache.remove(1L, "loaded"));
+		assertEquals("newer", cache.get(1L));
+	}
+}
@@ -0,0 +1,68 @@
+package jpademo.jpademo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class LruCacheTests {
+
+	@Test
+	void evictsLeastRecentlyUsed() {
+		LruCache<String, Integer> cache = new LruCache<>(2);
+		cache.put("a", 1);
+		cache.put("b", 2);
+		cache.get("a");
+		cache.put("c", 3);
+
+		assertNull(cache.get("b"));
+		assertEquals(1, cache.get("a"));
+		assertEquals(3, cache.get("c"));
+		assertEquals(1, cache.stats().evictions());
+	}
+
+	@Test
+	void entriesExpireAfterTheTtl() {
+		AtomicLong now = new AtomicLong();
+		LruCache<String, Integer> cache = new LruCache<>(10, Duration.ofSeconds(30), now::get);
+		cache.put("a", 1);
+
+		now.addAndGet(Duration.ofSeconds(29).toNanos());
+		assertEquals(1, cache.get("a"));
+		now.addAndGet(Duration.ofSeconds(1).toNanos());
+		assertNull(cache.get("a"));
+
+		// Rewriting restarts the clock
+		cache.put("a", 2);
+		now.addAndGet(Duration.ofSeconds(20).toNanos());
+		assertEquals(2, cache.computeIfAbsent("a", key -> 3));
+
+		LruCache.Stats stats = cache.stats();
+		assertEquals(2, stats.hits());
+		assertEquals(1, stats.misses());
+		assertEquals(1, stats.expirations());
+		assertEquals(2.0 / 3, stats.hitRate(), 1e-9);
+	}
+
+	@Test
+	void listenerHearsAboutEvictedAndExpiredKeysOnly() {
+		AtomicLong now = new AtomicLong();
+		List<String> dropped = new ArrayList<>();
+		LruCache<String, Integer> cache = new LruCache<>(2, Duration.ofSeconds(30), now::get, dropped::add);
+		cache.put("a", 1);
+		cache.put("b", 2);
+		cache.remove("b");
+		cache.put("c", 3);
+		cache.put("d", 4);
+
+		now.addAndGet(Duration.ofSeconds(30).toNanos());
+		assertNull(cache.get("c"));
+
+		assertEquals(List.of("a", "c"), dropped);
+	}
+}
@@ -22,12 +22,12 @@ const AIExpenseDashboard = ({ userData, expenses, totalIncome, stats, onClose })
 
   const categoryBreakdown = stats.categoryTotals;
 
-  // API Call Function
+  // API Call Function (POSTs data when given, otherwise a GET of server-computed results)
   const callAI = async (endpoint, data) => {
     setLoading(true);
     setAiResponse(null);
     try {
-      const response = await fetch(`${API_BASE}${endpoint}`, {
+      const response = await fetch(`${API_BASE}${endpoint}`, data === undefined ? {} : {
         method: 'POST',
         headers: { 'Content-Type': 'application/json' },
         body: JSON.stringify(data)
@@ -199,11 +199,13 @@ const AIExpenseDashboard = ({ userData, expenses, totalIncome, stats, onClose })
       </div>
       
       <button
-        onClick={() => callAI('/monthly-analytics', {
-          totalIncome: totalIncome,
-          totalExpenses: stats.totalExpenses,
-          categoryBreakdown: categoryBreakdown
-        })}
+        onClick={() => userData?.id
+          ? callAI(`/monthly-analytics/${userData.id}`)
+          : callAI('/monthly-analytics', {
+              totalIncome: totalIncome,
+              totalExpenses: stats.totalExpenses,
+              categoryBreakdown: categoryBreakdown
+            })}
         disabled={loading}
         className="w-full bg-gradient-to-r from-green-600 to-emerald-600 hover:from-green-700 hover:to-emerald-700 text-white font-bold py-4 px-6 rounded-xl transition-all shadow-lg hover:shadow-xl disabled:opacity-50 flex items-center justify-center gap-3"
       >
@@ -277,6 +279,10 @@ const AIExpenseDashboard = ({ userData, expenses, totalIncome, stats, onClose })
       
       <button
         onClick={() => {
+          if (userData?.id) {
+            callAI(`/spending-alerts/${userData.id}`);
+            return;
+          }
           const weeklySpending = stats.totalExpenses / 4;
           const monthlyBudget = totalIncome * 0.7;
           const today = new Date();
@@ -368,7 +374,8 @@ const AIExpenseDashboard = ({ userData, expenses, totalIncome, stats, onClose })
       <button
         onClick={() => callAI('/suggest-category', { 
           description: categoryInput, 
-          amount: 2500 
+          amount: 2500,
+          userId: userData?.id
         })}
         disabled={!categoryInput.trim() || loading}
         className="w-full bg-gradient-to-r from-indigo-600 to-purple-600 hover:from-indigo-700 hover:to-purple-700 disabled:bg-gray-400 text-white font-bold py-4 px-6 rounded-xl transition-all shadow-lg hover:shadow-xl disabled:opacity-50 disabled:cursor-not-allowed flex items-center justify-center gap-3"
@@ -7,6 +7,9 @@ const API = 'http://localhost:8080/api';
 
 export default function CommunityForum({ userData, onClose }) {
   const [posts, setPosts] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [sortOrder, setSortOrder] = useState('new');
+  const [threads, setThreads] = useState({});
   const [loading, setLoading] = useState(true);
   const [activeTab, setActiveTab] = useState('forum');
   const [newPost, setNewPost] = useState({ title: '', content: '', category: 'General' });
@@ -17,22 +20,48 @@ export default function CommunityForum({ userData, onClose }) {
 
   const categories = ['General', 'Budget Tips', 'Saving Strategies', 'Investment', 'Debt Management', 'Questions'];
 
-  // Load all posts from backend
-  const loadPosts = async () => {
-    setLoading(true);
+  // Load a page of post summaries, newest or hottest first; without a cursor the list starts over
+  const loadPosts = async (cursor = null, order = sortOrder) => {
+    if (!cursor) setLoading(true);
     try {
-      const res = await fetch(`${API}/forum/posts`);
+      const params = new URLSearchParams({ limit: '20', userId: String(userData?.id || '0') });
+      if (cursor) params.set(order === 'hot' ? 'after' : 'before', cursor);
+      const res = await fetch(`${API}/forum/posts/${order === 'hot' ? 'hot' : 'feed'}?${params}`);
       if (!res.ok) throw new Error('Failed to fetch posts');
-      const data = await res.json();
-      setPosts(Array.isArray(data) ? data : []);
+      const page = await res.json();
+      const items = Array.isArray(page.items) ? page.items : [];
+      setPosts((prev) => (cursor ? [...prev, ...items] : items));
+      setNextCursor(page.hasMore ? page.nextCursor : null);
+      if (!cursor) setThreads({});
     } catch (e) {
       console.error('Error loading posts:', e);
-      setPosts([]);
+      if (!cursor) setPosts([]);
     } finally {
       setLoading(false);
     }
   };
 
+  // Load the next page of a post's comments
+  const loadComments = async (postId) => {
+    const thread = threads[postId];
+    try {
+      const params = new URLSearchParams({ limit: '20' });
+      if (thread?.nextCursor) params.set('after', thread.nextCursor);
+      const res = await fetch(`${API}/forum/posts/${postId}/comments?${params}`);
+      if (!res.ok) throw new Error('Failed to fetch comments');
+      const page = await res.json();
+      setThreads((prev) => ({
+        ...prev,
+        [postId]: {
+          items: [...(prev[postId]?.items || []), ...(page.items || [])],
+          nextCursor: page.hasMore ? page.nextCursor : null
+        }
+      }));
+    } catch (e) {
+      console.error('Error loading comments:', e);
+    }
+  };
+
   useEffect(() => {
     loadPosts();
   }, []);
@@ -125,8 +154,11 @@ export default function CommunityForum({ userData, onClose }) {
 
       if (!res.ok) throw new Error(`Failed to ${type} post`);
 
+      // The response is a summary of the post, so keep its loaded comments
       const updated = await res.json();
-      setPosts((list) => list.map((p) => (p.id === updated.id ? updated : p)));
+      setPosts((list) => list.map((p) => (p.id === updated.id
+        ? { ...p, likes: updated.likes, dislikes: updated.dislikes, likedByMe: updated.likedByMe, dislikedByMe: updated.dislikedByMe }
+        : p)));
     } catch (e) {
       console.error(`Error ${type}ing post:`, e);
     }
@@ -152,8 +184,14 @@ export default function CommunityForum({ userData, onClose }) {
 
       if (!res.ok) throw new Error('Failed to add comment');
 
-      const updated = await res.json();
-      setPosts((list) => list.map((p) => (p.id === updated.id ? updated : p)));
+      // Only the new comment comes back. Append it when the thread is shown to its end
+      // (or this is its first comment); otherwise paging will reach it in order
+      const comment = await res.json();
+      const hadComments = posts.find((p) => p.id === postId)?.commentCount > 0;
+      setThreads((prev) => ((prev[postId] && !prev[postId].nextCursor) || !hadComments
+        ? { ...prev, [postId]: { items: [...(prev[postId]?.items || []), comment], nextCursor: null } }
+        : prev));
+      setPosts((list) => list.map((p) => (p.id === postId ? { ...p, commentCount: (p.commentCount || 0) + 1 } : p)));
       setCommentText((prev) => ({ ...prev, [postId]: '' }));
     } catch (e) {
       console.error('Error adding comment:', e);
@@ -416,8 +454,16 @@ export default function CommunityForum({ userData, onClose }) {
                 <option>All Categories</option>
                 {categories.map(c => <option key={c}>{c}</option>)}
               </select>
+              <select
+                value={sortOrder}
+                onChange={(e) => { setSortOrder(e.target.value); loadPosts(null, e.target.value); }}
+                className="rounded-full border px-3 py-1 text-sm"
+              >
+                <option value="new">Newest</option>
+                <option value="hot">Hot</option>
+              </select>
               <button
-                onClick={loadPosts}
+                onClick={() => loadPosts()}
                 className="ml-auto inline-flex items-center gap-2 rounded-full bg-gray-100 px-3 py-1 text-sm hover:bg-gray-200"
               >
                 Refresh
@@ -499,11 +545,19 @@ export default function CommunityForum({ userData, onClose }) {
 
                     {/* Comments Section */}
                     <div className="mt-3 border-t pt-3">
-                      <div className="mb-2 text-xs text-gray-500">
-                        {post.comments?.length || 0} comments
+                      <div className="mb-2 flex items-center gap-2 text-xs text-gray-500">
+                        {post.commentCount || 0} comments
+                        {post.commentCount > 0 && !threads[post.id] && (
+                          <button
+                            onClick={() => loadComments(post.id)}
+                            className="text-indigo-600 hover:underline"
+                          >
+                            Show comments
+                          </button>
+                        )}
                       </div>
                       <div className="space-y-2">
-                        {(post.comments || []).map(c => (
+                        {(threads[post.id]?.items || []).map(c => (
                           <div key={c.id} className="rounded-lg bg-gray-50 p-2">
                             <div className="text-xs text-gray-600">
                               <span className="font-medium">{c.authorName}</span> •{' '}
@@ -512,6 +566,14 @@ export default function CommunityForum({ userData, onClose }) {
                             <div className="text-sm text-gray-800">{c.text}</div>
                           </div>
                         ))}
+                        {threads[post.id]?.nextCursor && (
+                          <button
+                            onClick={() => loadComments(post.id)}
+                            className="text-xs text-indigo-600 hover:underline"
+                          >
+                            Load more comments
+                          </button>
+                        )}
                       </div>
                       <div className="mt-2 flex items-center gap-2">
                         <input
@@ -539,6 +601,14 @@ export default function CommunityForum({ userData, onClose }) {
                   </div>
                 ))
               )}
+              {!loading && nextCursor && (
+                <button
+                  onClick={() => loadPosts(nextCursor)}
+                  className="w-full rounded-xl border py-2 text-sm text-indigo-600 hover:bg-gray-50"
+                >
+                  Load more posts
+                </button>
+              )}
             </div>
           </div>
         )}